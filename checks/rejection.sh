@@ -3,7 +3,7 @@
 readonly TIMEOUT=3 # seconds
 
 readonly THIS_DIR="$(dirname "$0")"
-readonly MINIC="$THIS_DIR/../minic.sh"
+readonly MINIC="${MINIC:-$THIS_DIR/../minic.sh}"
 
 function usage {
   echo "USAGE: $0 [MINIC_OPTIONS...] PROGRAM_PATH" >&2
@@ -4,7 +4,7 @@ readonly TIMEOUT=3 # seconds
 readonly MAX_SIZE=1024 # byte
 
 readonly THIS_DIR="$(dirname "$0")"
-readonly MINIC="$THIS_DIR/../minic.sh"
+readonly MINIC="${MINIC:-$THIS_DIR/../minic.sh}"
 
 function usage {
   echo "USAGE: $0 [MINIC_OPTIONS...] PROGRAM_PATH" >&2
@@ -47,7 +47,8 @@ fi
 # reference implementation
 reference_output=$(\
   trap "" PIPE ; \
-  timeout "$TIMEOUT" "$MINIC" "$INPUT_PROGRAM" --interpret 2> /dev/null | \
+  timeout "$TIMEOUT" "$MINIC" "$INPUT_PROGRAM" --interpret --maxOutputBytes $((MAX_SIZE + 1)) \
+    2> /dev/null | \
     head -c $((MAX_SIZE + 1)) ; \
   exit ${PIPESTATUS[0]})
 
@@ -59,6 +60,9 @@ if [ "$reference_exit_code" -ne 0 ] ; then
   "124")
     echo "[i] timeout in reference implementation" >&2
     ;;
+  "135")
+    echo "[i] too much output" >&2
+    ;;
   *)
     echo "[i] program is invalid" >&2
     ;;
@@ -75,7 +79,8 @@ fi
 # implementation under test
 test_output=$(\
   trap "" PIPE ; \
-  timeout "$TIMEOUT" "$MINIC" "$INPUT_PROGRAM" --interpret "$@" 2> /dev/null | \
+  timeout "$TIMEOUT" "$MINIC" "$INPUT_PROGRAM" --interpret --maxOutputBytes $((MAX_SIZE + 1)) "$@" \
+    2> /dev/null | \
     head -c $((MAX_SIZE + 1)) ; \
   exit ${PIPESTATUS[0]})
 
@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Thin client for the MiniC server (see README); can be used instead of 'minic.sh' (e.g., via
+# 'MINIC=./minic_client.sh checks/crash.sh ...'). Falls back to 'minic.sh' (i.e., to starting a new
+# JVM) if no server is running.
+
+export LC_ALL=C
+
+readonly THIS_DIR="$(dirname "$0")"
+readonly HOST="127.0.0.1"
+readonly PORT="${MINIC_SERVER_PORT:-4711}"
+
+function usage {
+  echo "USAGE: $0 PROGRAM_PATH [MINIC_OPTIONS...]" >&2
+}
+
+if [ $# -lt 1 ] ; then
+  usage
+  exit 1
+fi
+
+readonly INPUT_PROGRAM="$1"
+shift
+
+if [ ! -f "$INPUT_PROGRAM" ] ; then
+  usage
+  exit 1
+fi
+
+if ! { exec 3<>"/dev/tcp/$HOST/$PORT" ; } 2> /dev/null ; then
+  exec "$THIS_DIR/minic.sh" "$INPUT_PROGRAM" "$@"
+fi
+
+# send request
+{
+  echo "$#"
+  for option in "$@" ; do
+    echo "$option"
+  done
+  wc -c < "$INPUT_PROGRAM"
+  cat "$INPUT_PROGRAM"
+} >&3
+
+# receive reply
+IFS= read -r -u 3 exit_code || exit 1
+IFS= read -r -u 3 error_kind || exit 1
+
+IFS= read -r -u 3 size || exit 1
+if [ "$size" -gt 0 ] ; then
+  IFS= read -r -N "$size" -u 3 stdout
+  printf "%s" "$stdout"
+fi
+
+IFS= read -r -u 3 size || exit 1
+if [ "$size" -gt 0 ] ; then
+  IFS= read -r -N "$size" -u 3 stderr
+  printf "%s" "$stderr" >&2
+fi
+
+exec 3>&-
+
+exit "$exit_code"
@@ -0,0 +1,64 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.frontend.ast.Program;
+import i2.act.examples.minic.frontend.semantics.SemanticAnalysis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// NOTE: the semantic analysis only (re-)computes annotations of the AST, i.e., the same ASTs can be
+// analyzed in each invocation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+
+  @Param({"examples", "generated", "large"})
+  public String corpus;
+
+  private List<Program> programs;
+
+  @Setup
+  public final void setup() {
+    final List<Program> parsedPrograms = new ArrayList<>();
+    {
+      final List<String> programCodes = BenchmarkPrograms.filterValid(
+          BenchmarkPrograms.load(this.corpus),
+          (programCode) -> BenchmarkPrograms.parse(programCode) != null);
+
+      for (final String programCode : programCodes) {
+        parsedPrograms.add(BenchmarkPrograms.parse(programCode));
+      }
+    }
+
+    this.programs = BenchmarkPrograms.filterValid(parsedPrograms,
+        (program) -> {
+          SemanticAnalysis.analyze(program);
+          return true;
+        });
+  }
+
+  @Benchmark
+  public final void analyze() {
+    for (final Program program : this.programs) {
+      SemanticAnalysis.analyze(program);
+    }
+  }
+
+}
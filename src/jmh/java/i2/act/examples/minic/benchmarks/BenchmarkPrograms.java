@@ -0,0 +1,135 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.ast.Program;
+import i2.act.examples.minic.frontend.lexer.EagerTokenStream;
+import i2.act.examples.minic.frontend.lexer.LazyTokenStream;
+import i2.act.examples.minic.frontend.lexer.LexerEngine;
+import i2.act.examples.minic.frontend.lexer.TokenStream;
+import i2.act.examples.minic.frontend.parser.Parser;
+import i2.act.util.FileUtil;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+public final class BenchmarkPrograms {
+
+  public static final String CORPUS_EXAMPLES = "examples";
+  public static final String CORPUS_GENERATED = "generated";
+  public static final String CORPUS_LARGE = "large";
+
+  public static final String TOKEN_STREAM_EAGER = "eager";
+  public static final String TOKEN_STREAM_LAZY = "lazy";
+
+  // the benchmarks are run from the project's root directory (see 'build.gradle'); the location of
+  // the example programs can be overridden via '-Dminic.examples=<directory>'
+  private static final String EXAMPLES_DIRECTORY =
+      System.getProperty("minic.examples", "examples");
+
+  private static final int NUMBER_OF_GENERATED_PROGRAMS = 50;
+  private static final int NUMBER_OF_FUNCTIONS_GENERATED = 10;
+  private static final int NUMBER_OF_FUNCTIONS_LARGE = 1000;
+
+  private static final long SEED = 42;
+
+  public static final List<String> load(final String corpus) {
+    switch (corpus) {
+      case CORPUS_EXAMPLES: {
+        return loadExamples();
+      }
+      case CORPUS_GENERATED: {
+        final List<String> programs = new ArrayList<>();
+
+        for (int index = 0; index < NUMBER_OF_GENERATED_PROGRAMS; ++index) {
+          programs.add(ProgramGenerator.generate(SEED + index, NUMBER_OF_FUNCTIONS_GENERATED));
+        }
+
+        return programs;
+      }
+      case CORPUS_LARGE: {
+        final List<String> programs = new ArrayList<>();
+        programs.add(ProgramGenerator.generate(SEED, NUMBER_OF_FUNCTIONS_LARGE));
+
+        return programs;
+      }
+      default: {
+        throw new RuntimeException(String.format("unknown corpus: '%s'", corpus));
+      }
+    }
+  }
+
+  private static final List<String> loadExamples() {
+    final List<File> files = FileUtil.findFiles(Paths.get(EXAMPLES_DIRECTORY), "*.c", false);
+
+    if (files.isEmpty()) {
+      throw new RuntimeException(
+          String.format("no example programs found in '%s'", EXAMPLES_DIRECTORY));
+    }
+
+    // sort the files for a deterministic order of the programs
+    files.sort(Comparator.comparing(File::getName));
+
+    final List<String> programs = new ArrayList<>();
+
+    for (final File file : files) {
+      programs.add(FileUtil.readFile(file));
+    }
+
+    return programs;
+  }
+
+  public static final TokenStream createTokenStream(final String programCode,
+      final String tokenStream, final String lexer) {
+    final LexerEngine lexerEngine = LexerEngine.fromName(lexer);
+
+    if (lexerEngine == null) {
+      throw new RuntimeException(String.format("unknown lexer: '%s'", lexer));
+    }
+
+    switch (tokenStream) {
+      case TOKEN_STREAM_EAGER: {
+        return EagerTokenStream.from(lexerEngine.createLexer(programCode, BugConfiguration.NONE));
+      }
+      case TOKEN_STREAM_LAZY: {
+        return LazyTokenStream.from(lexerEngine.createLexer(programCode, BugConfiguration.NONE));
+      }
+      default: {
+        throw new RuntimeException(String.format("unknown token stream: '%s'", tokenStream));
+      }
+    }
+  }
+
+  public static final Program parse(final String programCode) {
+    return Parser.parse(
+        createTokenStream(programCode, TOKEN_STREAM_EAGER, LexerEngine.CLASSIC.getName()));
+  }
+
+  // returns all elements for which the given predicate does not throw an InvalidProgramException;
+  // used to restrict the measurements of a stage to the programs that pass this stage
+  public static final <T> List<T> filterValid(final List<T> elements,
+      final Predicate<T> predicate) {
+    final List<T> validElements = new ArrayList<>();
+
+    for (final T element : elements) {
+      try {
+        if (predicate.test(element)) {
+          validElements.add(element);
+        }
+      } catch (final InvalidProgramException exception) {
+        // intentionally left blank
+      }
+    }
+
+    if (validElements.isEmpty()) {
+      throw new RuntimeException("no valid programs in corpus");
+    }
+
+    return validElements;
+  }
+
+}
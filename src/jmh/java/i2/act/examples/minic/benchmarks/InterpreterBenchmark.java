@@ -0,0 +1,104 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.frontend.ast.Program;
+import i2.act.examples.minic.frontend.semantics.SemanticAnalysis;
+import i2.act.examples.minic.interpreter.Engine;
+import i2.act.examples.minic.interpreter.Interpreter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class InterpreterBenchmark {
+
+  public static final String MODE_INTERPRET = "interpret";
+  public static final String MODE_CHECK_UNDEF = "checkUndef";
+
+  // programs that exceed these bounds (e.g., 'examples/infinite_loop.c') are excluded from the
+  // measurements
+  private static final int MAX_NUMBER_OF_STEPS = 1000000;
+  private static final int MAX_NUMBER_OF_LOOP_ITERATIONS = 100000;
+
+  @Param({"examples", "generated", "large"})
+  public String corpus;
+
+  @Param({"ast", "vm", "closure"})
+  public String engine;
+
+  @Param({"interpret", "checkUndef"})
+  public String mode;
+
+  private List<Program> programs;
+  private Engine selectedEngine;
+
+  @Setup
+  public final void setup() {
+    this.selectedEngine = Engine.fromName(this.engine);
+
+    if (this.selectedEngine == null) {
+      throw new RuntimeException(String.format("unknown engine: '%s'", this.engine));
+    }
+
+    final List<Program> analyzedPrograms = new ArrayList<>();
+    {
+      final List<String> programCodes = BenchmarkPrograms.filterValid(
+          BenchmarkPrograms.load(this.corpus),
+          (programCode) -> {
+            SemanticAnalysis.analyze(BenchmarkPrograms.parse(programCode));
+            return true;
+          });
+
+      for (final String programCode : programCodes) {
+        final Program program = BenchmarkPrograms.parse(programCode);
+        SemanticAnalysis.analyze(program);
+
+        analyzedPrograms.add(program);
+      }
+    }
+
+    this.programs = BenchmarkPrograms.filterValid(analyzedPrograms,
+        (program) -> {
+          run(program);
+          return true;
+        });
+  }
+
+  @Benchmark
+  public final void run(final Blackhole blackhole) {
+    for (final Program program : this.programs) {
+      blackhole.consume(run(program));
+    }
+  }
+
+  private final Object run(final Program program) {
+    if (MODE_CHECK_UNDEF.equals(this.mode)) {
+      Interpreter.checkDynamicallyValid(program, this.selectedEngine,
+          MAX_NUMBER_OF_STEPS, MAX_NUMBER_OF_LOOP_ITERATIONS);
+      return program;
+    } else {
+      assert (MODE_INTERPRET.equals(this.mode));
+      return Interpreter.interpret(program, this.selectedEngine,
+          MAX_NUMBER_OF_STEPS, MAX_NUMBER_OF_LOOP_ITERATIONS);
+    }
+  }
+
+}
@@ -0,0 +1,67 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.frontend.lexer.TokenKind;
+import i2.act.examples.minic.frontend.lexer.TokenStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+  @Param({"examples", "generated", "large"})
+  public String corpus;
+
+  @Param({"eager", "lazy"})
+  public String tokenStream;
+
+  @Param({"classic", "dfa"})
+  public String lexer;
+
+  private List<String> programs;
+
+  @Setup
+  public final void setup() {
+    this.programs = BenchmarkPrograms.filterValid(BenchmarkPrograms.load(this.corpus),
+        (programCode) -> lex(programCode) >= 0);
+  }
+
+  @Benchmark
+  public final void lex(final Blackhole blackhole) {
+    for (final String programCode : this.programs) {
+      blackhole.consume(lex(programCode));
+    }
+  }
+
+  private final int lex(final String programCode) {
+    final TokenStream tokens =
+        BenchmarkPrograms.createTokenStream(programCode, this.tokenStream, this.lexer);
+
+    // the lazy token stream only lexes on demand -> consume all tokens
+    int numberOfTokens = 0;
+    while (tokens.pop().getKind() != TokenKind.TK_EOF) {
+      ++numberOfTokens;
+    }
+
+    return numberOfTokens;
+  }
+
+}
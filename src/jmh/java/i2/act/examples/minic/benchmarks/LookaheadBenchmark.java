@@ -0,0 +1,168 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.frontend.info.NameTable;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.frontend.lexer.BaseLexer;
+import i2.act.examples.minic.frontend.lexer.LazyTokenStream;
+import i2.act.examples.minic.frontend.lexer.LexerEngine;
+import i2.act.examples.minic.frontend.lexer.Token;
+import i2.act.examples.minic.frontend.lexer.TokenStream;
+import i2.act.examples.minic.frontend.parser.Parser;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Parses with the lazy token stream, once with its lookahead buffer ('buffered') and once without
+// it, i.e., with a token stream that forwards each call to the lexer ('unbuffered'). Besides the
+// time, the benchmark reports the number of tokens and the number of times the lexer has lexed a
+// token ('lexerInvocations'); their ratio is the number of lexer invocations per token.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookaheadBenchmark {
+
+  @Param({"examples", "generated", "large"})
+  public String corpus;
+
+  @Param({"buffered", "unbuffered"})
+  public String lookahead;
+
+  @Param({"classic", "dfa"})
+  public String lexer;
+
+  private List<String> programs;
+
+  private LexerEngine lexerEngine;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Counters {
+
+    public long tokens;
+    public long lexerInvocations;
+
+    @Setup(Level.Iteration)
+    public final void reset() {
+      this.tokens = 0;
+      this.lexerInvocations = 0;
+    }
+
+  }
+
+  // counts the tokens that are lexed and consumed
+  private static final class CountingLexer extends BaseLexer {
+
+    private final BaseLexer lexer;
+    private final Counters counters;
+
+    public CountingLexer(final BaseLexer lexer, final Counters counters) {
+      this.lexer = lexer;
+      this.counters = counters;
+    }
+
+    @Override
+    public final Token peek() {
+      ++this.counters.lexerInvocations;
+      return this.lexer.peek();
+    }
+
+    @Override
+    public final void consume(final Token token) {
+      ++this.counters.tokens;
+      this.lexer.consume(token);
+    }
+
+    @Override
+    public final SourcePosition getPosition() {
+      return this.lexer.getPosition();
+    }
+
+    @Override
+    public final NameTable getNameTable() {
+      return this.lexer.getNameTable();
+    }
+
+  }
+
+  // the lazy token stream without lookahead buffer
+  private static final class UnbufferedTokenStream extends TokenStream {
+
+    private final BaseLexer lexer;
+
+    public UnbufferedTokenStream(final BaseLexer lexer) {
+      this.lexer = lexer;
+    }
+
+    @Override
+    public final Token peek() {
+      return this.lexer.peek();
+    }
+
+    @Override
+    public final Token pop() {
+      return this.lexer.pop();
+    }
+
+    @Override
+    public final SourcePosition getPosition() {
+      return this.lexer.getPosition();
+    }
+
+    @Override
+    public final NameTable getNameTable() {
+      return this.lexer.getNameTable();
+    }
+
+  }
+
+  @Setup
+  public final void setup() {
+    this.programs = BenchmarkPrograms.filterValid(BenchmarkPrograms.load(this.corpus),
+        (programCode) -> BenchmarkPrograms.parse(programCode) != null);
+
+    this.lexerEngine = LexerEngine.fromName(this.lexer);
+
+    if (this.lexerEngine == null) {
+      throw new RuntimeException(String.format("unknown lexer: '%s'", this.lexer));
+    }
+  }
+
+  @Benchmark
+  public final void parse(final Counters counters, final Blackhole blackhole) {
+    for (final String programCode : this.programs) {
+      final BaseLexer lexer = new CountingLexer(
+          this.lexerEngine.createLexer(programCode, BugConfiguration.NONE), counters);
+
+      final TokenStream tokens;
+      {
+        if ("buffered".equals(this.lookahead)) {
+          tokens = LazyTokenStream.from(lexer);
+        } else {
+          tokens = new UnbufferedTokenStream(lexer);
+        }
+      }
+
+      blackhole.consume(Parser.parse(tokens));
+    }
+  }
+
+}
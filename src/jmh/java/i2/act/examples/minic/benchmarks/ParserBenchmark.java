@@ -0,0 +1,57 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.frontend.lexer.TokenStream;
+import i2.act.examples.minic.frontend.parser.Parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// NOTE: measures lexing and parsing, as the parser pulls the tokens from the token stream
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({"examples", "generated", "large"})
+  public String corpus;
+
+  @Param({"eager", "lazy"})
+  public String tokenStream;
+
+  @Param({"classic", "dfa"})
+  public String lexer;
+
+  private List<String> programs;
+
+  @Setup
+  public final void setup() {
+    this.programs = BenchmarkPrograms.filterValid(BenchmarkPrograms.load(this.corpus),
+        (programCode) -> BenchmarkPrograms.parse(programCode) != null);
+  }
+
+  @Benchmark
+  public final void parse(final Blackhole blackhole) {
+    for (final String programCode : this.programs) {
+      final TokenStream tokens =
+          BenchmarkPrograms.createTokenStream(programCode, this.tokenStream, this.lexer);
+      blackhole.consume(Parser.parse(tokens));
+    }
+  }
+
+}
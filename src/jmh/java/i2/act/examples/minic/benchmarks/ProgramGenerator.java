@@ -0,0 +1,150 @@
+package i2.act.examples.minic.benchmarks;
+
+import java.util.Random;
+
+public final class ProgramGenerator {
+
+  // NOTE: the generated programs are valid, free of undefined behavior and terminate, i.e., they
+  // pass through all stages of the pipeline; all variables are assigned before they are read, loops
+  // have constant bounds, divisions use non-zero constants and functions only call functions that
+  // have been declared before them (i.e., there is no recursion)
+
+  public static final String generate(final long seed, final int numberOfFunctions) {
+    final ProgramGenerator generator = new ProgramGenerator(seed);
+    return generator.generateProgram(numberOfFunctions);
+  }
+
+  // ===============================================================================================
+
+  private static final int NUMBER_OF_GLOBALS = 4;
+  private static final int NUMBER_OF_PARAMETERS = 2;
+  private static final int MAX_EXPRESSION_DEPTH = 3;
+  private static final int MAX_LOOP_ITERATIONS = 20;
+
+  private static final String[] LOCALS = {"a", "b", "c"};
+  private static final String[] ARITHMETIC_OPERATORS = {"+", "-", "*"};
+  private static final String[] COMPARISON_OPERATORS = {"<", "<=", ">", ">=", "==", "!="};
+
+  private final Random random;
+  private final StringBuilder builder;
+
+  private boolean localsAssigned;
+
+  private ProgramGenerator(final long seed) {
+    this.random = new Random(seed);
+    this.builder = new StringBuilder();
+  }
+
+  private final String generateProgram(final int numberOfFunctions) {
+    for (int index = 0; index < NUMBER_OF_GLOBALS; ++index) {
+      this.builder.append(String.format("int g%d;\n", index));
+    }
+
+    for (int index = 0; index < numberOfFunctions; ++index) {
+      generateFunction(index);
+    }
+
+    this.builder.append("int main() {\n");
+
+    for (int index = 0; index < numberOfFunctions; ++index) {
+      this.builder.append(String.format("  print(f%d(%d, %d));\n",
+          index, this.random.nextInt(100), this.random.nextInt(100)));
+    }
+
+    this.builder.append("  return g0;\n");
+    this.builder.append("}\n");
+
+    return this.builder.toString();
+  }
+
+  private final void generateFunction(final int index) {
+    this.builder.append(String.format("int f%d(int p0, int p1) {\n", index));
+
+    this.localsAssigned = false;
+
+    for (final String local : LOCALS) {
+      this.builder.append(String.format("  int %s;\n", local));
+    }
+
+    this.builder.append("  int i;\n");
+
+    for (final String local : LOCALS) {
+      this.builder.append(String.format("  %s = %s;\n", local, generateExpression(0)));
+    }
+
+    this.localsAssigned = true;
+
+    if (index > 0) {
+      // call exactly one of the previously declared functions (i.e., the call graph is a chain)
+      final int callee = this.random.nextInt(index);
+      this.builder.append(String.format("  %s = f%d(%s, %s);\n",
+          randomElement(LOCALS), callee, generateExpression(1), generateExpression(1)));
+    }
+
+    this.builder.append("  i = 0;\n");
+    this.builder.append(String.format("  while (i < %d) {\n", 1 + this.random.nextInt(
+        MAX_LOOP_ITERATIONS)));
+    this.builder.append(String.format("    if (%s) {\n", generateCondition()));
+    this.builder.append(String.format("      %s = %s;\n", randomElement(LOCALS),
+        generateExpression(0)));
+    this.builder.append("    } else {\n");
+    this.builder.append(String.format("      g%d = %s;\n", this.random.nextInt(NUMBER_OF_GLOBALS),
+        generateExpression(0)));
+    this.builder.append("    }\n");
+    this.builder.append(String.format("    %s = %s / %d;\n", randomElement(LOCALS),
+        generateExpression(1), 1 + this.random.nextInt(9)));
+    this.builder.append("    i = i + 1;\n");
+    this.builder.append("  }\n");
+    this.builder.append(String.format("  return %s;\n", generateExpression(0)));
+    this.builder.append("}\n");
+  }
+
+  private final String generateCondition() {
+    final String condition = String.format("%s %s %s", generateExpression(1),
+        randomElement(COMPARISON_OPERATORS), generateExpression(1));
+
+    switch (this.random.nextInt(3)) {
+      case 0: {
+        return String.format("%s && %s", condition, generateCondition());
+      }
+      case 1: {
+        return String.format("%s || %s", condition, generateCondition());
+      }
+      default: {
+        return condition;
+      }
+    }
+  }
+
+  private final String generateExpression(final int depth) {
+    if (depth >= MAX_EXPRESSION_DEPTH || this.random.nextInt(3) == 0) {
+      switch (this.random.nextInt(4)) {
+        case 0: {
+          return String.valueOf(this.random.nextInt(1000));
+        }
+        case 1: {
+          return String.format("p%d", this.random.nextInt(NUMBER_OF_PARAMETERS));
+        }
+        case 2: {
+          return String.format("g%d", this.random.nextInt(NUMBER_OF_GLOBALS));
+        }
+        default: {
+          // local variables are only used after they have been assigned
+          if (this.localsAssigned) {
+            return randomElement(LOCALS);
+          } else {
+            return "p0";
+          }
+        }
+      }
+    }
+
+    return String.format("(%s %s %s)", generateExpression(depth + 1),
+        randomElement(ARITHMETIC_OPERATORS), generateExpression(depth + 1));
+  }
+
+  private final String randomElement(final String[] elements) {
+    return elements[this.random.nextInt(elements.length)];
+  }
+
+}
@@ -0,0 +1,98 @@
+package i2.act.examples.minic.benchmarks;
+
+import i2.act.examples.minic.frontend.ast.Program;
+import i2.act.examples.minic.frontend.lexer.EagerTokenStream;
+import i2.act.examples.minic.frontend.lexer.Lexer;
+import i2.act.examples.minic.frontend.parser.Parser;
+import i2.act.examples.minic.frontend.semantics.SemanticAnalysis;
+import i2.act.examples.minic.interpreter.Engine;
+import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.util.Pair;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class RecursionBenchmark {
+
+  // naive recursive Fibonacci (i.e., exponentially many calls and returns)
+  private static final String FIB_REC =
+      "int fib(int n) {\n"
+      + "  if (n < 2) {\n"
+      + "    return n;\n"
+      + "  }\n"
+      + "  return fib(n - 1) + fib(n - 2);\n"
+      + "}\n"
+      + "int main() {\n"
+      + "  print(fib(%d));\n"
+      + "  return 0;\n"
+      + "}\n";
+
+  // tail-recursive Fibonacci as in 'examples/fib.c' (i.e., deep but linear recursion)
+  private static final String FIB_H =
+      "int fib_h(int n, int a, int b) {\n"
+      + "  if (n == 0) {\n"
+      + "    return a;\n"
+      + "  }\n"
+      + "  if (n == 1) {\n"
+      + "    return b;\n"
+      + "  }\n"
+      + "  return fib_h(n - 1, b, a + b);\n"
+      + "}\n"
+      + "int main() {\n"
+      + "  int i;\n"
+      + "  i = 0;\n"
+      + "  while (i < 1000) {\n"
+      + "    print(fib_h(%d, 0, 1));\n"
+      + "    i = i + 1;\n"
+      + "  }\n"
+      + "  return 0;\n"
+      + "}\n";
+
+  @Param({"fib_rec", "fib_h"})
+  public String program;
+
+  @Param({"20"})
+  public int n;
+
+  @Param({"ast", "vm", "closure"})
+  public String engine;
+
+  private Program analyzedProgram;
+  private Engine selectedEngine;
+
+  @Setup
+  public final void setup() {
+    final String template = ("fib_rec".equals(this.program)) ? (FIB_REC) : (FIB_H);
+    final String programCode = String.format(template, this.n);
+
+    this.analyzedProgram = Parser.parse(EagerTokenStream.from(new Lexer(programCode)));
+    SemanticAnalysis.analyze(this.analyzedProgram);
+
+    this.selectedEngine = Engine.fromName(this.engine);
+  }
+
+  @Benchmark
+  public final Pair<Interpreter.Value, List<Interpreter.Value>> interpret() {
+    return Interpreter.interpret(this.analyzedProgram, this.selectedEngine,
+        Interpreter.UNBOUNDED, Interpreter.UNBOUNDED);
+  }
+
+}
@@ -1,22 +1,36 @@
 package i2.act.examples.minic;
 
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.cache.CachedResult;
+import i2.act.examples.minic.cache.ResultCache;
 import i2.act.examples.minic.errors.InvalidProgramException;
 import i2.act.examples.minic.frontend.ast.Program;
+import i2.act.examples.minic.frontend.info.SourcePosition;
 import i2.act.examples.minic.frontend.lexer.EagerTokenStream;
 import i2.act.examples.minic.frontend.lexer.LazyTokenStream;
-import i2.act.examples.minic.frontend.lexer.Lexer;
+import i2.act.examples.minic.frontend.lexer.LexerEngine;
 import i2.act.examples.minic.frontend.lexer.TokenStream;
 import i2.act.examples.minic.frontend.parser.Parser;
 import i2.act.examples.minic.frontend.semantics.SemanticAnalysis;
+import i2.act.examples.minic.interpreter.Engine;
+import i2.act.examples.minic.interpreter.ExecutionBudget;
+import i2.act.examples.minic.interpreter.ExecutionLimits;
 import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.examples.minic.interpreter.Memoization;
+import i2.act.examples.minic.interpreter.Optimizer;
 import i2.act.util.FileUtil;
+import i2.act.util.SafeWriter;
 import i2.act.util.options.ProgramArguments;
 import i2.act.util.options.ProgramArgumentsParser;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public final class Classifier {
 
@@ -26,10 +40,25 @@ public final class Classifier {
   private static final String OPTION_PATTERN = "--pattern";
   private static final String OPTION_RECURSIVE = "--recursive";
 
+  private static final String OPTION_THREADS = "--threads";
+
+  private static final String OPTION_REPORT = "--report";
+
   private static final String OPTION_LAZY_LEXER = "--lazyLexer";
+  private static final String OPTION_LEXER = "--lexer";
+
+  private static final String OPTION_ENGINE = "--engine";
+  private static final String OPTION_OPTIMIZE = "--optimize";
 
   private static final String OPTION_MAX_NUMBER_OF_STEPS = "--maxNumberOfSteps";
   private static final String OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS = "--maxNumberOfLoopIterations";
+  private static final String OPTION_MAX_CALL_DEPTH = "--maxCallDepth";
+  private static final String OPTION_TIMEOUT_MILLIS = "--timeoutMillis";
+  private static final String OPTION_CPU_TIMEOUT_MILLIS = "--cpuTimeoutMillis";
+  private static final String OPTION_MEMOIZE_PURE = "--memoizePure";
+
+  private static final String OPTION_CACHE_SIZE = "--cacheSize";
+  private static final String OPTION_CACHE_DIRECTORY = "--cacheDirectory";
 
   static {
     argumentsParser = new ProgramArgumentsParser();
@@ -38,10 +67,25 @@ public final class Classifier {
     argumentsParser.addOption(OPTION_PATTERN, true, true, "<file name pattern>");
     argumentsParser.addOption(OPTION_RECURSIVE, false);
 
+    argumentsParser.addOption(OPTION_THREADS, false, true, "<number>");
+
+    argumentsParser.addOption(OPTION_REPORT, false, true, "<file name>");
+
     argumentsParser.addOption(OPTION_LAZY_LEXER, false);
+    argumentsParser.addOption(OPTION_LEXER, false, true, "<classic|dfa>");
+
+    argumentsParser.addOption(OPTION_ENGINE, false, true, "<ast|vm|closure>");
+    argumentsParser.addOption(OPTION_OPTIMIZE, false);
 
     argumentsParser.addOption(OPTION_MAX_NUMBER_OF_STEPS, false, true, "<number>");
     argumentsParser.addOption(OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS, false, true, "<number>");
+    argumentsParser.addOption(OPTION_MAX_CALL_DEPTH, false, true, "<number>");
+    argumentsParser.addOption(OPTION_TIMEOUT_MILLIS, false, true, "<milliseconds>");
+    argumentsParser.addOption(OPTION_CPU_TIMEOUT_MILLIS, false, true, "<milliseconds>");
+    argumentsParser.addOption(OPTION_MEMOIZE_PURE, false, true, "<charge|free>");
+
+    argumentsParser.addOption(OPTION_CACHE_SIZE, false, true, "<number>");
+    argumentsParser.addOption(OPTION_CACHE_DIRECTORY, false, true, "<directory>");
   }
 
   private static enum ClassificationResult {
@@ -53,6 +97,67 @@ public final class Classifier {
     VALID,
   }
 
+  private static enum Stage {
+    LEX("lex"),
+    PARSE("parse"),
+    ANALYZE("analyze"),
+    EXECUTE("execute");
+
+    public final String name;
+
+    private Stage(final String name) {
+      this.name = name;
+    }
+
+  }
+
+  private static final long NOT_RUN = -1;
+
+  private static final int UNKNOWN_POSITION = -1;
+
+  // the maximum number of programs per thread that have been submitted to the pool, but whose
+  // results have not been collected yet (i.e., the memory usage does not grow with the number of
+  // programs)
+  private static final int PENDING_PROGRAMS_PER_THREAD = 64;
+
+  // only keeps the parts of the error that are reported (and not the exception with its stack
+  // trace)
+  private static final class Classification {
+
+    public final ClassificationResult result;
+
+    // 'UNKNOWN_POSITION' if the program is valid or if the position of the error is unknown
+    public final int line;
+    public final int column;
+
+    // 'null' if the program is valid
+    public final String description;
+
+    public final boolean cached;
+
+    // the time per stage in nanoseconds ('NOT_RUN' for stages that have not been run, e.g., if the
+    // result has been taken from the cache)
+    public final long[] times;
+
+    public Classification(final InvalidProgramException exception, final boolean cached,
+        final long[] times) {
+      this.result = classify(exception);
+
+      if (exception == null || exception.getPosition() == SourcePosition.UNKNOWN) {
+        this.line = UNKNOWN_POSITION;
+        this.column = UNKNOWN_POSITION;
+      } else {
+        this.line = exception.getPosition().line;
+        this.column = exception.getPosition().column;
+      }
+
+      this.description = (exception == null) ? (null) : (exception.getDescription());
+      this.cached = cached;
+      this.times = times;
+    }
+
+  }
+
   private static final void usage() {
     System.err.format("USAGE: java %s\n", Classifier.class.getSimpleName());
     System.err.println(argumentsParser.usage("  "));
@@ -81,35 +186,131 @@ public final class Classifier {
     final String pattern = arguments.getOption(OPTION_PATTERN);
     final boolean recursive = arguments.hasOption(OPTION_RECURSIVE);
 
+    final int numberOfThreads = arguments.getIntOptionOr(OPTION_THREADS, 1);
+
+    if (numberOfThreads < 1) {
+      abort(String.format("[!] invalid number of threads: %d", numberOfThreads));
+    }
+
     final boolean lazyLexer = arguments.hasOption(OPTION_LAZY_LEXER);
 
-    final int maxNumberOfSteps =
-        arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_STEPS, Interpreter.UNBOUNDED);
-    final int maxNumberOfLoopIterations =
-        arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS, Interpreter.UNBOUNDED);
+    final String lexerName =
+        arguments.getOptionOr(OPTION_LEXER, LexerEngine.CLASSIC.getName()).trim();
+    final LexerEngine lexerEngine = LexerEngine.fromName(lexerName);
+
+    if (lexerEngine == null) {
+      abort(String.format("[!] invalid lexer name: '%s'", lexerName));
+    }
+
+    final String engineName = arguments.getOptionOr(OPTION_ENGINE, Engine.AST.getName()).trim();
+    final Engine engine = Engine.fromName(engineName);
+
+    if (engine == null) {
+      abort(String.format("[!] invalid engine name: '%s'", engineName));
+    }
+
+    final boolean optimize = arguments.hasOption(OPTION_OPTIMIZE);
+
+    final String memoizationName =
+        arguments.getOptionOr(OPTION_MEMOIZE_PURE, Memoization.NONE.getName()).trim();
+    final Memoization memoization = Memoization.fromName(memoizationName);
+
+    if (memoization == null) {
+      abort(String.format("[!] invalid memoization mode: '%s'", memoizationName));
+    }
+
+    if (memoization != Memoization.NONE && engine != Engine.AST) {
+      abort(String.format("[!] '%s' requires the '%s' engine", OPTION_MEMOIZE_PURE,
+          Engine.AST.getName()));
+    }
+
+    final ExecutionLimits limits = ExecutionLimits.NONE
+        .withMaxNumberOfSteps(
+            arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_STEPS, Interpreter.UNBOUNDED))
+        .withMaxNumberOfLoopIterations(
+            arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS, Interpreter.UNBOUNDED))
+        .withMaxCallDepth(
+            arguments.getIntOptionOr(OPTION_MAX_CALL_DEPTH, Interpreter.UNBOUNDED))
+        .withTimeoutMillis(
+            arguments.getLongOptionOr(OPTION_TIMEOUT_MILLIS, Interpreter.UNBOUNDED))
+        .withCpuTimeoutMillis(
+            arguments.getLongOptionOr(OPTION_CPU_TIMEOUT_MILLIS, Interpreter.UNBOUNDED))
+        .withMemoization(memoization);
+
+    final ResultCache cache;
+    {
+      if (arguments.hasOption(OPTION_CACHE_SIZE) || arguments.hasOption(OPTION_CACHE_DIRECTORY)) {
+        final int capacity =
+            arguments.getIntOptionOr(OPTION_CACHE_SIZE, ResultCache.DEFAULT_CAPACITY);
+        final String directoryName = arguments.getOptionOr(OPTION_CACHE_DIRECTORY, null);
+
+        cache = ResultCache.create(capacity, directoryName);
+      } else {
+        cache = null;
+      }
+    }
+
+    final SafeWriter report;
+    {
+      if (arguments.hasOption(OPTION_REPORT)) {
+        report = SafeWriter.openFile(arguments.getOption(OPTION_REPORT));
+      } else {
+        report = null;
+      }
+    }
 
     final List<File> programFiles = FileUtil.findFiles(directory, pattern, recursive);
     final int programCount = programFiles.size();
 
     System.out.format("found %d programs...\n", programCount);
 
+    // the programs are classified by a work-stealing pool; the results are collected in the order
+    // of the program files (i.e., the progress output is the same for any number of threads) and
+    // further programs are only submitted as the results are collected
+    final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+    final int maxPendingPrograms = PENDING_PROGRAMS_PER_THREAD * numberOfThreads;
+
+    final List<ForkJoinTask<Classification>> tasks = new ArrayList<>(programCount);
+
     int count = 0;
 
-    for (final File programFile : programFiles) {
-      final String programCode = FileUtil.readFile(programFile);
+    for (int index = 0; index < programCount; ++index) {
+      while (tasks.size() < programCount && tasks.size() <= index + maxPendingPrograms) {
+        final File programFile = programFiles.get(tasks.size());
+
+        tasks.add(pool.submit(() -> {
+          final String programCode = FileUtil.readFile(programFile);
+          return classify(programCode, lazyLexer, lexerEngine, engine, optimize, limits, cache);
+        }));
+      }
 
-      final ClassificationResult classificationResult =
-          classify(programCode, lazyLexer, maxNumberOfSteps, maxNumberOfLoopIterations);
-      ++counts[classificationResult.ordinal()];
+      final Classification classification = tasks.get(index).join();
+      tasks.set(index, null);
+
+      ++counts[classification.result.ordinal()];
+
+      if (report != null) {
+        writeRecord(report, programFiles.get(index), classification);
+      }
 
       System.out.print(".");
       ++count;
 
       if (count % 10 == 0) {
         System.out.format("%5d\n", count);
+
+        if (report != null) {
+          report.flush();
+        }
       }
     }
 
+    pool.shutdown();
+
+    if (report != null) {
+      report.close();
+    }
+
     if (count % 10 != 0) {
       System.out.println();
     }
@@ -135,50 +336,220 @@ public final class Classifier {
         counts[ClassificationResult.VALID.ordinal()]);
   }
 
-  private static final ClassificationResult classify(final String programCode,
-      final boolean lazyLexer, final int maxNumberOfSteps, final int maxNumberOfLoopIterations) {
-    final Program program;
+  private static final Classification classify(final String programCode,
+      final boolean lazyLexer, final LexerEngine lexerEngine, final Engine engine,
+      final boolean optimize, final ExecutionLimits limits, final ResultCache cache) {
+    final long[] times = new long[Stage.values().length];
+    Arrays.fill(times, NOT_RUN);
+
+    if (cache == null) {
+      final InvalidProgramException exception =
+          check(programCode, lazyLexer, lexerEngine, engine, optimize, limits, times);
+      return new Classification(exception, false, times);
+    }
+
+    final ResultCache.Key key = ResultCache.Key.of(programCode, BugConfiguration.NONE, lazyLexer,
+        engine, true, false, limits);
+
+    CachedResult result = cache.get(key);
+    final boolean cached = (result != null);
+
+    if (!cached) {
+      final InvalidProgramException exception =
+          check(programCode, lazyLexer, lexerEngine, engine, optimize, limits, times);
+
+      if (exception == null) {
+        result = CachedResult.accepted();
+      } else {
+        result = CachedResult.rejected(exception);
+      }
+
+      // results that depend on the timing of the execution or on the stack size of the JVM are not
+      // cached
+      if (exception == null || !(ExecutionBudget.isExhaustedBy(exception)
+          || Interpreter.isStackOverflow(exception))) {
+        cache.put(key, result);
+      }
+    }
+
+    final InvalidProgramException exception = result.isRejected() ? result.toException() : null;
+    return new Classification(exception, cached, times);
+  }
+
+  private static final ClassificationResult classify(final InvalidProgramException exception) {
+    if (exception == null) {
+      return ClassificationResult.VALID;
+    }
+
+    switch (exception.getKind()) {
+      case LEXICALLY_INVALID: {
+        return ClassificationResult.LEXICALLY_INVALID;
+      }
+      case SYNTACTICALLY_INVALID: {
+        return ClassificationResult.SYNTACTICALLY_INVALID;
+      }
+      case SEMANTICALLY_INVALID: {
+        return ClassificationResult.SEMANTICALLY_INVALID;
+      }
+      case DYNAMICALLY_INVALID: {
+        return ClassificationResult.DYNAMICALLY_INVALID;
+      }
+      case NON_TERMINATING: {
+        return ClassificationResult.NON_TERMINATING;
+      }
+      default: {
+        assert (false);
+        throw new RuntimeException("unknown error in input program");
+      }
+    }
+  }
+
+  // returns 'null' if the program is valid; the time per stage is stored in 'times' (if the lexer
+  // works in a lazy fashion, lexing is part of the 'PARSE' stage)
+  private static final InvalidProgramException check(final String programCode,
+      final boolean lazyLexer, final LexerEngine lexerEngine, final Engine engine,
+      final boolean optimize, final ExecutionLimits limits, final long[] times) {
+    long startTime = System.nanoTime();
+
+    try {
+      final TokenStream tokenStream;
+      {
+        if (lazyLexer) {
+          tokenStream = LazyTokenStream.from(
+              lexerEngine.createLexer(programCode, BugConfiguration.NONE));
+        } else {
+          tokenStream = EagerTokenStream.from(
+              lexerEngine.createLexer(programCode, BugConfiguration.NONE));
+          startTime = stopTime(times, Stage.LEX, startTime);
+        }
+      }
+
+      final Program program = Parser.parse(tokenStream);
+      startTime = stopTime(times, Stage.PARSE, startTime);
+
+      SemanticAnalysis.analyze(program);
+
+      if (optimize) {
+        Optimizer.optimize(program);
+      }
+
+      startTime = stopTime(times, Stage.ANALYZE, startTime);
+
+      Interpreter.checkDynamicallyValid(program, BugConfiguration.NONE, engine, limits);
+      stopTime(times, Stage.EXECUTE, startTime);
+
+      return null;
+    } catch (final InvalidProgramException exception) {
+      // the stage that has rejected the program is the first one without a time
+      for (final Stage stage : Stage.values()) {
+        if (times[stage.ordinal()] == NOT_RUN && (stage != Stage.LEX || !lazyLexer)) {
+          stopTime(times, stage, startTime);
+          break;
+        }
+      }
+
+      return exception;
+    }
+  }
+
+  // returns the end time (i.e., the start time of the next stage)
+  private static final long stopTime(final long[] times, final Stage stage, final long startTime) {
+    final long endTime = System.nanoTime();
+    times[stage.ordinal()] = endTime - startTime;
+
+    return endTime;
+  }
+
+  // writes one JSON object per line, e.g.:
+  // {"path":"a.c","result":"SYNTACTICALLY_INVALID","line":1,"column":5,"message":"...",
+  //  "cached":false,"times":{"lex":1200,"parse":800}}
+  private static final void writeRecord(final SafeWriter report, final File programFile,
+      final Classification classification) {
+    final StringBuilder record = new StringBuilder();
+
+    record.append("{\"path\":");
+    appendJsonString(record, programFile.getPath());
+
+    record.append(",\"result\":");
+    appendJsonString(record, classification.result.name());
+
+    if (classification.line == UNKNOWN_POSITION) {
+      record.append(",\"line\":null,\"column\":null");
+    } else {
+      record.append(",\"line\":").append(classification.line);
+      record.append(",\"column\":").append(classification.column);
+    }
+
+    record.append(",\"message\":");
+    if (classification.description == null) {
+      record.append("null");
+    } else {
+      appendJsonString(record, classification.description);
+    }
+
+    record.append(",\"cached\":").append(classification.cached);
+
+    record.append(",\"times\":{");
     {
-      try {
-        final TokenStream tokenStream;
-        {
-          if (lazyLexer) {
-            tokenStream = LazyTokenStream.from(new Lexer(programCode));
-          } else {
-            tokenStream = EagerTokenStream.from(new Lexer(programCode));
+      boolean first = true;
+
+      for (final Stage stage : Stage.values()) {
+        final long time = classification.times[stage.ordinal()];
+
+        if (time != NOT_RUN) {
+          if (!first) {
+            record.append(',');
           }
+          first = false;
+
+          appendJsonString(record, stage.name);
+          record.append(':').append(time);
         }
+      }
+    }
+    record.append("}}\n");
 
-        program = Parser.parse(tokenStream);
+    report.write(record.toString());
+  }
 
-        SemanticAnalysis.analyze(program);
-        Interpreter.checkDynamicallyValid(program, maxNumberOfSteps, maxNumberOfLoopIterations);
+  private static final void appendJsonString(final StringBuilder builder, final String string) {
+    builder.append('"');
 
-        return ClassificationResult.VALID;
-      } catch (final InvalidProgramException exception) {
-        switch (exception.getKind()) {
-          case LEXICALLY_INVALID: {
-            return ClassificationResult.LEXICALLY_INVALID;
-          }
-          case SYNTACTICALLY_INVALID: {
-            return ClassificationResult.SYNTACTICALLY_INVALID;
-          }
-          case SEMANTICALLY_INVALID: {
-            return ClassificationResult.SEMANTICALLY_INVALID;
-          }
-          case DYNAMICALLY_INVALID: {
-            return ClassificationResult.DYNAMICALLY_INVALID;
-          }
-          case NON_TERMINATING: {
-            return ClassificationResult.NON_TERMINATING;
-          }
-          default: {
-            assert (false);
-            throw new RuntimeException("unknown error in input program");
+    for (int index = 0; index < string.length(); ++index) {
+      final char character = string.charAt(index);
+
+      switch (character) {
+        case '"': {
+          builder.append("\\\"");
+          break;
+        }
+        case '\\': {
+          builder.append("\\\\");
+          break;
+        }
+        case '\n': {
+          builder.append("\\n");
+          break;
+        }
+        case '\r': {
+          builder.append("\\r");
+          break;
+        }
+        case '\t': {
+          builder.append("\\t");
+          break;
+        }
+        default: {
+          if (character < 0x20) {
+            builder.append(String.format("\\u%04x", (int) character));
+          } else {
+            builder.append(character);
           }
         }
       }
     }
+
+    builder.append('"');
   }
 
 }
@@ -1,31 +1,53 @@
 package i2.act.examples.minic;
 
 import i2.act.examples.minic.bugs.Bug;
-import i2.act.examples.minic.bugs.Bugs;
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.cache.CachedResult;
+import i2.act.examples.minic.cache.ResultCache;
+import i2.act.examples.minic.differential.DifferentialExecution;
 import i2.act.examples.minic.errors.InvalidProgramException;
 import i2.act.examples.minic.frontend.ast.Program;
 import i2.act.examples.minic.frontend.ast.visitors.DotGenerator;
 import i2.act.examples.minic.frontend.ast.visitors.PrettyPrinter;
+import i2.act.examples.minic.frontend.lexer.BaseLexer;
+import i2.act.examples.minic.frontend.lexer.DfaLexer;
 import i2.act.examples.minic.frontend.lexer.EagerTokenStream;
 import i2.act.examples.minic.frontend.lexer.LazyTokenStream;
-import i2.act.examples.minic.frontend.lexer.Lexer;
+import i2.act.examples.minic.frontend.lexer.LexerEngine;
 import i2.act.examples.minic.frontend.lexer.TokenStream;
 import i2.act.examples.minic.frontend.parser.Parser;
 import i2.act.examples.minic.frontend.semantics.SemanticAnalysis;
+import i2.act.examples.minic.interpreter.CancellationToken;
+import i2.act.examples.minic.interpreter.Engine;
+import i2.act.examples.minic.interpreter.ExecutionBudget;
+import i2.act.examples.minic.interpreter.ExecutionLimits;
 import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.examples.minic.interpreter.Memoization;
+import i2.act.examples.minic.interpreter.Optimizer;
+import i2.act.examples.minic.interpreter.OutputSink;
 import i2.act.util.FileUtil;
 import i2.act.util.Pair;
 import i2.act.util.SafeWriter;
+import i2.act.util.options.InvalidProgramArgumentsException;
 import i2.act.util.options.ProgramArguments;
 import i2.act.util.options.ProgramArgumentsParser;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.Arrays;
 import java.util.List;
 
 public final class MiniC {
 
   private static final ProgramArgumentsParser argumentsParser;
 
+  private static final String OPTION_SERVER = "--server";
+  private static final String OPTION_PORT = "--port";
+
   private static final String OPTION_LAZY_LEXER = "--lazyLexer";
+  private static final String OPTION_LEXER = "--lexer";
+  private static final String OPTION_STREAM_INPUT = "--streamInput";
 
   private static final String OPTION_PRETTY_PRINT = "--prettyPrint";
   private static final String OPTION_TO_DOT = "--toDot";
@@ -33,8 +55,22 @@ public final class MiniC {
   private static final String OPTION_CHECK_UNDEFINED = "--checkUndef";
   private static final String OPTION_INTERPRET = "--interpret";
 
+  private static final String OPTION_ENGINE = "--engine";
+  private static final String OPTION_OPTIMIZE = "--optimize";
+
   private static final String OPTION_MAX_NUMBER_OF_STEPS = "--maxNumberOfSteps";
   private static final String OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS = "--maxNumberOfLoopIterations";
+  private static final String OPTION_MAX_CALL_DEPTH = "--maxCallDepth";
+  private static final String OPTION_TIMEOUT_MILLIS = "--timeoutMillis";
+  private static final String OPTION_CPU_TIMEOUT_MILLIS = "--cpuTimeoutMillis";
+  private static final String OPTION_MAX_OUTPUT_BYTES = "--maxOutputBytes";
+  private static final String OPTION_MAX_OUTPUT_VALUES = "--maxOutputValues";
+  private static final String OPTION_MEMOIZE_PURE = "--memoizePure";
+
+  private static final String OPTION_DIFFERENTIAL = "--differential";
+
+  private static final String OPTION_CACHE_SIZE = "--cacheSize";
+  private static final String OPTION_CACHE_DIRECTORY = "--cacheDirectory";
 
   private static final String OPTION_BUGS = "--bugs";
   private static final String OPTION_ALL_LEXER_BUGS = "--allLexerBugs";
@@ -46,7 +82,12 @@ public final class MiniC {
   static {
     argumentsParser = new ProgramArgumentsParser("<path to input file>");
 
+    argumentsParser.addOption(OPTION_SERVER, false);
+    argumentsParser.addOption(OPTION_PORT, false, true, "<number>");
+
     argumentsParser.addOption(OPTION_LAZY_LEXER, false);
+    argumentsParser.addOption(OPTION_LEXER, false, true, "<classic|dfa>");
+    argumentsParser.addOption(OPTION_STREAM_INPUT, false);
 
     argumentsParser.addOption(OPTION_PRETTY_PRINT, false, true, "<file name>");
     argumentsParser.addOption(OPTION_TO_DOT, false, true, "<file name>");
@@ -54,8 +95,22 @@ public final class MiniC {
     argumentsParser.addOption(OPTION_CHECK_UNDEFINED, false);
     argumentsParser.addOption(OPTION_INTERPRET, false);
 
+    argumentsParser.addOption(OPTION_ENGINE, false, true, "<ast|vm|closure>");
+    argumentsParser.addOption(OPTION_OPTIMIZE, false);
+
     argumentsParser.addOption(OPTION_MAX_NUMBER_OF_STEPS, false, true, "<number>");
     argumentsParser.addOption(OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS, false, true, "<number>");
+    argumentsParser.addOption(OPTION_MAX_CALL_DEPTH, false, true, "<number>");
+    argumentsParser.addOption(OPTION_TIMEOUT_MILLIS, false, true, "<milliseconds>");
+    argumentsParser.addOption(OPTION_CPU_TIMEOUT_MILLIS, false, true, "<milliseconds>");
+    argumentsParser.addOption(OPTION_MAX_OUTPUT_BYTES, false, true, "<number>");
+    argumentsParser.addOption(OPTION_MAX_OUTPUT_VALUES, false, true, "<number>");
+    argumentsParser.addOption(OPTION_MEMOIZE_PURE, false, true, "<charge|free>");
+
+    argumentsParser.addOption(OPTION_DIFFERENTIAL, false, true, "<list of bugs>");
+
+    argumentsParser.addOption(OPTION_CACHE_SIZE, false, true, "<number>");
+    argumentsParser.addOption(OPTION_CACHE_DIRECTORY, false, true, "<directory>");
 
     argumentsParser.addOption(OPTION_BUGS, false, true, "<list of bugs>");
     argumentsParser.addOption(OPTION_ALL_LEXER_BUGS, false);
@@ -76,6 +131,19 @@ public final class MiniC {
 
     assert (arguments != null);
 
+    if (arguments.hasOption(OPTION_SERVER)) {
+      if (arguments.numberOfPositionalArguments() != 0) {
+        abort("[!] the server mode does not expect an input path");
+      }
+
+      final int port = arguments.getIntOptionOr(OPTION_PORT, MiniCServer.STANDARD_STREAMS);
+      final long defaultTimeoutMillis =
+          arguments.getLongOptionOr(OPTION_TIMEOUT_MILLIS, Interpreter.UNBOUNDED);
+      MiniCServer.serve(port, createCache(arguments), defaultTimeoutMillis);
+
+      return;
+    }
+
     if (arguments.numberOfPositionalArguments() != 1) {
       abort(String.format(
           "[!] expected exactly one input path, but %d were given",
@@ -84,133 +152,419 @@ public final class MiniC {
 
     assert (arguments.numberOfPositionalArguments() == 1);
     final String inputFileName = arguments.getPositionalArguments().get(0);
-    final String input = FileUtil.readFile(inputFileName);
 
-    enableBugs(arguments);
+    if (arguments.hasOption(OPTION_STREAM_INPUT)
+        && (arguments.hasOption(OPTION_CACHE_SIZE)
+            || arguments.hasOption(OPTION_CACHE_DIRECTORY))) {
+      abort("[!] the result cache can not be used with a streamed input");
+    }
 
-    if (Bugs.getInstance().numberOfBugs() > 0) {
-      System.err.format("[i] enabled bugs: %s\n", Bugs.getInstance().toString());
+    try {
+      if (isDifferential(arguments)) {
+        final String input = FileUtil.readFile(inputFileName);
+        System.exit(runDifferential(arguments, input, null, System.err));
+      } else if (arguments.hasOption(OPTION_STREAM_INPUT)) {
+        runStreamed(arguments, inputFileName, System.out, System.err);
+      } else {
+        final String input = FileUtil.readFile(inputFileName);
+        run(arguments, input, createCache(arguments), null, System.out, System.err);
+      }
+    } catch (final InvalidProgramArgumentsException exception) {
+      abort(String.format("[!] %s", exception.getMessage()));
+    } catch (final InvalidProgramException exception) {
+      printError(exception, System.err);
+      System.exit(exception.getExitCode());
     }
+  }
 
-    final int maxNumberOfSteps =
-        arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_STEPS, Interpreter.UNBOUNDED);
-    final int maxNumberOfLoopIterations =
-        arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS, Interpreter.UNBOUNDED);
+  // the given default timeout (which may be 'Interpreter.UNBOUNDED') applies unless the arguments
+  // specify a timeout themselves
+  static final ProgramArguments parseArguments(final String[] args,
+      final long defaultTimeoutMillis) {
+    ProgramArguments arguments = argumentsParser.parseArgs(args);
 
-    try {
-      final TokenStream tokenStream;
-      {
-        if (arguments.hasOption(OPTION_LAZY_LEXER)) {
-          tokenStream = LazyTokenStream.from(new Lexer(input));
-        } else {
-          tokenStream = EagerTokenStream.from(new Lexer(input));
+    if (defaultTimeoutMillis != Interpreter.UNBOUNDED
+        && !arguments.hasOption(OPTION_TIMEOUT_MILLIS)) {
+      final String[] argsWithTimeout = Arrays.copyOf(args, args.length + 2);
+      argsWithTimeout[args.length] = OPTION_TIMEOUT_MILLIS;
+      argsWithTimeout[args.length + 1] = String.valueOf(defaultTimeoutMillis);
+
+      arguments = argumentsParser.parseArgs(argsWithTimeout);
+    }
+
+    if (arguments.hasOption(OPTION_SERVER) || arguments.hasOption(OPTION_PORT)
+        || arguments.hasOption(OPTION_CACHE_SIZE) || arguments.hasOption(OPTION_CACHE_DIRECTORY)
+        || arguments.hasOption(OPTION_STREAM_INPUT)) {
+      throw new InvalidProgramArgumentsException(
+          "server, cache and streaming options are not allowed in requests");
+    }
+
+    return arguments;
+  }
+
+  // runs the pipeline as configured by the given arguments on the given input program (i.e., the
+  // positional arguments are ignored); all output is written to the given streams; the result cache
+  // and the cancellation token may be 'null'
+  static final void run(final ProgramArguments arguments, final String input,
+      final ResultCache cache, final CancellationToken token, final PrintStream out,
+      final PrintStream err) {
+    final BugConfiguration bugs = getBugConfiguration(arguments);
+
+    if (bugs.numberOfBugs() > 0) {
+      err.format("[i] enabled bugs: %s\n", bugs.toString());
+    }
+
+    final ExecutionLimits limits = getExecutionLimits(arguments);
+
+    final LexerEngine lexerEngine = getLexerEngine(arguments);
+    final Engine engine = getEngine(arguments);
+
+    // the pretty printer and the Dot generator need the AST, i.e., their output is not cached
+    final boolean cacheable = cache != null
+        && !arguments.hasOption(OPTION_PRETTY_PRINT)
+        && !arguments.hasOption(OPTION_TO_DOT)
+        && (arguments.hasOption(OPTION_CHECK_UNDEFINED) || arguments.hasOption(OPTION_INTERPRET));
+
+    if (!cacheable) {
+      executeStreaming(
+          arguments, lexerEngine.createLexer(input, bugs), bugs, engine, limits, token, out);
+      return;
+    }
+
+    final ResultCache.Key key = ResultCache.Key.of(input, bugs,
+        arguments.hasOption(OPTION_LAZY_LEXER), engine,
+        arguments.hasOption(OPTION_CHECK_UNDEFINED), arguments.hasOption(OPTION_INTERPRET), limits);
+
+    CachedResult result = cache.get(key);
+
+    if (result == null) {
+      try {
+        result = CachedResult.accepted(execute(arguments, lexerEngine.createLexer(input, bugs),
+            bugs, engine, limits, token, OutputSink.collecting(limits), out));
+      } catch (final InvalidProgramException exception) {
+        if (ExecutionBudget.isExhaustedBy(exception) || Interpreter.isStackOverflow(exception)) {
+          // the result depends on the timing of the execution or on the stack size of the JVM
+          throw exception;
         }
+
+        result = CachedResult.rejected(exception);
       }
 
-      final Program program = Parser.parse(tokenStream);
+      cache.put(key, result);
+    }
 
-      if (arguments.hasOption(OPTION_PRETTY_PRINT)) {
-        final String fileNamePrettyPrinted = arguments.getOption(OPTION_PRETTY_PRINT);
+    if (result.isRejected()) {
+      throw result.toException();
+    }
 
-        final SafeWriter writer = SafeWriter.openFile(fileNamePrettyPrinted);
-        PrettyPrinter.prettyPrint(program, writer);
+    if (arguments.hasOption(OPTION_INTERPRET)) {
+      printResult(result.getExitValue(), result.getOutput(), out);
+    }
+  }
 
-        if ("-".equals(fileNamePrettyPrinted)) {
-          writer.flush();
-        } else {
-          writer.close();
-        }
+  static final boolean isDifferential(final ProgramArguments arguments) {
+    return arguments.hasOption(OPTION_DIFFERENTIAL);
+  }
+
+  // runs the given input program once without bugs and once with the bugs given to
+  // '--differential' (and the other bug options) in the same JVM; returns the exit code of
+  // 'checks/wrong_output.sh' for the same program and bugs, i.e., 1 if the bugs change the exit
+  // code or the output of a program that the reference implementation accepts (or if the output is
+  // undefined) and 0 otherwise; the cancellation token may be 'null'
+  static final int runDifferential(final ProgramArguments arguments, final String input,
+      final CancellationToken token, final PrintStream err) {
+    if (arguments.hasOption(OPTION_PRETTY_PRINT) || arguments.hasOption(OPTION_TO_DOT)
+        || arguments.hasOption(OPTION_STREAM_INPUT) || arguments.hasOption(OPTION_CACHE_SIZE)
+        || arguments.hasOption(OPTION_CACHE_DIRECTORY)) {
+      throw new InvalidProgramArgumentsException(String.format(
+          "'%s' can not be used with printing, streaming or cache options", OPTION_DIFFERENTIAL));
+    }
+
+    final BugConfiguration bugs =
+        withBugs(getBugConfiguration(arguments), arguments.getOption(OPTION_DIFFERENTIAL));
+
+    if (bugs.numberOfBugs() > 0) {
+      err.format("[i] enabled bugs: %s\n", bugs.toString());
+    }
+
+    final DifferentialExecution.Result result = DifferentialExecution.compare(input, bugs,
+        getLexerEngine(arguments), getEngine(arguments), arguments.hasOption(OPTION_OPTIMIZE),
+        getExecutionLimits(arguments), token);
+
+    err.format("[i] %s\n", result.getMessage());
+
+    return (result.getVerdict().isDifference()) ? (1) : (0);
+  }
+
+  // runs the pipeline on the program in the given file, which is lexed while it is read in chunks
+  // (i.e., the program is never held in memory as a whole); only supported by the DFA lexer and
+  // without result cache
+  static final void runStreamed(final ProgramArguments arguments, final String inputFileName,
+      final PrintStream out, final PrintStream err) {
+    final BugConfiguration bugs = getBugConfiguration(arguments);
+
+    if (bugs.numberOfBugs() > 0) {
+      err.format("[i] enabled bugs: %s\n", bugs.toString());
+    }
+
+    final ExecutionLimits limits = getExecutionLimits(arguments);
+
+    if (getLexerEngine(arguments) != LexerEngine.DFA) {
+      throw new InvalidProgramArgumentsException(
+          String.format("'%s' requires the '%s' lexer", OPTION_STREAM_INPUT,
+              LexerEngine.DFA.getName()));
+    }
+
+    final Engine engine = getEngine(arguments);
+
+    try (final Reader input = FileUtil.openReader(inputFileName)) {
+      executeStreaming(arguments, new DfaLexer(input, bugs), bugs, engine, limits, null, out);
+    } catch (final IOException exception) {
+      throw new RuntimeException("unable to read file", exception);
+    }
+  }
+
+  // runs the pipeline and writes each value that the program prints to 'out' as soon as it is
+  // printed (i.e., the output is never held in memory as a whole); the output that has been printed
+  // before an error is written as well
+  private static final void executeStreaming(final ProgramArguments arguments,
+      final BaseLexer lexer, final BugConfiguration bugs, final Engine engine,
+      final ExecutionLimits limits, final CancellationToken token, final PrintStream out) {
+    final SafeWriter writer = SafeWriter.fromOutputStream(out);
+    final OutputSink output = OutputSink.streaming(writer, limits);
+
+    try {
+      final Pair<Interpreter.Value, List<Interpreter.Value>> result =
+          execute(arguments, lexer, bugs, engine, limits, token, output, out);
+
+      if (result != null) {
+        writer.write("EXIT: " + result.getFirst() + "\n");
       }
+    } finally {
+      writer.flush();
+    }
+  }
 
-      if (arguments.hasOption(OPTION_TO_DOT)) {
-        final String fileNameDot = arguments.getOption(OPTION_TO_DOT);
+  // returns the exit value and the output of the program if it has been interpreted (and 'null'
+  // otherwise); the output is passed to the given sink (i.e., the returned output is only complete
+  // for a collecting sink)
+  private static final Pair<Interpreter.Value, List<Interpreter.Value>> execute(
+      final ProgramArguments arguments, final BaseLexer lexer, final BugConfiguration bugs,
+      final Engine engine, final ExecutionLimits limits, final CancellationToken token,
+      final OutputSink output, final PrintStream out) {
+    final TokenStream tokenStream;
+    {
+      if (arguments.hasOption(OPTION_LAZY_LEXER)) {
+        tokenStream = LazyTokenStream.from(lexer);
+      } else {
+        tokenStream = EagerTokenStream.from(lexer);
+      }
+    }
 
-        final SafeWriter writer = SafeWriter.openFile(fileNameDot);
-        DotGenerator.printDot(program, writer);
+    final Program program = Parser.parse(tokenStream, bugs);
 
-        if ("-".equals(fileNameDot)) {
-          writer.flush();
-        } else {
-          writer.close();
-        }
+    if (arguments.hasOption(OPTION_PRETTY_PRINT)) {
+      final String fileNamePrettyPrinted = arguments.getOption(OPTION_PRETTY_PRINT);
+
+      final SafeWriter writer = openWriter(fileNamePrettyPrinted, out);
+      PrettyPrinter.prettyPrint(program, writer);
+
+      if ("-".equals(fileNamePrettyPrinted)) {
+        writer.flush();
+      } else {
+        writer.close();
       }
+    }
+
+    if (arguments.hasOption(OPTION_TO_DOT)) {
+      final String fileNameDot = arguments.getOption(OPTION_TO_DOT);
 
-      SemanticAnalysis.analyze(program);
+      final SafeWriter writer = openWriter(fileNameDot, out);
+      DotGenerator.printDot(program, writer);
 
-      if (arguments.hasOption(OPTION_CHECK_UNDEFINED)) {
-        Interpreter.checkDynamicallyValid(program, maxNumberOfSteps, maxNumberOfLoopIterations);
+      if ("-".equals(fileNameDot)) {
+        writer.flush();
+      } else {
+        writer.close();
       }
+    }
 
-      if (arguments.hasOption(OPTION_INTERPRET)) {
-        final Pair<Interpreter.Value, List<Interpreter.Value>> result =
-            Interpreter.interpret(program, maxNumberOfSteps, maxNumberOfLoopIterations);
+    SemanticAnalysis.analyze(program, bugs);
 
-        final Interpreter.Value exitValue = result.getFirst();
-        final List<Interpreter.Value> output = result.getSecond();
+    if (arguments.hasOption(OPTION_OPTIMIZE)) {
+      Optimizer.optimize(program, bugs);
+    }
 
-        for (final Interpreter.Value value : output) {
-          System.out.println(value);
-        }
+    if (arguments.hasOption(OPTION_CHECK_UNDEFINED)) {
+      Interpreter.checkDynamicallyValid(program, bugs, engine, limits, token);
+    }
 
-        System.out.println("EXIT: " + exitValue);
-      }
-    } catch (final InvalidProgramException exception) {
-      System.err.format("%s: %s\n", exception.getKind(), exception.getMessage());
-      System.exit(exception.getExitCode());
+    if (arguments.hasOption(OPTION_INTERPRET)) {
+      return Interpreter.interpret(program, bugs, engine, limits, token, output);
     }
+
+    return null;
   }
 
-  private static final void usage() {
-    System.err.format("USAGE: java %s\n", MiniC.class.getSimpleName());
-    System.err.println(argumentsParser.usage("  "));
+  private static final void printResult(final Interpreter.Value exitValue,
+      final List<Interpreter.Value> output, final PrintStream out) {
+    for (final Interpreter.Value value : output) {
+      out.println(value);
+    }
+
+    out.println("EXIT: " + exitValue);
+  }
+
+  // returns 'null' if the result cache is not enabled
+  private static final ResultCache createCache(final ProgramArguments arguments) {
+    if (!arguments.hasOption(OPTION_CACHE_SIZE) && !arguments.hasOption(OPTION_CACHE_DIRECTORY)) {
+      return null;
+    }
+
+    final int capacity = arguments.getIntOptionOr(OPTION_CACHE_SIZE, ResultCache.DEFAULT_CAPACITY);
+    final String directoryName = arguments.getOptionOr(OPTION_CACHE_DIRECTORY, null);
+
+    return ResultCache.create(capacity, directoryName);
+  }
+
+  static final void printError(final InvalidProgramException exception, final PrintStream err) {
+    err.format("%s: %s\n", exception.getKind(), exception.getMessage());
+  }
+
+  static final void printUsage(final PrintStream err) {
+    err.format("USAGE: java %s\n", MiniC.class.getSimpleName());
+    err.println(argumentsParser.usage("  "));
+  }
+
+  private static final SafeWriter openWriter(final String fileName, final PrintStream out) {
+    if ("-".equals(fileName)) {
+      return SafeWriter.fromOutputStream(out);
+    } else {
+      return SafeWriter.openFile(fileName);
+    }
   }
 
   private static final void abort(final String message) {
     System.err.println(message);
-    usage();
+    printUsage(System.err);
     System.exit(1);
   }
 
-  private static final void enableBugs(final ProgramArguments arguments) {
-    final Bugs bugs = Bugs.getInstance();
+  private static final LexerEngine getLexerEngine(final ProgramArguments arguments) {
+    final String engineName =
+        arguments.getOptionOr(OPTION_LEXER, LexerEngine.CLASSIC.getName()).trim();
+    final LexerEngine engine = LexerEngine.fromName(engineName);
 
-    final String bugNameList = arguments.getOptionOr(OPTION_BUGS, "");
+    if (engine == null) {
+      throw new InvalidProgramArgumentsException(
+          String.format("invalid lexer name: '%s'", engineName));
+    }
 
-    if (!bugNameList.trim().isEmpty()) {
-      final String[] bugNames = bugNameList.split(",");
+    return engine;
+  }
 
-      for (final String bugName : bugNames) {
-        final String trimmedName = bugName.trim();
-        final Bug bug = Bug.fromName(trimmedName);
+  private static final Engine getEngine(final ProgramArguments arguments) {
+    final String engineName = arguments.getOptionOr(OPTION_ENGINE, Engine.AST.getName()).trim();
+    final Engine engine = Engine.fromName(engineName);
 
-        if (bug == null) {
-          abort(String.format("[!] invalid bug name: '%s'", trimmedName));
-          assert (false);
-        }
+    if (engine == null) {
+      throw new InvalidProgramArgumentsException(
+          String.format("invalid engine name: '%s'", engineName));
+    }
 
-        bugs.enable(bug);
-      }
+    return engine;
+  }
+
+  private static final ExecutionLimits getExecutionLimits(final ProgramArguments arguments) {
+    return ExecutionLimits.NONE
+        .withMaxNumberOfSteps(
+            arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_STEPS, Interpreter.UNBOUNDED))
+        .withMaxNumberOfLoopIterations(
+            arguments.getIntOptionOr(OPTION_MAX_NUMBER_OF_LOOP_ITERATIONS, Interpreter.UNBOUNDED))
+        .withMaxCallDepth(
+            arguments.getIntOptionOr(OPTION_MAX_CALL_DEPTH, Interpreter.UNBOUNDED))
+        .withTimeoutMillis(
+            arguments.getLongOptionOr(OPTION_TIMEOUT_MILLIS, Interpreter.UNBOUNDED))
+        .withCpuTimeoutMillis(
+            arguments.getLongOptionOr(OPTION_CPU_TIMEOUT_MILLIS, Interpreter.UNBOUNDED))
+        .withMaxOutputBytes(
+            arguments.getLongOptionOr(OPTION_MAX_OUTPUT_BYTES, Interpreter.UNBOUNDED))
+        .withMaxOutputValues(
+            arguments.getIntOptionOr(OPTION_MAX_OUTPUT_VALUES, Interpreter.UNBOUNDED))
+        .withMemoization(getMemoization(arguments));
+  }
+
+  private static final Memoization getMemoization(final ProgramArguments arguments) {
+    if (!arguments.hasOption(OPTION_MEMOIZE_PURE)) {
+      return Memoization.NONE;
     }
 
+    final String memoizationName = arguments.getOption(OPTION_MEMOIZE_PURE).trim();
+    final Memoization memoization = Memoization.fromName(memoizationName);
+
+    if (memoization == null) {
+      throw new InvalidProgramArgumentsException(
+          String.format("invalid memoization mode: '%s'", memoizationName));
+    }
+
+    if (memoization != Memoization.NONE && getEngine(arguments) != Engine.AST) {
+      throw new InvalidProgramArgumentsException(
+          String.format("'%s' requires the '%s' engine", OPTION_MEMOIZE_PURE,
+              Engine.AST.getName()));
+    }
+
+    return memoization;
+  }
+
+  private static final BugConfiguration getBugConfiguration(final ProgramArguments arguments) {
+    BugConfiguration bugs =
+        withBugs(BugConfiguration.NONE, arguments.getOptionOr(OPTION_BUGS, ""));
+
     if (arguments.hasOption(OPTION_ALL_LEXER_BUGS)) {
-      bugs.enableAllOf(Bug.Category.LEXER);
+      bugs = bugs.withAllOf(Bug.Category.LEXER);
     }
 
     if (arguments.hasOption(OPTION_ALL_PARSER_BUGS)) {
-      bugs.enableAllOf(Bug.Category.PARSER);
+      bugs = bugs.withAllOf(Bug.Category.PARSER);
     }
 
     if (arguments.hasOption(OPTION_ALL_ANALYSIS_BUGS)) {
-      bugs.enableAllOf(Bug.Category.ANALYSIS);
+      bugs = bugs.withAllOf(Bug.Category.ANALYSIS);
     }
 
     if (arguments.hasOption(OPTION_ALL_INTERPRETER_BUGS)) {
-      bugs.enableAllOf(Bug.Category.INTERPRETER);
+      bugs = bugs.withAllOf(Bug.Category.INTERPRETER);
     }
 
     if (arguments.hasOption(OPTION_ALL_BUGS)) {
-      bugs.enableAll();
+      bugs = bugs.withAll();
     }
+
+    return bugs;
+  }
+
+  // adds the bugs in the given comma-separated list of bug names to the given configuration
+  private static final BugConfiguration withBugs(final BugConfiguration configuration,
+      final String bugNameList) {
+    BugConfiguration bugs = configuration;
+
+    if (!bugNameList.trim().isEmpty()) {
+      final String[] bugNames = bugNameList.split(",");
+
+      for (final String bugName : bugNames) {
+        final String trimmedName = bugName.trim();
+        final Bug bug = Bug.fromName(trimmedName);
+
+        if (bug == null) {
+          throw new InvalidProgramArgumentsException(
+              String.format("invalid bug name: '%s'", trimmedName));
+        }
+
+        bugs = bugs.with(bug);
+      }
+    }
+
+    return bugs;
   }
 
 }
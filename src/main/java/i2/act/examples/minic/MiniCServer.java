@@ -0,0 +1,360 @@
+package i2.act.examples.minic;
+
+import i2.act.examples.minic.cache.ResultCache;
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.interpreter.CancellationToken;
+import i2.act.util.options.InvalidProgramArgumentsException;
+import i2.act.util.options.ProgramArguments;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Serves requests to run MiniC without starting a new JVM per program. The server either reads the
+// requests from stdin and writes the replies to stdout, or it accepts connections on a TCP port of
+// the loopback interface (each connection is served by its own thread and may send any number of
+// requests).
+//
+// A request consists of the following parts:
+//   <number of options> '\n'
+//   ( <option> '\n' )*
+//   <size of program in bytes> '\n'
+//   <program>
+//
+// The options are the same as on the command line (including the enabled bugs, e.g., '--bugs'),
+// but without an input path and without the cache options (the cache of the server is shared by
+// all requests). A reply consists of the following parts:
+//   <exit code> '\n'
+//   <error kind> '\n'
+//   <size of stdout in bytes> '\n'
+//   <stdout>
+//   <size of stderr in bytes> '\n'
+//   <stderr>
+//
+// The exit code, stdout and stderr are the same as for a run on the command line. The error kind is
+// the kind of the 'InvalidProgramException' if the program has been rejected (e.g.,
+// 'SYNTACTICALLY_INVALID'), 'INVALID_ARGUMENTS' if the options are invalid, 'CRASH' if MiniC has
+// crashed, and 'NONE' otherwise.
+//
+// A TCP connection is read while its requests are running: if the client closes the connection
+// (e.g., due to a timeout) or if it fails, its running and pending requests are cancelled (i.e., a
+// client must not close its side of the connection before it has received its last reply). The
+// requests on stdin are answered one after the other; a timeout that is given when starting the
+// server applies to all requests that do not specify a timeout themselves.
+public final class MiniCServer {
+
+  public static final int STANDARD_STREAMS = -1;
+
+  public static final String KIND_NONE = "NONE";
+  public static final String KIND_INVALID_ARGUMENTS = "INVALID_ARGUMENTS";
+  public static final String KIND_CRASH = "CRASH";
+
+  private static final String ENCODING = StandardCharsets.UTF_8.name();
+
+  private static final class Request {
+
+    public final String[] options;
+    public final String program;
+
+    public Request(final String[] options, final String program) {
+      this.options = options;
+      this.program = program;
+    }
+
+  }
+
+  // ===============================================================================================
+
+  // the result cache (which is shared by all requests) may be 'null'; the default timeout (which
+  // may be 'Interpreter.UNBOUNDED') applies to all requests that do not specify a timeout
+  public static final void serve(final int port, final ResultCache cache,
+      final long defaultTimeoutMillis) {
+    if (port == STANDARD_STREAMS) {
+      serveStandardStreams(cache, defaultTimeoutMillis);
+    } else {
+      serveSocket(port, cache, defaultTimeoutMillis);
+    }
+  }
+
+  private static final void serveStandardStreams(final ResultCache cache,
+      final long defaultTimeoutMillis) {
+    // NOTE: the replies are written to stdout, i.e., the pipeline must not write to System.out
+    final PrintStream standardOutput = System.out;
+    System.setOut(System.err);
+
+    try {
+      final InputStream input = new BufferedInputStream(System.in);
+      final OutputStream output = new BufferedOutputStream(standardOutput);
+
+      Request request;
+      while ((request = readRequest(input)) != null) {
+        // the end of stdin does not cancel the pending requests (i.e., all requests are answered)
+        handleRequest(request, cache, defaultTimeoutMillis, null, output);
+        output.flush();
+      }
+    } catch (final IOException exception) {
+      throw new RuntimeException(exception);
+    }
+  }
+
+  private static final void serveSocket(final int port, final ResultCache cache,
+      final long defaultTimeoutMillis) {
+    try (final ServerSocket serverSocket =
+        new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      System.err.format("[i] listening on %s:%d\n",
+          serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+
+      while (true) {
+        final Socket socket = serverSocket.accept();
+
+        final Thread thread =
+            new Thread(() -> serveConnection(socket, cache, defaultTimeoutMillis));
+        thread.setDaemon(true);
+        thread.start();
+      }
+    } catch (final IOException exception) {
+      throw new RuntimeException(exception);
+    }
+  }
+
+  // the requests are handled by a separate thread (in the order in which they have been received),
+  // such that the connection is still read while a request is running
+  private static final void serveConnection(final Socket socket, final ResultCache cache,
+      final long defaultTimeoutMillis) {
+    final CancellationToken token = new CancellationToken();
+
+    final ExecutorService executor =
+        Executors.newSingleThreadExecutor(MiniCServer::createDaemonThread);
+
+    try (final Socket connection = socket) {
+      final InputStream input = new BufferedInputStream(connection.getInputStream());
+      final OutputStream output = new BufferedOutputStream(connection.getOutputStream());
+
+      try {
+        Request request;
+        while ((request = readRequest(input)) != null) {
+          final Request nextRequest = request;
+
+          executor.execute(() -> {
+            try {
+              handleRequest(nextRequest, cache, defaultTimeoutMillis, token, output);
+              output.flush();
+            } catch (final IOException exception) {
+              // the reply cannot be delivered anymore
+              token.cancel();
+            }
+          });
+        }
+      } catch (final IOException exception) {
+        System.err.format("[!] %s\n", exception.getMessage());
+      } finally {
+        // the client has closed the connection (e.g., due to a timeout) or it has failed, i.e.,
+        // the replies to its running and pending requests are not needed anymore
+        token.cancel();
+
+        executor.shutdown();
+        awaitTermination(executor);
+      }
+    } catch (final IOException exception) {
+      System.err.format("[!] %s\n", exception.getMessage());
+    }
+  }
+
+  private static final Thread createDaemonThread(final Runnable runnable) {
+    final Thread thread = new Thread(runnable);
+    thread.setDaemon(true);
+
+    return thread;
+  }
+
+  private static final void awaitTermination(final ExecutorService executor) {
+    boolean interrupted = false;
+
+    while (true) {
+      try {
+        if (executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+          break;
+        }
+      } catch (final InterruptedException exception) {
+        interrupted = true;
+      }
+    }
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // returns 'null' at the end of the requests
+  private static final Request readRequest(final InputStream input) throws IOException {
+    final String numberOfOptionsLine = readLine(input);
+
+    if (numberOfOptionsLine == null) {
+      return null;
+    }
+
+    final String[] options = new String[parseNumber(numberOfOptionsLine)];
+
+    for (int index = 0; index < options.length; ++index) {
+      options[index] = expectLine(input);
+    }
+
+    final byte[] programBytes = readBytes(input, parseNumber(expectLine(input)));
+    final String program = new String(programBytes, StandardCharsets.UTF_8);
+
+    return new Request(options, program);
+  }
+
+  // the cancellation token may be 'null'
+  private static final void handleRequest(final Request request, final ResultCache cache,
+      final long defaultTimeoutMillis, final CancellationToken token, final OutputStream output)
+      throws IOException {
+    final ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+    final ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+
+    final PrintStream out = createPrintStream(outBytes);
+    final PrintStream err = createPrintStream(errBytes);
+
+    int exitCode = 0;
+    String kind = KIND_NONE;
+
+    try {
+      final ProgramArguments arguments =
+          MiniC.parseArguments(request.options, defaultTimeoutMillis);
+
+      if (arguments.numberOfPositionalArguments() != 0) {
+        throw new InvalidProgramArgumentsException(
+            "the program is part of the request and not given as input path");
+      }
+
+      if (MiniC.isDifferential(arguments)) {
+        exitCode = MiniC.runDifferential(arguments, request.program, token, err);
+      } else {
+        MiniC.run(arguments, request.program, cache, token, out, err);
+      }
+    } catch (final InvalidProgramArgumentsException exception) {
+      err.format("[!] %s\n", exception.getMessage());
+      MiniC.printUsage(err);
+
+      exitCode = 1;
+      kind = KIND_INVALID_ARGUMENTS;
+    } catch (final InvalidProgramException exception) {
+      MiniC.printError(exception, err);
+
+      exitCode = exception.getExitCode();
+      kind = exception.getKind().name();
+    } catch (final Throwable throwable) {
+      // same as an uncaught exception on the command line
+      err.print("Exception in thread \"main\" ");
+      throwable.printStackTrace(err);
+
+      exitCode = 1;
+      kind = KIND_CRASH;
+    }
+
+    out.flush();
+    err.flush();
+
+    writeLine(output, String.valueOf(exitCode));
+    writeLine(output, kind);
+    writeLine(output, String.valueOf(outBytes.size()));
+    outBytes.writeTo(output);
+    writeLine(output, String.valueOf(errBytes.size()));
+    errBytes.writeTo(output);
+  }
+
+  private static final PrintStream createPrintStream(final OutputStream outputStream) {
+    try {
+      return new PrintStream(outputStream, true, ENCODING);
+    } catch (final UnsupportedEncodingException exception) {
+      throw new RuntimeException(exception);
+    }
+  }
+
+  // returns 'null' at the end of the stream
+  private static final String readLine(final InputStream input) throws IOException {
+    final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    while (true) {
+      final int nextByte = input.read();
+
+      if (nextByte == -1) {
+        if (line.size() == 0) {
+          return null;
+        }
+
+        break;
+      }
+
+      if (nextByte == '\n') {
+        break;
+      }
+
+      line.write(nextByte);
+    }
+
+    return line.toString(ENCODING);
+  }
+
+  private static final String expectLine(final InputStream input) throws IOException {
+    final String line = readLine(input);
+
+    if (line == null) {
+      throw new EOFException("incomplete request");
+    }
+
+    return line;
+  }
+
+  private static final int parseNumber(final String line) throws IOException {
+    try {
+      final int number = Integer.parseInt(line.trim());
+
+      if (number < 0) {
+        throw new IOException(String.format("invalid number in request: '%s'", line));
+      }
+
+      return number;
+    } catch (final NumberFormatException exception) {
+      throw new IOException(String.format("invalid number in request: '%s'", line));
+    }
+  }
+
+  private static final byte[] readBytes(final InputStream input, final int numberOfBytes)
+      throws IOException {
+    final byte[] bytes = new byte[numberOfBytes];
+
+    int offset = 0;
+    while (offset < numberOfBytes) {
+      final int count = input.read(bytes, offset, numberOfBytes - offset);
+
+      if (count == -1) {
+        throw new EOFException("incomplete request");
+      }
+
+      offset += count;
+    }
+
+    return bytes;
+  }
+
+  private static final void writeLine(final OutputStream output, final String line)
+      throws IOException {
+    output.write(line.getBytes(StandardCharsets.UTF_8));
+    output.write('\n');
+  }
+
+}
@@ -0,0 +1,116 @@
+package i2.act.examples.minic.bugs;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// NOTE: a bug configuration is immutable, i.e., it can safely be shared between several threads and
+// pipelines with different bug configurations can run concurrently in the same JVM; the stages of
+// the pipeline resolve the bugs that concern them once (i.e., when they are created)
+public final class BugConfiguration implements Iterable<Bug> {
+
+  public static final BugConfiguration NONE = new BugConfiguration(EnumSet.noneOf(Bug.class));
+
+  public static final BugConfiguration of(final Bug... bugs) {
+    BugConfiguration configuration = NONE;
+
+    for (final Bug bug : bugs) {
+      configuration = configuration.with(bug);
+    }
+
+    return configuration;
+  }
+
+  // ===============================================================================================
+
+  private final EnumSet<Bug> bugs;
+
+  private BugConfiguration(final EnumSet<Bug> bugs) {
+    this.bugs = bugs;
+  }
+
+  public final BugConfiguration with(final Bug bug) {
+    if (this.bugs.contains(bug)) {
+      return this;
+    }
+
+    final EnumSet<Bug> bugs = EnumSet.copyOf(this.bugs);
+    bugs.add(bug);
+
+    return new BugConfiguration(bugs);
+  }
+
+  public final BugConfiguration withAllOf(final Bug.Category category) {
+    BugConfiguration configuration = this;
+
+    for (final Bug bug : Bug.values()) {
+      if (bug.getCategory() == category) {
+        configuration = configuration.with(bug);
+      }
+    }
+
+    return configuration;
+  }
+
+  public final BugConfiguration withAll() {
+    return new BugConfiguration(EnumSet.allOf(Bug.class));
+  }
+
+  public final BugConfiguration without(final Bug bug) {
+    if (!this.bugs.contains(bug)) {
+      return this;
+    }
+
+    final EnumSet<Bug> bugs = EnumSet.copyOf(this.bugs);
+    bugs.remove(bug);
+
+    return new BugConfiguration(bugs);
+  }
+
+  public final boolean isEnabled(final Bug bug) {
+    return this.bugs.contains(bug);
+  }
+
+  public final boolean hasBugsOf(final Bug.Category category) {
+    for (final Bug bug : this.bugs) {
+      if (bug.getCategory() == category) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  public final int numberOfBugs() {
+    return this.bugs.size();
+  }
+
+  @Override
+  public final Iterator<Bug> iterator() {
+    return Collections.unmodifiableSet(this.bugs).iterator();
+  }
+
+  @Override
+  public final boolean equals(final Object other) {
+    if (!(other instanceof BugConfiguration)) {
+      return false;
+    }
+
+    return this.bugs.equals(((BugConfiguration) other).bugs);
+  }
+
+  @Override
+  public final int hashCode() {
+    return this.bugs.hashCode();
+  }
+
+  @Override
+  public final String toString() {
+    return StreamSupport.stream(spliterator(), false)
+        .map(Bug::getName)
+        .collect(Collectors.joining(", "));
+  }
+
+}
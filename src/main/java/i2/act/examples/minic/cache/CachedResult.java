@@ -0,0 +1,196 @@
+package i2.act.examples.minic.cache;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.util.Pair;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// the outcome of a run of the pipeline: either the program has been rejected (i.e., an
+// InvalidProgramException has been thrown) or it has been accepted (in which case the exit value
+// and the output are available if the program has been interpreted)
+public final class CachedResult {
+
+  private static final int TAG_NULL = 0;
+  private static final int TAG_NUMBER = 1;
+  private static final int TAG_UNDEFINED_NUMBER = 2;
+  private static final int TAG_BOOLEAN = 3;
+  private static final int TAG_UNDEFINED_BOOLEAN = 4;
+
+  public static final CachedResult accepted() {
+    return new CachedResult(null, null, null, null, Collections.emptyList());
+  }
+
+  public static final CachedResult accepted(
+      final Pair<Interpreter.Value, List<Interpreter.Value>> result) {
+    if (result == null) {
+      return accepted();
+    }
+
+    return new CachedResult(null, null, null, result.getFirst(), result.getSecond());
+  }
+
+  public static final CachedResult rejected(final InvalidProgramException exception) {
+    return new CachedResult(exception.getKind(), exception.getPosition(),
+        exception.getDescription(), null, Collections.emptyList());
+  }
+
+  // ===============================================================================================
+
+  private final InvalidProgramException.Kind kind;
+  private final SourcePosition position;
+  private final String description;
+
+  private final Interpreter.Value exitValue;
+  private final List<Interpreter.Value> output;
+
+  private CachedResult(final InvalidProgramException.Kind kind, final SourcePosition position,
+      final String description, final Interpreter.Value exitValue,
+      final List<Interpreter.Value> output) {
+    this.kind = kind;
+    this.position = position;
+    this.description = description;
+    this.exitValue = exitValue;
+    this.output = output;
+  }
+
+  public final boolean isRejected() {
+    return this.kind != null;
+  }
+
+  // returns 'null' if the program has been accepted
+  public final InvalidProgramException.Kind getKind() {
+    return this.kind;
+  }
+
+  // returns an exception that is equivalent to the one that has been thrown by the pipeline
+  public final InvalidProgramException toException() {
+    assert (isRejected());
+    return InvalidProgramException.of(this.kind, this.position, this.description);
+  }
+
+  public final Interpreter.Value getExitValue() {
+    return this.exitValue;
+  }
+
+  public final List<Interpreter.Value> getOutput() {
+    return this.output;
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  final void write(final DataOutputStream stream) throws IOException {
+    stream.writeBoolean(isRejected());
+
+    if (isRejected()) {
+      stream.writeUTF(this.kind.name());
+      stream.writeInt(this.position.offset);
+      stream.writeInt(this.position.line);
+      stream.writeInt(this.position.column);
+      stream.writeUTF(this.description);
+    } else {
+      writeValue(stream, this.exitValue);
+
+      stream.writeInt(this.output.size());
+      for (final Interpreter.Value value : this.output) {
+        writeValue(stream, value);
+      }
+    }
+  }
+
+  static final CachedResult read(final DataInputStream stream) throws IOException {
+    final boolean rejected = stream.readBoolean();
+
+    if (rejected) {
+      final InvalidProgramException.Kind kind;
+      try {
+        kind = InvalidProgramException.Kind.valueOf(stream.readUTF());
+      } catch (final IllegalArgumentException exception) {
+        throw new IOException(exception);
+      }
+
+      final int offset = stream.readInt();
+      final int line = stream.readInt();
+      final int column = stream.readInt();
+
+      final SourcePosition position;
+      {
+        final SourcePosition readPosition = new SourcePosition(offset, line, column);
+
+        if (readPosition.equals(SourcePosition.UNKNOWN)) {
+          position = SourcePosition.UNKNOWN;
+        } else {
+          position = readPosition;
+        }
+      }
+
+      final String description = stream.readUTF();
+
+      return new CachedResult(kind, position, description, null, Collections.emptyList());
+    } else {
+      final Interpreter.Value exitValue = readValue(stream);
+
+      final int outputSize = stream.readInt();
+      final List<Interpreter.Value> output = new ArrayList<>(outputSize);
+
+      for (int index = 0; index < outputSize; ++index) {
+        output.add(readValue(stream));
+      }
+
+      return new CachedResult(null, null, null, exitValue, output);
+    }
+  }
+
+  private static final void writeValue(final DataOutputStream stream,
+      final Interpreter.Value value) throws IOException {
+    if (value == null) {
+      stream.writeByte(TAG_NULL);
+    } else if (value == Interpreter.NumberValue.UNDEFINED) {
+      stream.writeByte(TAG_UNDEFINED_NUMBER);
+    } else if (value == Interpreter.BooleanValue.UNDEFINED) {
+      stream.writeByte(TAG_UNDEFINED_BOOLEAN);
+    } else if (value instanceof Interpreter.NumberValue) {
+      stream.writeByte(TAG_NUMBER);
+      stream.writeLong(((Interpreter.NumberValue) value).value);
+    } else {
+      assert (value instanceof Interpreter.BooleanValue);
+      stream.writeByte(TAG_BOOLEAN);
+      stream.writeBoolean(((Interpreter.BooleanValue) value).value);
+    }
+  }
+
+  private static final Interpreter.Value readValue(final DataInputStream stream)
+      throws IOException {
+    final int tag = stream.readByte();
+
+    switch (tag) {
+      case TAG_NULL: {
+        return null;
+      }
+      case TAG_NUMBER: {
+        return new Interpreter.NumberValue(stream.readLong());
+      }
+      case TAG_UNDEFINED_NUMBER: {
+        return Interpreter.NumberValue.UNDEFINED;
+      }
+      case TAG_BOOLEAN: {
+        return (stream.readBoolean())
+            ? (Interpreter.BooleanValue.TRUE)
+            : (Interpreter.BooleanValue.FALSE);
+      }
+      case TAG_UNDEFINED_BOOLEAN: {
+        return Interpreter.BooleanValue.UNDEFINED;
+      }
+      default: {
+        throw new IOException(String.format("invalid value tag: %d", tag));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,204 @@
+package i2.act.examples.minic.cache;
+
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.interpreter.Engine;
+import i2.act.examples.minic.interpreter.ExecutionLimits;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Caches the results of the pipeline (see 'CachedResult'), keyed by a hash of the program code, the
+// enabled bugs, the options that influence the result, and the execution limits. The cache
+// consists of an in-memory LRU layer and an optional on-disk store (one file per result); it can be
+// shared between several threads.
+public final class ResultCache {
+
+  public static final int DEFAULT_CAPACITY = 10000;
+
+  private static final int FORMAT_VERSION = 1;
+
+  public static final ResultCache create(final int capacity) {
+    return new ResultCache(capacity, null);
+  }
+
+  public static final ResultCache create(final int capacity, final String directoryName) {
+    final Path directory = (directoryName == null) ? (null) : (Paths.get(directoryName));
+    return new ResultCache(capacity, directory);
+  }
+
+  // ===============================================================================================
+
+  public static final class Key {
+
+    public static final Key of(final String programCode, final BugConfiguration bugs,
+        final boolean lazyLexer, final Engine engine, final boolean checkUndefined,
+        final boolean interpret, final ExecutionLimits limits) {
+      final String options = String.format("%s;%s;%s;%s;%s;%s",
+          bugs, lazyLexer, engine.getName(), checkUndefined, interpret, limits);
+
+      final MessageDigest digest;
+      try {
+        digest = MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException exception) {
+        throw new RuntimeException(exception);
+      }
+
+      digest.update(programCode.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(options.getBytes(StandardCharsets.UTF_8));
+
+      final StringBuilder hash = new StringBuilder();
+      for (final byte hashByte : digest.digest()) {
+        hash.append(String.format("%02x", hashByte));
+      }
+
+      return new Key(hash.toString());
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private final String hash;
+
+    private Key(final String hash) {
+      this.hash = hash;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      return this.hash.equals(((Key) other).hash);
+    }
+
+    @Override
+    public final int hashCode() {
+      return this.hash.hashCode();
+    }
+
+    @Override
+    public final String toString() {
+      return this.hash;
+    }
+
+  }
+
+  // ===============================================================================================
+
+  private final Map<Key, CachedResult> results;
+
+  // 'null' if the results are only kept in memory
+  private final Path directory;
+
+  private ResultCache(final int capacity, final Path directory) {
+    this.results = new LinkedHashMap<Key, CachedResult>(16, 0.75f, true) {
+
+      @Override
+      protected final boolean removeEldestEntry(final Map.Entry<Key, CachedResult> eldest) {
+        return size() > capacity;
+      }
+
+    };
+
+    this.directory = directory;
+  }
+
+  // returns 'null' if there is no cached result for the given key
+  public final CachedResult get(final Key key) {
+    synchronized (this.results) {
+      final CachedResult result = this.results.get(key);
+
+      if (result != null) {
+        return result;
+      }
+    }
+
+    if (this.directory == null) {
+      return null;
+    }
+
+    final CachedResult result = load(key);
+
+    if (result != null) {
+      synchronized (this.results) {
+        this.results.put(key, result);
+      }
+    }
+
+    return result;
+  }
+
+  public final void put(final Key key, final CachedResult result) {
+    synchronized (this.results) {
+      this.results.put(key, result);
+    }
+
+    if (this.directory != null) {
+      store(key, result);
+    }
+  }
+
+  private final Path getPath(final Key key) {
+    final String hash = key.toString();
+
+    // distribute the files over several subdirectories
+    return this.directory.resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private final CachedResult load(final Key key) {
+    final Path path = getPath(key);
+
+    try (final DataInputStream stream =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (stream.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+
+      return CachedResult.read(stream);
+    } catch (final IOException exception) {
+      // missing, corrupt or incomplete files are treated as cache misses
+      return null;
+    }
+  }
+
+  private final void store(final Key key, final CachedResult result) {
+    final Path path = getPath(key);
+
+    try {
+      Files.createDirectories(path.getParent());
+
+      // write to a temporary file first, such that concurrent readers (possibly in other
+      // processes) never see an incomplete file
+      final Path temporaryPath = Files.createTempFile(path.getParent(), key.toString(), ".tmp");
+
+      try (final DataOutputStream stream =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+        stream.writeInt(FORMAT_VERSION);
+        result.write(stream);
+      }
+
+      try {
+        Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException exception) {
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (final IOException exception) {
+      throw new RuntimeException(exception);
+    }
+  }
+
+}
@@ -0,0 +1,353 @@
+package i2.act.examples.minic.differential;
+
+import i2.act.examples.minic.bugs.Bug;
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.ast.Program;
+import i2.act.examples.minic.frontend.lexer.EagerTokenStream;
+import i2.act.examples.minic.frontend.lexer.LexerEngine;
+import i2.act.examples.minic.frontend.parser.Parser;
+import i2.act.examples.minic.frontend.semantics.SemanticAnalysis;
+import i2.act.examples.minic.interpreter.CancellationToken;
+import i2.act.examples.minic.interpreter.Engine;
+import i2.act.examples.minic.interpreter.ExecutionBudget;
+import i2.act.examples.minic.interpreter.ExecutionLimits;
+import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.examples.minic.interpreter.Interpreter.Value;
+import i2.act.examples.minic.interpreter.Optimizer;
+import i2.act.examples.minic.interpreter.OutputSink;
+
+import java.util.List;
+
+// Runs a program once without bugs (the reference implementation) and once with the given bugs
+// (the implementation under test) in the same JVM and answers the same question as
+// 'checks/wrong_output.sh', i.e., whether the bugs change the exit code or the output of a program
+// that the reference implementation accepts. The stages that none of the enabled bugs affects only
+// run once: without lexer bugs, both runs share the tokens, and if all bugs are interpreter bugs,
+// they also share the analyzed program (unless the optimizer folds constants with these bugs).
+public final class DifferentialExecution {
+
+  // the exit code of a run that has crashed (i.e., the exit code of an uncaught exception)
+  public static final int CRASH_EXIT_CODE = 1;
+
+  public static enum Verdict {
+
+    REFERENCE_TIMEOUT("timeout in reference implementation", false),
+    TOO_MUCH_OUTPUT("too much output", false),
+    INVALID_PROGRAM("program is invalid", false),
+    WRONG_EXIT_CODE("wrong exit code", true),
+    WRONG_OUTPUT("wrong output", true),
+    UNDEFINED_OUTPUT("undefined output", true),
+    SAME_OUTPUT("same output", false);
+
+    private final String message;
+
+    // 'true' iff the script reports the program as interesting (i.e., exits with 1)
+    private final boolean difference;
+
+    private Verdict(final String message, final boolean difference) {
+      this.message = message;
+      this.difference = difference;
+    }
+
+    public final String getMessage() {
+      return this.message;
+    }
+
+    public final boolean isDifference() {
+      return this.difference;
+    }
+
+  }
+
+  public static final class Result {
+
+    private final Verdict verdict;
+
+    private final int referenceExitCode;
+    private final int testExitCode;
+
+    private Result(final Verdict verdict, final int referenceExitCode, final int testExitCode) {
+      this.verdict = verdict;
+      this.referenceExitCode = referenceExitCode;
+      this.testExitCode = testExitCode;
+    }
+
+    public final Verdict getVerdict() {
+      return this.verdict;
+    }
+
+    public final int getReferenceExitCode() {
+      return this.referenceExitCode;
+    }
+
+    // the exit code of the implementation under test is only known if the reference
+    // implementation has accepted the program (and is 0 otherwise)
+    public final int getTestExitCode() {
+      return this.testExitCode;
+    }
+
+    public final String getMessage() {
+      if (this.verdict == Verdict.WRONG_EXIT_CODE) {
+        return String.format("%s (%d vs. %d)",
+            this.verdict.getMessage(), this.testExitCode, this.referenceExitCode);
+      }
+
+      return this.verdict.getMessage();
+    }
+
+    @Override
+    public final String toString() {
+      return getMessage();
+    }
+
+  }
+
+  // the outcome of one run: the exit code, the output that has been printed (also before an error)
+  // and the exit value (which is 'null' unless the program has exited normally)
+  private static final class Outcome {
+
+    private final int exitCode;
+    private final InvalidProgramException exception;
+
+    private final List<Value> output;
+    private final Value exitValue;
+
+    private Outcome(final int exitCode, final InvalidProgramException exception,
+        final List<Value> output, final Value exitValue) {
+      this.exitCode = exitCode;
+      this.exception = exception;
+      this.output = output;
+      this.exitValue = exitValue;
+    }
+
+    private final boolean hasSameOutput(final Outcome other) {
+      if (this.output.size() != other.output.size()) {
+        return false;
+      }
+
+      // the output is compared as text (i.e., undefined values are equal to each other)
+      for (int index = 0; index < this.output.size(); ++index) {
+        if (!this.output.get(index).toString().equals(other.output.get(index).toString())) {
+          return false;
+        }
+      }
+
+      if (this.exitValue == null || other.exitValue == null) {
+        return this.exitValue == other.exitValue;
+      }
+
+      return this.exitValue.toString().equals(other.exitValue.toString());
+    }
+
+    // the output of a run that has exited normally on stdout (i.e., including the 'EXIT' line), but
+    // at most the given number of characters
+    private final String getStandardOutput(final long maxLength) {
+      final StringBuilder builder = new StringBuilder();
+
+      for (final Value value : this.output) {
+        if (builder.length() >= maxLength) {
+          break;
+        }
+
+        builder.append(value).append('\n');
+      }
+
+      assert (this.exitCode == 0);
+      builder.append("EXIT: ").append(this.exitValue).append('\n');
+
+      if (builder.length() > maxLength) {
+        builder.setLength((int) maxLength);
+      }
+
+      return builder.toString();
+    }
+
+    private final boolean hasUndefinedOutput() {
+      for (final Value value : this.output) {
+        if (Interpreter.isUndefined(value)) {
+          return true;
+        }
+      }
+
+      return this.exitValue != null && Interpreter.isUndefined(this.exitValue);
+    }
+
+  }
+
+  public static final Result compare(final String input, final BugConfiguration bugs) {
+    return compare(input, bugs, LexerEngine.CLASSIC, Engine.AST, false, ExecutionLimits.NONE);
+  }
+
+  public static final Result compare(final String input, final BugConfiguration bugs,
+      final LexerEngine lexerEngine, final Engine engine, final boolean optimize,
+      final ExecutionLimits limits) {
+    return compare(input, bugs, lexerEngine, engine, optimize, limits, null);
+  }
+
+  // both runs are aborted as non-terminating if the given token is cancelled (which may be 'null'
+  // if the execution cannot be cancelled)
+  public static final Result compare(final String input, final BugConfiguration bugs,
+      final LexerEngine lexerEngine, final Engine engine, final boolean optimize,
+      final ExecutionLimits limits, final CancellationToken token) {
+    final DifferentialExecution execution =
+        new DifferentialExecution(input, bugs, lexerEngine, engine, optimize, limits, token);
+    return execution.compare();
+  }
+
+  // ===============================================================================================
+
+  private final String input;
+  private final BugConfiguration bugs;
+  private final LexerEngine lexerEngine;
+  private final Engine engine;
+  private final boolean optimize;
+  private final ExecutionLimits limits;
+  private final CancellationToken token;
+
+  // the results of the stages of the reference implementation (which may be shared)
+  private EagerTokenStream tokens;
+  private Program program;
+
+  private DifferentialExecution(final String input, final BugConfiguration bugs,
+      final LexerEngine lexerEngine, final Engine engine, final boolean optimize,
+      final ExecutionLimits limits, final CancellationToken token) {
+    this.input = input;
+    this.bugs = bugs;
+    this.lexerEngine = lexerEngine;
+    this.engine = engine;
+    this.optimize = optimize;
+    this.limits = limits;
+    this.token = token;
+  }
+
+  private final Result compare() {
+    final Outcome reference = run(true);
+
+    if (reference.exitCode != 0) {
+      final Verdict verdict;
+      {
+        if (reference.exception != null && ExecutionBudget.isExhaustedBy(reference.exception)) {
+          verdict = Verdict.REFERENCE_TIMEOUT;
+        } else if (reference.exception != null && reference.exception.getKind()
+            == InvalidProgramException.Kind.OUTPUT_LIMIT_EXCEEDED) {
+          verdict = Verdict.TOO_MUCH_OUTPUT;
+        } else {
+          verdict = Verdict.INVALID_PROGRAM;
+        }
+      }
+
+      return new Result(verdict, reference.exitCode, 0);
+    }
+
+    if (exceedsOutputSize(reference)) {
+      return new Result(Verdict.TOO_MUCH_OUTPUT, reference.exitCode, 0);
+    }
+
+    final Outcome test = run(false);
+
+    final Verdict verdict;
+    {
+      if (test.exitCode != reference.exitCode) {
+        verdict = Verdict.WRONG_EXIT_CODE;
+      } else if (!test.hasSameOutput(reference)) {
+        verdict = Verdict.WRONG_OUTPUT;
+      } else if (reference.hasUndefinedOutput()) {
+        // the outputs are the same; however, 'UNDEF' output is considered as a difference
+        verdict = Verdict.UNDEFINED_OUTPUT;
+      } else {
+        verdict = Verdict.SAME_OUTPUT;
+      }
+    }
+
+    return new Result(verdict, reference.exitCode, test.exitCode);
+  }
+
+  // the script runs both implementations with '--maxOutputBytes <size + 1>', only reads the first
+  // 'size + 1' bytes of stdout (including the 'EXIT' line) and strips the trailing line breaks; the
+  // program has too much output if more than 'size' bytes remain
+  private final boolean exceedsOutputSize(final Outcome reference) {
+    final long maxOutputBytes = this.limits.getMaxOutputBytes();
+
+    if (maxOutputBytes == Interpreter.UNBOUNDED) {
+      return false;
+    }
+
+    final String standardOutput = reference.getStandardOutput(maxOutputBytes);
+
+    int length = standardOutput.length();
+    while (length > 0 && standardOutput.charAt(length - 1) == '\n') {
+      --length;
+    }
+
+    return length > maxOutputBytes - 1;
+  }
+
+  private final Outcome run(final boolean reference) {
+    final BugConfiguration bugs = (reference) ? (BugConfiguration.NONE) : (this.bugs);
+    final OutputSink output = OutputSink.collecting(this.limits);
+
+    try {
+      final Program program;
+      {
+        if (reference) {
+          program = runReferenceFrontend();
+        } else {
+          program = runTestFrontend();
+        }
+      }
+
+      final Value exitValue = Interpreter.interpret(
+          program, bugs, this.engine, this.limits, this.token, output).getFirst();
+
+      return new Outcome(0, null, output.getOutput(), exitValue);
+    } catch (final InvalidProgramException exception) {
+      return new Outcome(exception.getExitCode(), exception, output.getOutput(), null);
+    } catch (final RuntimeException | Error crash) {
+      // a bug may crash the pipeline (which is a difference in the exit code); as on the command
+      // line, every other failure of an engine (e.g., an 'OutOfMemoryError') is a crash as well
+      return new Outcome(CRASH_EXIT_CODE, null, output.getOutput(), null);
+    }
+  }
+
+  private final Program runReferenceFrontend() {
+    this.tokens =
+        EagerTokenStream.from(this.lexerEngine.createLexer(this.input, BugConfiguration.NONE));
+    this.program = analyze(this.tokens, BugConfiguration.NONE);
+
+    return this.program;
+  }
+
+  private final Program runTestFrontend() {
+    if (this.bugs.hasBugsOf(Bug.Category.LEXER)) {
+      return analyze(
+          EagerTokenStream.from(this.lexerEngine.createLexer(this.input, this.bugs)), this.bugs);
+    }
+
+    // the analysis annotates the AST and the optimizer folds constants with the interpreter bugs,
+    // i.e., the program can only be shared if neither of them depends on the enabled bugs
+    final boolean shareProgram = !this.bugs.hasBugsOf(Bug.Category.PARSER)
+        && !this.bugs.hasBugsOf(Bug.Category.ANALYSIS)
+        && !(this.optimize && this.bugs.hasBugsOf(Bug.Category.INTERPRETER));
+
+    if (shareProgram) {
+      return this.program;
+    }
+
+    this.tokens.rewind();
+    return analyze(this.tokens, this.bugs);
+  }
+
+  private final Program analyze(final EagerTokenStream tokens, final BugConfiguration bugs) {
+    final Program program = Parser.parse(tokens, bugs);
+
+    SemanticAnalysis.analyze(program, bugs);
+
+    if (this.optimize) {
+      Optimizer.optimize(program, bugs);
+    }
+
+    return program;
+  }
+
+}
@@ -10,7 +10,8 @@ public final class InvalidProgramException extends RuntimeException {
     SYNTACTICALLY_INVALID(131),
     SEMANTICALLY_INVALID(132),
     DYNAMICALLY_INVALID(133),
-    NON_TERMINATING(134);
+    NON_TERMINATING(134),
+    OUTPUT_LIMIT_EXCEEDED(135);
 
     public final int exitCode;
 
@@ -22,12 +23,14 @@ public final class InvalidProgramException extends RuntimeException {
 
   private final Kind kind;
   private final SourcePosition position;
+  private final String description;
 
   private InvalidProgramException(final Kind kind, final SourcePosition position,
-      final String message) {
-    super(String.format("[%s] %s", position, message));
+      final String description) {
+    super(String.format("[%s] %s", position, description));
     this.kind = kind;
     this.position = position;
+    this.description = description;
   }
 
   public final Kind getKind() {
@@ -38,12 +41,22 @@ public final class InvalidProgramException extends RuntimeException {
     return this.position;
   }
 
+  // returns the message without the position
+  public final String getDescription() {
+    return this.description;
+  }
+
   public final int getExitCode() {
     return this.kind.exitCode;
   }
 
   // -----------------------------------------------------------------------------------------------
 
+  public static final InvalidProgramException of(final Kind kind, final SourcePosition position,
+      final String message) {
+    return new InvalidProgramException(kind, position, message);
+  }
+
   public static final InvalidProgramException lexicallyInvalid(final String message) {
     return lexicallyInvalid(SourcePosition.UNKNOWN, message);
   }
@@ -85,4 +98,9 @@ public final class InvalidProgramException extends RuntimeException {
     return new InvalidProgramException(Kind.NON_TERMINATING, position, message);
   }
 
+  public static final InvalidProgramException outputLimitExceeded(final SourcePosition position,
+      final String message) {
+    return new InvalidProgramException(Kind.OUTPUT_LIMIT_EXCEEDED, position, message);
+  }
+
 }
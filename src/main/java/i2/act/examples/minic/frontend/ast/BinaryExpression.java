@@ -45,6 +45,12 @@ public final class BinaryExpression extends Expression {
   private final Expression leftHandSide;
   private final Expression rightHandSide;
 
+  // the result of the expression if it is constant, set by the (optional) constant folding; the
+  // value of an undefined result is meaningless
+  private boolean constant;
+  private long constantValue;
+  private boolean undefinedConstant;
+
   public BinaryExpression(final SourcePosition position, final Operator operator,
       final Expression leftHandSide, final Expression rightHandSide) {
     super(position);
@@ -65,6 +71,26 @@ public final class BinaryExpression extends Expression {
     return this.rightHandSide;
   }
 
+  public final void setConstantResult(final long value, final boolean undefined) {
+    this.constant = true;
+    this.constantValue = value;
+    this.undefinedConstant = undefined;
+  }
+
+  public final boolean isConstant() {
+    return this.constant;
+  }
+
+  public final long getConstantValue() {
+    assert (this.constant);
+    return this.constantValue;
+  }
+
+  public final boolean isUndefinedConstant() {
+    assert (this.constant);
+    return this.undefinedConstant;
+  }
+
   @Override
   public final String toString() {
     return this.operator.stringRepresentation;
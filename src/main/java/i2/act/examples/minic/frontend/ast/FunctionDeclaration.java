@@ -15,6 +15,13 @@ public final class FunctionDeclaration extends Declaration {
   private final List<VariableDeclaration> parameters;
   private final Block body;
 
+  // number of frame slots (i.e., parameters and local variables), set by the semantic analysis
+  private int frameSize;
+
+  // whether the result of the function only depends on its arguments, set by the (optional) purity
+  // analysis
+  private boolean pure;
+
   public FunctionDeclaration(final SourcePosition position, final TypeName returnType,
       final Identifier name, final List<VariableDeclaration> parameters, final Block body) {
     super(position);
@@ -40,6 +47,22 @@ public final class FunctionDeclaration extends Declaration {
     return this.body;
   }
 
+  public final void setFrameSize(final int frameSize) {
+    this.frameSize = frameSize;
+  }
+
+  public final int getFrameSize() {
+    return this.frameSize;
+  }
+
+  public final void setPure(final boolean pure) {
+    this.pure = pure;
+  }
+
+  public final boolean isPure() {
+    return this.pure;
+  }
+
   @Override
   public final Symbol getSymbol() {
     return this.name.getSymbol();
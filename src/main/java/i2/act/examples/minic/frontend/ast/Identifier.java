@@ -21,7 +21,12 @@ public final class Identifier extends Expression {
   }
 
   public final String getName() {
-    return this.token.string;
+    return this.token.getString();
+  }
+
+  // the id of the name in the name table of the program
+  public final int getNameId() {
+    return this.token.getNameId();
   }
 
   public final void setSymbol(final Symbol symbol) {
@@ -34,7 +39,7 @@ public final class Identifier extends Expression {
 
   @Override
   public final String toString() {
-    return this.token.string;
+    return this.token.getString();
   }
 
   @Override
@@ -8,18 +8,47 @@ public final class Literal extends Expression {
 
   private final Token token;
 
+  // the value of the literal is parsed once when the literal is created; 'hasValue' is 'false' if
+  // the literal does not fit into a 'long' (the semantic analysis rejects every literal that is
+  // greater than 'Integer.MAX_VALUE', i.e., only values in the range of an 'int' are accepted)
+  private final long value;
+  private final boolean hasValue;
+
   public Literal(final SourcePosition position, final Token token) {
     super(position);
     this.token = token;
+
+    long value = 0;
+    boolean hasValue = false;
+    {
+      try {
+        value = Long.parseLong(token.getString());
+        hasValue = true;
+      } catch (final NumberFormatException exception) {
+        // intentionally left blank
+      }
+    }
+
+    this.value = value;
+    this.hasValue = hasValue;
   }
 
   public final Token getToken() {
     return this.token;
   }
 
+  public final long getValue() {
+    assert (this.hasValue);
+    return this.value;
+  }
+
+  public final boolean hasValue() {
+    return this.hasValue;
+  }
+
   @Override
   public final String toString() {
-    return this.token.string;
+    return this.token.getString();
   }
 
   @Override
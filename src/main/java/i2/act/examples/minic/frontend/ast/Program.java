@@ -1,6 +1,7 @@
 package i2.act.examples.minic.frontend.ast;
 
 import i2.act.examples.minic.frontend.ast.visitors.ASTVisitor;
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
 import java.util.Collections;
@@ -10,15 +11,35 @@ public final class Program extends ASTNode {
 
   private final List<Declaration> declarations;
 
-  public Program(final SourcePosition position, final List<Declaration> declarations) {
+  // the names of the identifiers in the program
+  private final NameTable nameTable;
+
+  // number of global variables (i.e., size of the global frame), set by the semantic analysis
+  private int numberOfGlobals;
+
+  public Program(final SourcePosition position, final List<Declaration> declarations,
+      final NameTable nameTable) {
     super(position);
     this.declarations = declarations;
+    this.nameTable = nameTable;
   }
 
   public final List<Declaration> getDeclarations() {
     return Collections.unmodifiableList(this.declarations);
   }
 
+  public final NameTable getNameTable() {
+    return this.nameTable;
+  }
+
+  public final void setNumberOfGlobals(final int numberOfGlobals) {
+    this.numberOfGlobals = numberOfGlobals;
+  }
+
+  public final int getNumberOfGlobals() {
+    return this.numberOfGlobals;
+  }
+
   @Override
   public final boolean isTerminal() {
     return false;
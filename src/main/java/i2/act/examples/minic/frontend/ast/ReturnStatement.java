@@ -7,6 +7,10 @@ public final class ReturnStatement extends Statement {
 
   private final Expression returnValue;
 
+  // 'true' if the return value is a call of the enclosing function (i.e., a self-recursive tail
+  // call), set by the semantic analysis
+  private boolean selfTailCall;
+
   public ReturnStatement(final SourcePosition position) {
     this(position, null);
   }
@@ -24,6 +28,14 @@ public final class ReturnStatement extends Statement {
     return this.returnValue != null;
   }
 
+  public final void setSelfTailCall(final boolean selfTailCall) {
+    this.selfTailCall = selfTailCall;
+  }
+
+  public final boolean isSelfTailCall() {
+    return this.selfTailCall;
+  }
+
   @Override
   public final boolean isTerminal() {
     return false;
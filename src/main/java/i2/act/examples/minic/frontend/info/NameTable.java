@@ -0,0 +1,143 @@
+package i2.act.examples.minic.frontend.info;
+
+import java.util.Arrays;
+
+// Interns the names of a program: each distinct name is stored once and identified by a dense id
+// (in the order in which the names are interned), such that the later phases can use the id
+// instead of hashing and comparing the name again. The lexers intern the names directly from the
+// range of characters that forms an identifier, i.e., no string is created for a name that has
+// already been interned.
+public final class NameTable {
+
+  public static final int NO_NAME = -1;
+
+  // the name of the implicitly declared 'print()' function is always interned first
+  public static final String PRINT_NAME = "print";
+  public static final int PRINT = 0;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private String[] names;
+  private int[] hashes;
+  private int numberOfNames;
+
+  // open addressing with linear probing; each slot contains the id of a name plus one (and zero if
+  // the slot is empty)
+  private int[] slots;
+
+  public NameTable() {
+    this.names = new String[INITIAL_CAPACITY];
+    this.hashes = new int[INITIAL_CAPACITY];
+    this.numberOfNames = 0;
+
+    this.slots = new int[2 * INITIAL_CAPACITY];
+
+    final int printId = intern(PRINT_NAME);
+    assert (printId == PRINT);
+  }
+
+  public final int intern(final char[] characters, final int offset, final int length) {
+    final int hash = hash(characters, offset, length);
+    final int mask = this.slots.length - 1;
+
+    int slot = spread(hash) & mask;
+
+    while (true) {
+      final int entry = this.slots[slot];
+
+      if (entry == 0) {
+        return add(new String(characters, offset, length), hash, slot);
+      }
+
+      final int id = entry - 1;
+
+      if (this.hashes[id] == hash && matches(this.names[id], characters, offset, length)) {
+        return id;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  public final int intern(final String name) {
+    final char[] characters = name.toCharArray();
+    return intern(characters, 0, characters.length);
+  }
+
+  public final String getName(final int id) {
+    assert (id >= 0 && id < this.numberOfNames);
+    return this.names[id];
+  }
+
+  public final int numberOfNames() {
+    return this.numberOfNames;
+  }
+
+  private final int add(final String name, final int hash, final int slot) {
+    if (this.numberOfNames == this.names.length) {
+      this.names = Arrays.copyOf(this.names, 2 * this.numberOfNames);
+      this.hashes = Arrays.copyOf(this.hashes, 2 * this.numberOfNames);
+    }
+
+    final int id = this.numberOfNames++;
+
+    this.names[id] = name;
+    this.hashes[id] = hash;
+    this.slots[slot] = id + 1;
+
+    // keep the load factor of the slots at most 1/2
+    if (2 * this.numberOfNames > this.slots.length) {
+      rehash();
+    }
+
+    return id;
+  }
+
+  private final void rehash() {
+    final int[] slots = new int[2 * this.slots.length];
+    final int mask = slots.length - 1;
+
+    for (int id = 0; id < this.numberOfNames; ++id) {
+      int slot = spread(this.hashes[id]) & mask;
+
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+
+      slots[slot] = id + 1;
+    }
+
+    this.slots = slots;
+  }
+
+  // the same hash as 'String.hashCode()'
+  private static final int hash(final char[] characters, final int offset, final int length) {
+    int hash = 0;
+
+    for (int index = offset; index < offset + length; ++index) {
+      hash = 31 * hash + characters[index];
+    }
+
+    return hash;
+  }
+
+  private static final int spread(final int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final boolean matches(final String name, final char[] characters,
+      final int offset, final int length) {
+    if (name.length() != length) {
+      return false;
+    }
+
+    for (int index = 0; index < length; ++index) {
+      if (name.charAt(index) != characters[offset + index]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+}
@@ -0,0 +1,28 @@
+package i2.act.examples.minic.frontend.lexer;
+
+import i2.act.examples.minic.frontend.info.NameTable;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+
+public abstract class BaseLexer {
+
+  // returns the next token without consuming it
+  public abstract Token peek();
+
+  // consumes the given token, which has to be the result of the last call to 'peek()' (i.e., the
+  // token is not lexed again)
+  public abstract void consume(final Token token);
+
+  public final Token pop() {
+    final Token token = peek();
+    consume(token);
+
+    return token;
+  }
+
+  // returns the position after the last consumed token
+  public abstract SourcePosition getPosition();
+
+  // returns the table in which the names of the lexed identifiers are interned
+  public abstract NameTable getNameTable();
+
+}
@@ -0,0 +1,614 @@
+package i2.act.examples.minic.frontend.lexer;
+
+import i2.act.examples.minic.bugs.Bug;
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.NameTable;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A table-driven lexer that accepts the same tokens as the classic 'Lexer' (including the injected
+// bugs, error messages and source positions). Each character is mapped to a character class by a
+// precomputed table, and the tokens are recognized by a deterministic finite automaton over these
+// classes (the keywords are recognized by the automaton as well, i.e., no string is created for
+// them). The tokens only refer to the shared source text; their positions and strings are computed
+// on demand (except for the names of identifiers, which are interned in the name table when they
+// are lexed). Alternatively, the lexer reads its input in chunks from a 'Reader' and only keeps the
+// part of the input that has not been consumed yet.
+public final class DfaLexer extends BaseLexer {
+
+  // ===============================================================================================
+  // character classes
+
+  private static final int CLASS_INVALID = 0;
+  private static final int CLASS_WHITESPACE = 1;
+  private static final int CLASS_LINE_BREAK = 2;
+  private static final int CLASS_DIGIT = 3;
+
+  // letters (and '_') that do not occur in any keyword
+  private static final int CLASS_LETTER = 4;
+
+  // each letter that occurs in a keyword and each operator character has its own class
+  private static final byte[] characterClasses = new byte[128];
+  private static final int firstOperatorClass;
+  private static final int numberOfClasses;
+
+  private static final TokenKind[] keywords = {
+    TokenKind.TK_VOID,
+    TokenKind.TK_INT,
+    TokenKind.TK_IF,
+    TokenKind.TK_ELSE,
+    TokenKind.TK_WHILE,
+    TokenKind.TK_RETURN,
+  };
+
+  private static final String operatorCharacters = ";,(){}+-*/=<>!|&";
+
+  static {
+    characterClasses[' '] = CLASS_WHITESPACE;
+    characterClasses['\t'] = CLASS_WHITESPACE;
+    characterClasses['\r'] = CLASS_WHITESPACE;
+    characterClasses['\n'] = CLASS_LINE_BREAK;
+
+    for (char character = '0'; character <= '9'; ++character) {
+      characterClasses[character] = CLASS_DIGIT;
+    }
+
+    for (char character = 'a'; character <= 'z'; ++character) {
+      characterClasses[character] = CLASS_LETTER;
+      characterClasses[Character.toUpperCase(character)] = CLASS_LETTER;
+    }
+
+    characterClasses['_'] = CLASS_LETTER;
+
+    int nextClass = CLASS_LETTER + 1;
+
+    for (final TokenKind keyword : keywords) {
+      for (final char character : keyword.stringRepresentation.toCharArray()) {
+        if (characterClasses[character] == CLASS_LETTER) {
+          characterClasses[character] = (byte) nextClass++;
+        }
+      }
+    }
+
+    firstOperatorClass = nextClass;
+
+    for (final char character : operatorCharacters.toCharArray()) {
+      characterClasses[character] = (byte) nextClass++;
+    }
+
+    numberOfClasses = nextClass;
+  }
+
+  private static final int getCharacterClass(final char character) {
+    return (character < characterClasses.length) ? (characterClasses[character]) : (CLASS_INVALID);
+  }
+
+  private static final boolean isIdentifierClass(final int characterClass) {
+    return characterClass == CLASS_DIGIT
+        || (characterClass >= CLASS_LETTER && characterClass < firstOperatorClass);
+  }
+
+  // ===============================================================================================
+  // automaton
+
+  private static final int NO_STATE = 0;
+  private static final int START_STATE = 1;
+
+  private static final class Automaton {
+
+    // the successor of a state for a character class is stored at index
+    // 'state * numberOfClasses + characterClass' ('NO_STATE' if there is no successor)
+    public final int[] transitions;
+
+    // the kind of token that is recognized if the automaton stops in a state ('null' if the input
+    // is invalid)
+    public final TokenKind[] acceptingKinds;
+
+    public Automaton(final int[] transitions, final TokenKind[] acceptingKinds) {
+      this.transitions = transitions;
+      this.acceptingKinds = acceptingKinds;
+    }
+
+  }
+
+  private static final class AutomatonBuilder {
+
+    private final List<int[]> transitions = new ArrayList<>();
+    private final List<TokenKind> acceptingKinds = new ArrayList<>();
+
+    public AutomatonBuilder() {
+      // the state with index 0 is the 'NO_STATE' marker
+      addState(null);
+    }
+
+    public final int addState(final TokenKind acceptingKind) {
+      this.transitions.add(new int[numberOfClasses]);
+      this.acceptingKinds.add(acceptingKind);
+
+      return this.transitions.size() - 1;
+    }
+
+    public final void setAcceptingKind(final int state, final TokenKind acceptingKind) {
+      this.acceptingKinds.set(state, acceptingKind);
+    }
+
+    public final int getTransition(final int state, final int characterClass) {
+      return this.transitions.get(state)[characterClass];
+    }
+
+    public final void setTransition(final int state, final int characterClass,
+        final int successor) {
+      this.transitions.get(state)[characterClass] = successor;
+    }
+
+    public final void setTransition(final int state, final char character, final int successor) {
+      setTransition(state, getCharacterClass(character), successor);
+    }
+
+    public final Automaton build() {
+      final int numberOfStates = this.transitions.size();
+
+      final int[] transitionTable = new int[numberOfStates * numberOfClasses];
+
+      for (int state = 0; state < numberOfStates; ++state) {
+        System.arraycopy(this.transitions.get(state), 0,
+            transitionTable, state * numberOfClasses, numberOfClasses);
+      }
+
+      return new Automaton(transitionTable,
+          this.acceptingKinds.toArray(new TokenKind[numberOfStates]));
+    }
+
+  }
+
+  // the automata for all combinations of the injected bugs that change the recognized operators
+  // (see 'getAutomatonIndex()')
+  private static final Automaton[] automata = new Automaton[8];
+
+  static {
+    for (int index = 0; index < automata.length; ++index) {
+      automata[index] = buildAutomaton(
+          (index & 1) != 0, (index & 2) != 0, (index & 4) != 0);
+    }
+  }
+
+  private static final int getAutomatonIndex(final boolean noEqualsToken,
+      final boolean wrongRegexAnd, final boolean wrongTokenPlus) {
+    return (noEqualsToken ? 1 : 0) | (wrongRegexAnd ? 2 : 0) | (wrongTokenPlus ? 4 : 0);
+  }
+
+  private static final Automaton buildAutomaton(final boolean noEqualsToken,
+      final boolean wrongRegexAnd, final boolean wrongTokenPlus) {
+    final AutomatonBuilder builder = new AutomatonBuilder();
+
+    final int startState = builder.addState(null);
+    assert (startState == START_STATE);
+
+    // identifiers
+    final int identifierState = builder.addState(TokenKind.TK_IDENT);
+
+    for (int characterClass = 0; characterClass < numberOfClasses; ++characterClass) {
+      if (isIdentifierClass(characterClass)) {
+        builder.setTransition(identifierState, characterClass, identifierState);
+
+        if (characterClass != CLASS_DIGIT) {
+          builder.setTransition(startState, characterClass, identifierState);
+        }
+      }
+    }
+
+    // keywords (each prefix of a keyword is an identifier as well)
+    for (final TokenKind keyword : keywords) {
+      int state = startState;
+
+      for (final char character : keyword.stringRepresentation.toCharArray()) {
+        final int characterClass = getCharacterClass(character);
+        int successor = builder.getTransition(state, characterClass);
+
+        if (successor == identifierState) {
+          successor = builder.addState(TokenKind.TK_IDENT);
+
+          for (int nextClass = 0; nextClass < numberOfClasses; ++nextClass) {
+            if (isIdentifierClass(nextClass)) {
+              builder.setTransition(successor, nextClass, identifierState);
+            }
+          }
+
+          builder.setTransition(state, characterClass, successor);
+        }
+
+        state = successor;
+      }
+
+      builder.setAcceptingKind(state, keyword);
+    }
+
+    // numbers
+    final int numberState = builder.addState(TokenKind.TK_NUM);
+    builder.setTransition(startState, CLASS_DIGIT, numberState);
+    builder.setTransition(numberState, CLASS_DIGIT, numberState);
+
+    // operators
+    builder.setTransition(startState, ';', builder.addState(TokenKind.TK_SEMICOLON));
+    builder.setTransition(startState, ',', builder.addState(TokenKind.TK_COMMA));
+    builder.setTransition(startState, '(', builder.addState(TokenKind.TK_LPAREN));
+    builder.setTransition(startState, ')', builder.addState(TokenKind.TK_RPAREN));
+    builder.setTransition(startState, '{', builder.addState(TokenKind.TK_LBRACE));
+    builder.setTransition(startState, '}', builder.addState(TokenKind.TK_RBRACE));
+    builder.setTransition(startState, '-', builder.addState(TokenKind.TK_SUB));
+    builder.setTransition(startState, '*', builder.addState(TokenKind.TK_MUL));
+    builder.setTransition(startState, '/', builder.addState(TokenKind.TK_DIV));
+
+    // check for injected bug
+    {
+      if (wrongTokenPlus) {
+        builder.setTransition(startState, '+', builder.addState(TokenKind.TK_MUL));
+      } else {
+        builder.setTransition(startState, '+', builder.addState(TokenKind.TK_ADD));
+      }
+    }
+
+    final int assignState = builder.addState(TokenKind.TK_ASSIGN);
+    builder.setTransition(startState, '=', assignState);
+
+    // check for injected bug
+    {
+      if (!noEqualsToken) {
+        builder.setTransition(assignState, '=', builder.addState(TokenKind.TK_EQUALS));
+      }
+    }
+
+    final int lessThanState = builder.addState(TokenKind.TK_LESS_THAN);
+    builder.setTransition(startState, '<', lessThanState);
+    builder.setTransition(lessThanState, '=', builder.addState(TokenKind.TK_LESS_EQUALS));
+
+    final int greaterThanState = builder.addState(TokenKind.TK_GREATER_THAN);
+    builder.setTransition(startState, '>', greaterThanState);
+    builder.setTransition(greaterThanState, '=', builder.addState(TokenKind.TK_GREATER_EQUALS));
+
+    final int notState = builder.addState(null);
+    builder.setTransition(startState, '!', notState);
+    builder.setTransition(notState, '=', builder.addState(TokenKind.TK_NOT_EQUALS));
+
+    final int orState = builder.addState(null);
+    builder.setTransition(startState, '|', orState);
+    builder.setTransition(orState, '|', builder.addState(TokenKind.TK_OR_OP));
+
+    final int andState = builder.addState(null);
+    builder.setTransition(startState, '&', andState);
+
+    // check for injected bug
+    {
+      if (wrongRegexAnd) {
+        builder.setTransition(andState, '|', builder.addState(TokenKind.TK_AND_OP));
+      } else {
+        builder.setTransition(andState, '&', builder.addState(TokenKind.TK_AND_OP));
+      }
+    }
+
+    return builder.build();
+  }
+
+  // ===============================================================================================
+
+  // number of characters that are initially read at once if the input is read from a reader
+  private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+  // the source text only holds the characters if the whole input is in memory; otherwise, it only
+  // tracks the line beginnings
+  private final SourceText source;
+
+  // the input is read in chunks if it is given as a reader (and 'reader' is 'null' otherwise)
+  private final Reader reader;
+  private boolean endOfInput;
+
+  // window of the input that is held in memory: 'buffer[0]' is the character at offset
+  // 'bufferOffset' and 'bufferEnd' is the offset after the last character that has been read
+  private char[] buffer;
+  private int bufferOffset;
+  private int bufferEnd;
+
+  private final NameTable nameTable;
+
+  private final int[] transitions;
+  private final TokenKind[] acceptingKinds;
+
+  // injected bugs (resolved once per lexer; the bugs that change the recognized operators are
+  // resolved by the choice of the automaton)
+  private final boolean missingTokenElse;
+  private final boolean missingTokenWhile;
+  private final boolean wrongTokenIf;
+  private final boolean additionalSkip;
+
+  private int position;
+
+  public DfaLexer(final String string) {
+    this(string, BugConfiguration.NONE);
+  }
+
+  public DfaLexer(final String string, final BugConfiguration bugs) {
+    this(string.toCharArray(), bugs);
+  }
+
+  public DfaLexer(final char[] characters) {
+    this(characters, BugConfiguration.NONE);
+  }
+
+  public DfaLexer(final char[] characters, final BugConfiguration bugs) {
+    this(new SourceText(characters), null, characters, bugs);
+  }
+
+  // lexes the characters of the given reader, of which only the part that has not been consumed
+  // yet is held in memory (i.e., the whole input is never copied into a string); the strings of
+  // identifiers and numbers are created when their tokens are lexed
+  public DfaLexer(final Reader reader, final BugConfiguration bugs) {
+    this(new SourceText(null), reader, new char[INITIAL_BUFFER_SIZE], bugs);
+  }
+
+  private DfaLexer(final SourceText source, final Reader reader, final char[] buffer,
+      final BugConfiguration bugs) {
+    this.source = source;
+
+    this.reader = reader;
+    this.endOfInput = (reader == null);
+
+    this.buffer = buffer;
+    this.bufferOffset = 0;
+    this.bufferEnd = (reader == null) ? (buffer.length) : (0);
+
+    this.nameTable = new NameTable();
+
+    final Automaton automaton = automata[getAutomatonIndex(
+        bugs.isEnabled(Bug.NO_EQUALS_TOKEN),
+        bugs.isEnabled(Bug.WRONG_REGEX_AND),
+        bugs.isEnabled(Bug.WRONG_TOKEN_PLUS))];
+
+    this.transitions = automaton.transitions;
+    this.acceptingKinds = automaton.acceptingKinds;
+
+    this.missingTokenElse = bugs.isEnabled(Bug.MISSING_TOKEN_ELSE);
+    this.missingTokenWhile = bugs.isEnabled(Bug.MISSING_TOKEN_WHILE);
+    this.wrongTokenIf = bugs.isEnabled(Bug.WRONG_TOKEN_IF);
+    this.additionalSkip = bugs.isEnabled(Bug.ADDITIONAL_SKIP);
+
+    this.position = 0;
+  }
+
+  @Override
+  public final SourcePosition getPosition() {
+    return this.source.getPosition(this.position);
+  }
+
+  @Override
+  public final NameTable getNameTable() {
+    return this.nameTable;
+  }
+
+  @Override
+  public final void consume(final Token token) {
+    this.position = token.getEndOffset();
+  }
+
+  // returns true iff the input has a character at the given offset (reading from the reader if
+  // necessary)
+  private final boolean hasCharacter(final int offset) {
+    return offset < this.bufferEnd || (!this.endOfInput && fill(offset));
+  }
+
+  // the character at the given offset has to be in the window
+  private final char getCharacter(final int offset) {
+    return this.buffer[offset - this.bufferOffset];
+  }
+
+  private final boolean fill(final int offset) {
+    while (offset >= this.bufferEnd) {
+      // 'peek()' always starts at the current position, i.e., all characters before it can be
+      // discarded
+      final int discarded = Math.min(this.position, this.bufferEnd) - this.bufferOffset;
+
+      if (discarded > 0) {
+        System.arraycopy(this.buffer, discarded, this.buffer, 0,
+            this.bufferEnd - this.bufferOffset - discarded);
+        this.bufferOffset += discarded;
+      }
+
+      final int used = this.bufferEnd - this.bufferOffset;
+
+      if (used == this.buffer.length) {
+        // the window is full -> grow it (only necessary for very long tokens or comments)
+        this.buffer = Arrays.copyOf(this.buffer, 2 * this.buffer.length);
+      }
+
+      final int numberOfCharacters;
+      try {
+        numberOfCharacters = this.reader.read(this.buffer, used, this.buffer.length - used);
+      } catch (final IOException exception) {
+        throw new RuntimeException("unable to read input", exception);
+      }
+
+      if (numberOfCharacters < 0) {
+        this.endOfInput = true;
+        return false;
+      }
+
+      this.bufferEnd += numberOfCharacters;
+    }
+
+    return true;
+  }
+
+  // a token whose string is the text of the given length at the given offset (which has to be in
+  // the window if the input is read from a reader)
+  private final Token createToken(final TokenKind kind, final int offset, final int length,
+      final int endOffset) {
+    if (kind == TokenKind.TK_IDENT) {
+      final int nameId = this.nameTable.intern(this.buffer, offset - this.bufferOffset, length);
+      final String name = this.nameTable.getName(nameId);
+
+      return Token.fromSource(kind, this.source, offset, name, endOffset, nameId);
+    }
+
+    if (this.reader == null) {
+      return Token.fromSource(kind, this.source, offset, length, endOffset);
+    } else {
+      final String string = new String(this.buffer, offset - this.bufferOffset, length);
+      return Token.fromSource(kind, this.source, offset, string, endOffset, NameTable.NO_NAME);
+    }
+  }
+
+  @Override
+  public final Token peek() {
+    int lookaheadPosition = this.position;
+
+    skip: while (true) { // skip whitespace and comments
+      if (!hasCharacter(lookaheadPosition)) {
+        return Token.fromSource(TokenKind.TK_EOF, this.source, lookaheadPosition);
+      }
+
+      final char firstChar = getCharacter(lookaheadPosition);
+      final int firstClass = getCharacterClass(firstChar);
+
+      // handle consecutive whitespace
+      if (firstClass == CLASS_WHITESPACE || firstClass == CLASS_LINE_BREAK) {
+        while (hasCharacter(lookaheadPosition)) {
+          final int nextClass = getCharacterClass(getCharacter(lookaheadPosition));
+
+          if (nextClass == CLASS_LINE_BREAK) {
+            this.source.addLineBreak(lookaheadPosition);
+          } else if (nextClass != CLASS_WHITESPACE) {
+            break;
+          }
+
+          ++lookaheadPosition;
+        }
+
+        continue skip;
+      }
+
+      if (firstChar == '/' && hasCharacter(lookaheadPosition + 1)) {
+        final char secondChar = getCharacter(lookaheadPosition + 1);
+
+        // handle line comments
+        if (secondChar == '/') {
+          while (hasCharacter(lookaheadPosition)) {
+            final char nextChar = getCharacter(lookaheadPosition);
+
+            if (nextChar == '\n') {
+              this.source.addLineBreak(lookaheadPosition);
+              ++lookaheadPosition;
+
+              // found end of comment
+              continue skip;
+            }
+
+            ++lookaheadPosition;
+          }
+
+          // NOTE: just as the classic lexer, a line comment at the end of the input is followed by
+          // a '/' token
+          return Token.fromSource(TokenKind.TK_DIV, this.source, lookaheadPosition);
+        }
+
+        // handle block comments
+        if (secondChar == '*') {
+          lookaheadPosition += 2;
+
+          while (hasCharacter(lookaheadPosition + 1)) {
+            final char nextChar = getCharacter(lookaheadPosition);
+
+            if (nextChar == '\n') {
+              this.source.addLineBreak(lookaheadPosition);
+            } else if (nextChar == '*' && getCharacter(lookaheadPosition + 1) == '/') {
+              lookaheadPosition += 2;
+
+              // found end of comment
+              continue skip;
+            }
+
+            ++lookaheadPosition;
+          }
+
+          throw InvalidProgramException.lexicallyInvalid(getPosition(),
+              "unterminated block comment");
+        }
+      }
+
+      // run the automaton (without backtracking, i.e., it stops at the first character for which
+      // the current state has no successor)
+      final int tokenBegin = lookaheadPosition;
+
+      int state = START_STATE;
+
+      while (hasCharacter(lookaheadPosition)) {
+        final int characterClass = getCharacterClass(getCharacter(lookaheadPosition));
+        final int successor = this.transitions[state * numberOfClasses + characterClass];
+
+        if (successor == NO_STATE) {
+          break;
+        }
+
+        state = successor;
+        ++lookaheadPosition;
+      }
+
+      final TokenKind kind = this.acceptingKinds[state];
+
+      if (kind == null) {
+        throw InvalidProgramException.lexicallyInvalid(getPosition(),
+            String.format("invalid character '%c'", firstChar));
+      }
+
+      switch (kind) {
+        case TK_IDENT:
+        case TK_NUM:
+        case TK_VOID:
+        case TK_INT:
+        case TK_IF:
+        case TK_ELSE:
+        case TK_WHILE:
+        case TK_RETURN: {
+          final int textLength = lookaheadPosition - tokenBegin;
+
+          // check for injected bug
+          {
+            if (this.additionalSkip) {
+              ++lookaheadPosition;
+            }
+          }
+
+          // check for injected bug
+          {
+            if (this.missingTokenElse && kind == TokenKind.TK_ELSE) {
+              continue skip;
+            }
+
+            if (this.missingTokenWhile && kind == TokenKind.TK_WHILE) {
+              continue skip;
+            }
+
+            if (this.wrongTokenIf && kind == TokenKind.TK_IF) {
+              return createToken(TokenKind.TK_IDENT, tokenBegin, textLength, lookaheadPosition);
+            }
+          }
+
+          if (kind == TokenKind.TK_IDENT || kind == TokenKind.TK_NUM) {
+            return createToken(kind, tokenBegin, textLength, lookaheadPosition);
+          }
+
+          // keywords end directly after their text (as in the classic lexer)
+          return Token.fromSource(kind, this.source, tokenBegin);
+        }
+        default: {
+          return Token.fromSource(kind, this.source, tokenBegin);
+        }
+      }
+    }
+  }
+
+}
@@ -1,66 +1,218 @@
 package i2.act.examples.minic.frontend.lexer;
 
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+// Stores the tokens in parallel arrays (instead of one 'Token' object with two 'SourcePosition'
+// objects and a string per token); the names of identifiers are interned in the name table of the
+// lexer and the strings of numbers are stored in a pool, i.e., each distinct string is only stored
+// once. 'Token' objects are only created when the parser requests them (and not when it only peeks
+// at the kind of the next token).
 public final class EagerTokenStream extends TokenStream {
 
-  public static final EagerTokenStream from(final Lexer lexer) {
-    final List<Token> tokens = new ArrayList<>();
+  private static final TokenKind[] tokenKinds = TokenKind.values();
+
+  // index into the string pool for tokens whose string is their fixed string representation
+  private static final int NO_STRING = -1;
+
+  public static final EagerTokenStream from(final BaseLexer lexer) {
+    final EagerTokenStream tokenStream = new EagerTokenStream(lexer.getNameTable());
 
     // construct token stream
     {
       Token nextToken;
       while ((nextToken = lexer.pop()).getKind() != TokenKind.TK_EOF) {
-        tokens.add(nextToken);
+        tokenStream.add(nextToken);
       }
     }
 
-    final SourcePosition endPosition = lexer.getPosition();
+    tokenStream.finish(lexer.getPosition());
 
-    return new EagerTokenStream(tokens, endPosition);
+    return tokenStream;
   }
 
   // ===============================================================================================
 
-  private final List<Token> tokens;
+  private byte[] kinds;
+  private int[] offsets;
+  private int[] lengths;
+  private int[] lines;
+  private int[] columns;
+
+  // the name id of identifiers and the index into the string pool for numbers
+  private int[] stringIndices;
+
+  private int numberOfTokens;
+
+  private final NameTable nameTable;
+
+  // the string pool of the numbers
+  private String[] strings;
+
+  // only used while the token stream is constructed
+  private Map<String, Integer> stringPool;
+
+  private SourcePosition endPosition;
+  private Token endToken;
+
   private int nextTokenIndex;
 
-  private final SourcePosition endPosition;
+  // the last token that has been created (such that peeking at a token and popping it afterwards
+  // only creates one 'Token' object)
+  private int cachedTokenIndex;
+  private Token cachedToken;
+
+  private EagerTokenStream(final NameTable nameTable) {
+    assert (tokenKinds.length <= Byte.MAX_VALUE);
+
+    this.nameTable = nameTable;
+
+    final int initialCapacity = 64;
+
+    this.kinds = new byte[initialCapacity];
+    this.offsets = new int[initialCapacity];
+    this.lengths = new int[initialCapacity];
+    this.lines = new int[initialCapacity];
+    this.columns = new int[initialCapacity];
+    this.stringIndices = new int[initialCapacity];
+
+    this.numberOfTokens = 0;
+
+    this.stringPool = new HashMap<>();
 
-  private EagerTokenStream(final List<Token> tokens, final SourcePosition endPosition) {
-    this.tokens = tokens;
     this.nextTokenIndex = 0;
+    this.cachedTokenIndex = -1;
+  }
+
+  private final void add(final Token token) {
+    if (this.numberOfTokens == this.kinds.length) {
+      final int capacity = 2 * this.numberOfTokens;
+
+      this.kinds = Arrays.copyOf(this.kinds, capacity);
+      this.offsets = Arrays.copyOf(this.offsets, capacity);
+      this.lengths = Arrays.copyOf(this.lengths, capacity);
+      this.lines = Arrays.copyOf(this.lines, capacity);
+      this.columns = Arrays.copyOf(this.columns, capacity);
+      this.stringIndices = Arrays.copyOf(this.stringIndices, capacity);
+    }
+
+    final TokenKind kind = token.getKind();
+    final SourcePosition begin = token.getBegin();
+    final SourcePosition end = token.getEnd();
+
+    // a token never spans several lines
+    assert (end.line == begin.line && end.column - begin.column == end.offset - begin.offset);
+
+    final int index = this.numberOfTokens++;
+
+    this.kinds[index] = (byte) kind.ordinal();
+    this.offsets[index] = begin.offset;
+    this.lengths[index] = end.offset - begin.offset;
+    this.lines[index] = begin.line;
+    this.columns[index] = begin.column;
+
+    if (kind == TokenKind.TK_IDENT) {
+      assert (token.getNameId() != NameTable.NO_NAME);
+      this.stringIndices[index] = token.getNameId();
+    } else if (kind == TokenKind.TK_NUM) {
+      final String string = token.getString();
+
+      Integer stringIndex = this.stringPool.get(string);
+
+      if (stringIndex == null) {
+        stringIndex = this.stringPool.size();
+        this.stringPool.put(string, stringIndex);
+      }
+
+      this.stringIndices[index] = stringIndex;
+    } else {
+      assert (token.getString().equals(kind.stringRepresentation));
+      this.stringIndices[index] = NO_STRING;
+    }
+  }
+
+  private final void finish(final SourcePosition endPosition) {
+    this.strings = new String[this.stringPool.size()];
+
+    for (final Map.Entry<String, Integer> entry : this.stringPool.entrySet()) {
+      this.strings[entry.getValue()] = entry.getKey();
+    }
+
+    this.stringPool = null;
 
     this.endPosition = endPosition;
+    this.endToken = new Token(TokenKind.TK_EOF, endPosition);
+  }
+
+  // resets the stream to its first token, i.e., the same tokens can be parsed again (e.g., with a
+  // different bug configuration)
+  public final void rewind() {
+    this.nextTokenIndex = 0;
   }
 
   private final boolean reachedEnd() {
-    return this.nextTokenIndex >= this.tokens.size();
+    return this.nextTokenIndex >= this.numberOfTokens;
+  }
+
+  private final Token getToken(final int index) {
+    if (index != this.cachedTokenIndex) {
+      this.cachedToken = createToken(index);
+      this.cachedTokenIndex = index;
+    }
+
+    return this.cachedToken;
+  }
+
+  private final Token createToken(final int index) {
+    final TokenKind kind = tokenKinds[this.kinds[index]];
+
+    final int offset = this.offsets[index];
+    final int length = this.lengths[index];
+    final int line = this.lines[index];
+    final int column = this.columns[index];
+
+    final SourcePosition begin = new SourcePosition(offset, line, column);
+    final SourcePosition end = new SourcePosition(offset + length, line, column + length);
+
+    final int stringIndex = this.stringIndices[index];
+
+    if (stringIndex == NO_STRING) {
+      return new Token(kind, begin, end);
+    } else if (kind == TokenKind.TK_IDENT) {
+      return new Token(kind, begin, end, this.nameTable.getName(stringIndex), stringIndex);
+    } else {
+      return new Token(kind, begin, end, this.strings[stringIndex]);
+    }
   }
 
   @Override
-  public final Token peek() {
+  public final TokenKind peekKind() {
     if (reachedEnd()) {
-      return new Token(TokenKind.TK_EOF, this.endPosition);
+      return TokenKind.TK_EOF;
     } else {
-      assert (this.nextTokenIndex < this.tokens.size());
+      return tokenKinds[this.kinds[this.nextTokenIndex]];
+    }
+  }
 
-      final Token nextToken = this.tokens.get(this.nextTokenIndex);
-      return nextToken;
+  @Override
+  public final Token peek() {
+    if (reachedEnd()) {
+      return this.endToken;
+    } else {
+      return getToken(this.nextTokenIndex);
     }
   }
 
   @Override
   public final Token pop() {
     if (reachedEnd()) {
-      return new Token(TokenKind.TK_EOF, this.endPosition);
+      return this.endToken;
     } else {
-      assert (this.nextTokenIndex < this.tokens.size());
-
-      final Token nextToken = this.tokens.get(this.nextTokenIndex);
+      final Token nextToken = getToken(this.nextTokenIndex);
       ++this.nextTokenIndex;
 
       return nextToken;
@@ -72,9 +224,13 @@ public final class EagerTokenStream extends TokenStream {
     if (reachedEnd()) {
       return this.endPosition;
     } else {
-      assert (this.nextTokenIndex < this.tokens.size());
-      return this.tokens.get(this.nextTokenIndex).getBegin();
+      return getToken(this.nextTokenIndex).getBegin();
     }
   }
 
+  @Override
+  public final NameTable getNameTable() {
+    return this.nameTable;
+  }
+
 }
@@ -1,29 +1,44 @@
 package i2.act.examples.minic.frontend.lexer;
 
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
 public final class LazyTokenStream extends TokenStream {
 
-  public static final LazyTokenStream from(final Lexer lexer) {
+  public static final LazyTokenStream from(final BaseLexer lexer) {
     return new LazyTokenStream(lexer);
   }
 
   // ===============================================================================================
 
-  private final Lexer lexer;
+  private final BaseLexer lexer;
 
-  private LazyTokenStream(final Lexer lexer) {
+  // the token that has been returned by the last call to 'peek()' ('null' if it has been popped),
+  // i.e., each token is only lexed once although the parser peeks at it several times
+  private Token lookahead;
+
+  private LazyTokenStream(final BaseLexer lexer) {
     this.lexer = lexer;
+    this.lookahead = null;
   }
 
   @Override
   public final Token peek() {
-    return this.lexer.peek();
+    if (this.lookahead == null) {
+      this.lookahead = this.lexer.peek();
+    }
+
+    return this.lookahead;
   }
 
   @Override
   public final Token pop() {
-    return this.lexer.pop();
+    final Token token = peek();
+
+    this.lexer.consume(token);
+    this.lookahead = null;
+
+    return token;
   }
 
   @Override
@@ -31,4 +46,9 @@ public final class LazyTokenStream extends TokenStream {
     return this.lexer.getPosition();
   }
 
+  @Override
+  public final NameTable getNameTable() {
+    return this.lexer.getNameTable();
+  }
+
 }
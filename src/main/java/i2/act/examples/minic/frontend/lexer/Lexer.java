@@ -1,16 +1,52 @@
 package i2.act.examples.minic.frontend.lexer;
 
 import i2.act.examples.minic.bugs.Bug;
-import i2.act.examples.minic.bugs.Bugs;
+import i2.act.examples.minic.bugs.BugConfiguration;
 import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
-import java.util.function.Function;
+public final class Lexer extends BaseLexer {
+
+  // perfect hash of the keywords (see 'getKeywordHash()'), i.e., a character sequence is a keyword
+  // iff it equals the keyword with the same hash
+  private static final int NUMBER_OF_KEYWORD_HASHES = 8;
+  private static final TokenKind[] keywordKinds = new TokenKind[NUMBER_OF_KEYWORD_HASHES];
+
+  static {
+    final TokenKind[] keywords = {
+      TokenKind.TK_VOID,
+      TokenKind.TK_INT,
+      TokenKind.TK_IF,
+      TokenKind.TK_ELSE,
+      TokenKind.TK_WHILE,
+      TokenKind.TK_RETURN
+    };
+
+    for (final TokenKind keyword : keywords) {
+      final char[] characters = keyword.stringRepresentation.toCharArray();
+      final int hash = getKeywordHash(characters, 0, characters.length);
+
+      assert (keywordKinds[hash] == null) : "keyword hash is not perfect";
+      keywordKinds[hash] = keyword;
+    }
+  }
 
-public final class Lexer {
+  // ===============================================================================================
 
   private final char[] characters;
 
+  private final NameTable nameTable;
+
+  // injected bugs (resolved once per lexer)
+  private final boolean missingTokenElse;
+  private final boolean missingTokenWhile;
+  private final boolean wrongTokenIf;
+  private final boolean wrongTokenPlus;
+  private final boolean noEqualsToken;
+  private final boolean wrongRegexAnd;
+  private final boolean additionalSkip;
+
   private int position;
 
   private int line;
@@ -21,33 +57,57 @@ public final class Lexer {
   private int lookaheadColumn;
 
   public Lexer(final String string) {
-    this(string.toCharArray());
+    this(string, BugConfiguration.NONE);
+  }
+
+  public Lexer(final String string, final BugConfiguration bugs) {
+    this(string.toCharArray(), bugs);
   }
 
   public Lexer(final char[] characters) {
+    this(characters, BugConfiguration.NONE);
+  }
+
+  public Lexer(final char[] characters, final BugConfiguration bugs) {
     this.characters = characters;
+
+    this.nameTable = new NameTable();
+
+    this.missingTokenElse = bugs.isEnabled(Bug.MISSING_TOKEN_ELSE);
+    this.missingTokenWhile = bugs.isEnabled(Bug.MISSING_TOKEN_WHILE);
+    this.wrongTokenIf = bugs.isEnabled(Bug.WRONG_TOKEN_IF);
+    this.wrongTokenPlus = bugs.isEnabled(Bug.WRONG_TOKEN_PLUS);
+    this.noEqualsToken = bugs.isEnabled(Bug.NO_EQUALS_TOKEN);
+    this.wrongRegexAnd = bugs.isEnabled(Bug.WRONG_REGEX_AND);
+    this.additionalSkip = bugs.isEnabled(Bug.ADDITIONAL_SKIP);
+
     this.position = 0;
     this.line = 1;
     this.column = 1;
   }
 
+  @Override
   public final SourcePosition getPosition() {
     return new SourcePosition(this.position, this.line, this.column);
   }
 
+  @Override
+  public final NameTable getNameTable() {
+    return this.nameTable;
+  }
+
   public final void advanceTo(final SourcePosition position) {
     this.position = position.offset;
     this.line = position.line;
     this.column = position.column;
   }
 
-  public final Token pop() {
-    final Token token = peek();
+  @Override
+  public final void consume(final Token token) {
     advanceTo(token.getEnd());
-
-    return token;
   }
 
+  @Override
   public final Token peek() {
     this.lookaheadPosition = this.position;
     this.lookaheadLine = this.line;
@@ -143,7 +203,7 @@ public final class Lexer {
         case '=': {
           // check for injected bug
           {
-            if (Bugs.getInstance().isEnabled(Bug.NO_EQUALS_TOKEN)) {
+            if (this.noEqualsToken) {
               return new Token(TokenKind.TK_ASSIGN, begin);
             }
           }
@@ -175,7 +235,7 @@ public final class Lexer {
         case '&': {
           // check for injected bug
           {
-            if (Bugs.getInstance().isEnabled(Bug.WRONG_REGEX_AND)) {
+            if (this.wrongRegexAnd) {
               return new Token(
                   checkNextCharacter('|', TokenKind.TK_AND_OP, null),
                   begin);
@@ -204,7 +264,7 @@ public final class Lexer {
         case '+': {
           // check for injected bug
           {
-            if (Bugs.getInstance().isEnabled(Bug.WRONG_TOKEN_PLUS)) {
+            if (this.wrongTokenPlus) {
               return new Token(TokenKind.TK_MUL, begin);
             }
           }
@@ -230,9 +290,10 @@ public final class Lexer {
         case '7':
         case '8':
         case '9': {
-          final Function<Character, Boolean> matches = (c -> (c >= '0' && c <= '9'));
+          final int tokenBegin = this.lookaheadPosition;
+          final int tokenLength = parseCharacterSequence(true);
 
-          final String value = parseCharacterSequence(matches);
+          final String value = new String(this.characters, tokenBegin, tokenLength);
 
           final SourcePosition end =
               new SourcePosition(this.lookaheadPosition, this.lookaheadLine, this.lookaheadColumn);
@@ -240,68 +301,35 @@ public final class Lexer {
           return new Token(TokenKind.TK_NUM, begin, end, value);
         }
         default: {
-          final Function<Character, Boolean> matches;
-          {
-            if ((firstChar >= 'A' && firstChar <= 'Z')
-                || (firstChar >= 'a' && firstChar <= 'z')
-                || (firstChar == '_')) {
-              matches = (c -> (
-                  (c >= 'A' && c <= 'Z')
-                  || (c >= 'a' && c <= 'z')
-                  || (c == '_')
-                  || (c >= '0' && c <= '9')));
-            } else {
-              throw InvalidProgramException.lexicallyInvalid(getPosition(),
-                  String.format("invalid character '%c'", firstChar));
-            }
+          if (!isIdentifierStart(firstChar)) {
+            throw InvalidProgramException.lexicallyInvalid(getPosition(),
+                String.format("invalid character '%c'", firstChar));
           }
 
-          final String tokenText = parseCharacterSequence(matches);
+          final int tokenBegin = this.lookaheadPosition;
+          final int tokenLength = parseCharacterSequence(false);
+
+          final TokenKind keywordKind = getKeywordKind(tokenBegin, tokenLength);
 
           // check for injected bug
           {
-            if (Bugs.getInstance().isEnabled(Bug.MISSING_TOKEN_ELSE) && tokenText.equals("else")) {
+            if (this.missingTokenElse && keywordKind == TokenKind.TK_ELSE) {
               continue skip;
             }
 
-            if (Bugs.getInstance().isEnabled(Bug.MISSING_TOKEN_WHILE)
-                && tokenText.equals("while")) {
+            if (this.missingTokenWhile && keywordKind == TokenKind.TK_WHILE) {
               continue skip;
             }
 
-            if (Bugs.getInstance().isEnabled(Bug.WRONG_TOKEN_IF) && tokenText.equals("if")) {
-              final SourcePosition end = new SourcePosition(
-                  this.lookaheadPosition, this.lookaheadLine, this.lookaheadColumn);
-
-              return new Token(TokenKind.TK_IDENT, begin, end, tokenText);
+            if (this.wrongTokenIf && keywordKind == TokenKind.TK_IF) {
+              return createIdentifier(begin, tokenBegin, tokenLength);
             }
           }
 
-          switch (tokenText) {
-            case "void": {
-              return new Token(TokenKind.TK_VOID, begin);
-            }
-            case "int": {
-              return new Token(TokenKind.TK_INT, begin);
-            }
-            case "if": {
-              return new Token(TokenKind.TK_IF, begin);
-            }
-            case "else": {
-              return new Token(TokenKind.TK_ELSE, begin);
-            }
-            case "while": {
-              return new Token(TokenKind.TK_WHILE, begin);
-            }
-            case "return": {
-              return new Token(TokenKind.TK_RETURN, begin);
-            }
-            default: {
-              final SourcePosition end = new SourcePosition(
-                  this.lookaheadPosition, this.lookaheadLine, this.lookaheadColumn);
-
-              return new Token(TokenKind.TK_IDENT, begin, end, tokenText);
-            }
+          if (keywordKind == null) {
+            return createIdentifier(begin, tokenBegin, tokenLength);
+          } else {
+            return new Token(keywordKind, begin);
           }
         }
       }
@@ -328,19 +356,71 @@ public final class Lexer {
     }
   }
 
+  private final Token createIdentifier(final SourcePosition begin, final int tokenBegin,
+      final int tokenLength) {
+    final SourcePosition end =
+        new SourcePosition(this.lookaheadPosition, this.lookaheadLine, this.lookaheadColumn);
+
+    final int nameId = this.nameTable.intern(this.characters, tokenBegin, tokenLength);
+
+    return new Token(TokenKind.TK_IDENT, begin, end, this.nameTable.getName(nameId), nameId);
+  }
+
+  // returns 'null' if the character sequence is not a keyword
+  private final TokenKind getKeywordKind(final int offset, final int length) {
+    if (length < 2) {
+      return null;
+    }
+
+    final TokenKind keywordKind = keywordKinds[getKeywordHash(this.characters, offset, length)];
+
+    if (keywordKind == null) {
+      return null;
+    }
+
+    final String keyword = keywordKind.stringRepresentation;
+
+    if (keyword.length() != length) {
+      return null;
+    }
+
+    for (int index = 0; index < length; ++index) {
+      if (keyword.charAt(index) != this.characters[offset + index]) {
+        return null;
+      }
+    }
+
+    return keywordKind;
+  }
+
+  // '(length + 2 * second character) % 8' is different for each keyword (the sequence has to
+  // consist of at least two characters)
+  private static final int getKeywordHash(final char[] characters, final int offset,
+      final int length) {
+    return (length + 2 * characters[offset + 1]) & (NUMBER_OF_KEYWORD_HASHES - 1);
+  }
+
   private static final boolean isWhitespaceCharacter(final char c) {
     return c == ' ' || c == '\n' || c == '\r' || c == '\t';
   }
 
-  private final String parseCharacterSequence(final Function<Character, Boolean> matches) {
-    final StringBuilder builder = new StringBuilder();
+  private static final boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static final boolean isIdentifierStart(final char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c == '_');
+  }
+
+  // consumes the digits (or the identifier characters) at the lookahead position and returns their
+  // number (which does not include the additionally skipped character in case of the injected bug)
+  private final int parseCharacterSequence(final boolean digitsOnly) {
+    final int begin = this.lookaheadPosition;
 
     while (this.lookaheadPosition < this.characters.length) {
       final char nextChar = this.characters[this.lookaheadPosition];
 
-      if (matches.apply(nextChar)) {
-        builder.append(nextChar);
-
+      if (isDigit(nextChar) || (!digitsOnly && isIdentifierStart(nextChar))) {
         ++this.lookaheadPosition;
         ++this.lookaheadColumn;
 
@@ -350,15 +430,17 @@ public final class Lexer {
       }
     }
 
+    final int length = this.lookaheadPosition - begin;
+
     // check for injected bug
     {
-      if (Bugs.getInstance().isEnabled(Bug.ADDITIONAL_SKIP)) {
+      if (this.additionalSkip) {
         ++this.lookaheadPosition;
         ++this.lookaheadColumn;
       }
     }
 
-    return builder.toString();
+    return length;
   }
 
   private final int count(final String string, final char character) {
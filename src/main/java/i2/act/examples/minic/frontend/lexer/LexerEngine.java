@@ -0,0 +1,50 @@
+package i2.act.examples.minic.frontend.lexer;
+
+import i2.act.examples.minic.bugs.BugConfiguration;
+
+public enum LexerEngine {
+
+  // hand-written lexer that directly operates on the characters (see 'Lexer')
+  CLASSIC("classic"),
+
+  // table-driven lexer based on character classes and a finite automaton (see 'DfaLexer')
+  DFA("dfa");
+
+  // ===============================================================================================
+
+  private final String name;
+
+  private LexerEngine(final String name) {
+    this.name = name;
+  }
+
+  public final String getName() {
+    return this.name;
+  }
+
+  public final BaseLexer createLexer(final String string, final BugConfiguration bugs) {
+    switch (this) {
+      case CLASSIC: {
+        return new Lexer(string, bugs);
+      }
+      case DFA: {
+        return new DfaLexer(string, bugs);
+      }
+      default: {
+        assert (false);
+        throw new RuntimeException("unknown lexer engine: " + this);
+      }
+    }
+  }
+
+  public static final LexerEngine fromName(final String name) {
+    for (final LexerEngine engine : LexerEngine.values()) {
+      if (name.equals(engine.name)) {
+        return engine;
+      }
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,73 @@
+package i2.act.examples.minic.frontend.lexer;
+
+import i2.act.examples.minic.frontend.info.SourcePosition;
+
+import java.util.Arrays;
+
+// The characters of an input program together with the offsets at which the lines begin, such that
+// line and column of an offset can be computed on demand. The line beginnings are recorded by the
+// lexer while it skips the line breaks (i.e., a line break that is not skipped by the lexer does
+// not begin a new line, which is in line with the position tracking of the classic lexer). If the
+// lexer reads its input from a reader, the characters are not stored (i.e., 'characters' is 'null')
+// and only the line beginnings are tracked.
+final class SourceText {
+
+  private final char[] characters;
+
+  // offsets of the beginnings of the second, third, ... line (in ascending order)
+  private int[] lineBeginnings;
+  private int numberOfLineBeginnings;
+
+  public SourceText(final char[] characters) {
+    this.characters = characters;
+
+    this.lineBeginnings = new int[16];
+    this.numberOfLineBeginnings = 0;
+  }
+
+  public final char[] getCharacters() {
+    return this.characters;
+  }
+
+  public final String getText(final int offset, final int length) {
+    return new String(this.characters, offset, length);
+  }
+
+  // records the line break at the given offset (line breaks that have already been recorded are
+  // ignored, i.e., the lexer may skip the same line break several times)
+  public final void addLineBreak(final int offset) {
+    final int lineBeginning = offset + 1;
+
+    if (this.numberOfLineBeginnings > 0
+        && this.lineBeginnings[this.numberOfLineBeginnings - 1] >= lineBeginning) {
+      return;
+    }
+
+    if (this.numberOfLineBeginnings == this.lineBeginnings.length) {
+      this.lineBeginnings = Arrays.copyOf(this.lineBeginnings, 2 * this.numberOfLineBeginnings);
+    }
+
+    this.lineBeginnings[this.numberOfLineBeginnings++] = lineBeginning;
+  }
+
+  public final SourcePosition getPosition(final int offset) {
+    // binary search for the number of lines that begin at or before the offset
+    int low = 0;
+    int high = this.numberOfLineBeginnings;
+
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+
+      if (this.lineBeginnings[middle] <= offset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    final int lineBeginning = (low == 0) ? (0) : (this.lineBeginnings[low - 1]);
+
+    return new SourcePosition(offset, low + 1, offset - lineBeginning + 1);
+  }
+
+}
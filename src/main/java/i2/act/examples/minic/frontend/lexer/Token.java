@@ -1,15 +1,27 @@
 package i2.act.examples.minic.frontend.lexer;
 
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
 public final class Token {
 
   public final TokenKind kind;
 
-  public final SourcePosition begin;
-  public final SourcePosition end;
+  // the tokens of the DFA lexer only refer to the shared source text; their positions (and strings,
+  // unless the lexer reads its input from a reader) are computed on demand (and 'source' is 'null'
+  // for all other tokens)
+  private final SourceText source;
+  private final int offset;
+  private final int length;
+  private final int endOffset;
 
-  public final String string;
+  private SourcePosition begin;
+  private SourcePosition end;
+
+  private String string;
+
+  // the id of the name in the name table of the lexer (only for identifiers)
+  private final int nameId;
 
   public Token(final TokenKind kind, final SourcePosition begin) {
     this(kind, begin,
@@ -26,12 +38,56 @@ public final class Token {
 
   public Token(final TokenKind kind, final SourcePosition begin, final SourcePosition end,
       final String string) {
+    this(kind, begin, end, string, NameTable.NO_NAME);
+  }
+
+  public Token(final TokenKind kind, final SourcePosition begin, final SourcePosition end,
+      final String string, final int nameId) {
     this.kind = kind;
 
+    this.source = null;
+    this.offset = begin.offset;
+    this.length = string.length();
+    this.endOffset = end.offset;
+
     this.begin = begin;
     this.end = end;
 
     this.string = string;
+    this.nameId = nameId;
+  }
+
+  private Token(final TokenKind kind, final SourceText source, final int offset,
+      final int length, final int endOffset, final String string, final int nameId) {
+    this.kind = kind;
+
+    this.source = source;
+    this.offset = offset;
+    this.length = length;
+    this.endOffset = endOffset;
+
+    this.string = string;
+    this.nameId = nameId;
+  }
+
+  // a token with a fixed string representation (e.g., a keyword or an operator)
+  static final Token fromSource(final TokenKind kind, final SourceText source, final int offset) {
+    final int length = kind.stringRepresentation.length();
+    return new Token(kind, source, offset, length, offset + length, null, NameTable.NO_NAME);
+  }
+
+  // a token whose string is the text of the given length at the given offset (i.e., an identifier
+  // or a number); the token may end after its text (e.g., due to an injected bug)
+  static final Token fromSource(final TokenKind kind, final SourceText source, final int offset,
+      final int length, final int endOffset) {
+    return new Token(kind, source, offset, length, endOffset, null, NameTable.NO_NAME);
+  }
+
+  // a token with the given string (i.e., an interned identifier or a number whose text is no
+  // longer part of the source text)
+  static final Token fromSource(final TokenKind kind, final SourceText source, final int offset,
+      final String string, final int endOffset, final int nameId) {
+    return new Token(kind, source, offset, string.length(), endOffset, string, nameId);
   }
 
   public final TokenKind getKind() {
@@ -39,16 +95,45 @@ public final class Token {
   }
 
   public final SourcePosition getBegin() {
+    if (this.begin == null) {
+      this.begin = this.source.getPosition(this.offset);
+    }
+
     return this.begin;
   }
 
   public final SourcePosition getEnd() {
+    if (this.end == null) {
+      this.end = this.source.getPosition(this.endOffset);
+    }
+
     return this.end;
   }
 
+  final int getEndOffset() {
+    return this.endOffset;
+  }
+
+  // returns 'NameTable.NO_NAME' for all tokens but identifiers
+  public final int getNameId() {
+    return this.nameId;
+  }
+
+  public final String getString() {
+    if (this.string == null) {
+      if (this.kind == TokenKind.TK_IDENT || this.kind == TokenKind.TK_NUM) {
+        this.string = this.source.getText(this.offset, this.length);
+      } else {
+        this.string = this.kind.stringRepresentation;
+      }
+    }
+
+    return this.string;
+  }
+
   @Override
   public final String toString() {
-    return String.format("TK<%s:'%s', %s, %s>", this.kind, this.string, this.begin, this.end);
+    return String.format("TK<%s:'%s', %s, %s>", this.kind, getString(), getBegin(), getEnd());
   }
 
 }
@@ -1,19 +1,27 @@
 package i2.act.examples.minic.frontend.lexer;
 
 import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
 public abstract class TokenStream {
 
   public abstract Token peek();
 
+  // returns the kind of the next token (which may be cheaper than peeking at the token itself)
+  public TokenKind peekKind() {
+    return peek().getKind();
+  }
+
   public abstract Token pop();
 
   public abstract SourcePosition getPosition();
 
+  // returns the table in which the names of the identifiers are interned
+  public abstract NameTable getNameTable();
+
   public final void assertNotPeek(final TokenKind... kinds) {
-    final Token token = peek();
-    final TokenKind actualKind = token.getKind();
+    final TokenKind actualKind = peekKind();
 
     for (final TokenKind kind : kinds) {
       if (kind.equals(actualKind)) {
@@ -24,8 +32,7 @@ public abstract class TokenStream {
   }
 
   public final void assertPeek(final TokenKind... kinds) {
-    final Token token = peek();
-    final TokenKind actualKind = token.getKind();
+    final TokenKind actualKind = peekKind();
 
     for (final TokenKind kind : kinds) {
       if (kind.equals(actualKind)) {
@@ -35,14 +42,14 @@ public abstract class TokenStream {
 
     // next token does not match any of the expected tokens -> throw exception
     final String expected = constructExpected(kinds);
+    final Token token = peek();
 
     throw InvalidProgramException.syntacticallyInvalid(getPosition(),
-        String.format("expected %s, but found '%s'", expected, token.string));
+        String.format("expected %s, but found '%s'", expected, token.getString()));
   }
 
   public final boolean peekIs(final TokenKind... kinds) {
-    final Token token = peek();
-    final TokenKind actualKind = token.getKind();
+    final TokenKind actualKind = peekKind();
 
     for (final TokenKind kind : kinds) {
       if (kind.equals(actualKind)) {
@@ -54,8 +61,7 @@ public abstract class TokenStream {
   }
 
   public final boolean skip(final TokenKind kind) {
-    final Token token = peek();
-    final TokenKind actualKind = token.getKind();
+    final TokenKind actualKind = peekKind();
 
     if (kind.equals(actualKind)) {
       pop();
@@ -66,17 +72,14 @@ public abstract class TokenStream {
   }
 
   public final Token assertPop(final TokenKind kind) {
-    final Token token = peek();
-    final TokenKind actualKind = token.getKind();
+    final TokenKind actualKind = peekKind();
 
     if (!kind.equals(actualKind)) {
       throw InvalidProgramException.syntacticallyInvalid(getPosition(),
-          String.format("expected '%s', but found '%s'", kind, token.string));
+          String.format("expected '%s', but found '%s'", kind, peek().getString()));
     }
 
-    pop();
-
-    return token;
+    return pop();
   }
 
   protected final String constructExpected(final TokenKind... kinds) {
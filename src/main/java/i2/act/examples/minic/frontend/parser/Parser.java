@@ -1,26 +1,76 @@
 package i2.act.examples.minic.frontend.parser;
 
 import i2.act.examples.minic.bugs.Bug;
-import i2.act.examples.minic.bugs.Bugs;
+import i2.act.examples.minic.bugs.BugConfiguration;
 import i2.act.examples.minic.frontend.ast.*;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 import i2.act.examples.minic.frontend.lexer.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.Function;
 
 public final class Parser {
 
   public static final Program parse(final String input) {
-    return parse(LazyTokenStream.from(new Lexer(input)));
+    return parse(input, BugConfiguration.NONE);
+  }
+
+  public static final Program parse(final String input, final BugConfiguration bugs) {
+    return parse(LazyTokenStream.from(new Lexer(input, bugs)), bugs);
   }
 
   public static final Program parse(final TokenStream tokenStream) {
-    return parseProgram(tokenStream);
+    return parse(tokenStream, BugConfiguration.NONE);
+  }
+
+  public static final Program parse(final TokenStream tokenStream, final BugConfiguration bugs) {
+    final Parser parser = new Parser(bugs);
+    return parser.parseProgram(tokenStream);
   }
 
-  private static final Program parseProgram(final TokenStream tokenStream) {
+  // ===============================================================================================
+
+  // injected bugs (resolved once per parser)
+  private final boolean missingTreeElse;
+  private final boolean missingAlternativeNotEquals;
+  private final boolean missingAlternativeCallStatement;
+  private final boolean additionalSemicolonReturn;
+  private final boolean missingCommaArguments;
+  private final boolean swappedOperandsPlus;
+  private final boolean rightAssociativeAddExpression;
+
+  // stacks of the expression parser (an expression that is nested in another one, e.g., an argument
+  // of a function call, only uses the part of the stacks above the part of the outer expression)
+  private Expression[] operands;
+  private SourcePosition[] operandPositions;
+  private int numberOfOperands;
+
+  private BinaryExpression.Operator[] operators;
+  private SourcePosition[] parenthesisPositions;
+  private int numberOfOperators;
+
+  private Parser(final BugConfiguration bugs) {
+    this.missingTreeElse = bugs.isEnabled(Bug.MISSING_TREE_ELSE);
+    this.missingAlternativeNotEquals = bugs.isEnabled(Bug.MISSING_ALTERNATIVE_NOT_EQUALS);
+    this.missingAlternativeCallStatement = bugs.isEnabled(Bug.MISSING_ALTERNATIVE_CALL_STMT);
+    this.additionalSemicolonReturn = bugs.isEnabled(Bug.ADDITIONAL_SEMICOLON_RETURN);
+    this.missingCommaArguments = bugs.isEnabled(Bug.MISSING_COMMA_ARGUMENTS);
+    this.swappedOperandsPlus = bugs.isEnabled(Bug.SWAPPED_OPERANDS_PLUS);
+    this.rightAssociativeAddExpression = bugs.isEnabled(Bug.RIGHT_ASSOCIATIVE_ADD_EXPR);
+
+    final int initialCapacity = 16;
+
+    this.operands = new Expression[initialCapacity];
+    this.operandPositions = new SourcePosition[initialCapacity];
+    this.numberOfOperands = 0;
+
+    this.operators = new BinaryExpression.Operator[initialCapacity];
+    this.parenthesisPositions = new SourcePosition[initialCapacity];
+    this.numberOfOperators = 0;
+  }
+
+  private final Program parseProgram(final TokenStream tokenStream) {
     // program
     //   : ( global_declaration )* EOF
     //   ;
@@ -34,10 +84,10 @@ public final class Parser {
       declarations.add(globalDeclaration);
     }
 
-    return new Program(position, declarations);
+    return new Program(position, declarations, tokenStream.getNameTable());
   }
 
-  private static final Declaration parseGlobaleDeclaration(final TokenStream tokenStream) {
+  private final Declaration parseGlobaleDeclaration(final TokenStream tokenStream) {
     // global_declaration
     //   : type_name IDENTIFIER SEMICOLON
     //   | type_name IDENTIFIER function_declaration_part
@@ -61,7 +111,7 @@ public final class Parser {
     }
   }
 
-  private static final FunctionDeclaration parseFunctionDeclarationPart(
+  private final FunctionDeclaration parseFunctionDeclarationPart(
       final TokenStream tokenStream, final SourcePosition position, final TypeName typeName,
       final Identifier name) {
     // function_declaration_part
@@ -79,7 +129,7 @@ public final class Parser {
     return new FunctionDeclaration(position, typeName, name, parameters, body);
   }
 
-  private static final List<VariableDeclaration> parseParameterDeclarationList(
+  private final List<VariableDeclaration> parseParameterDeclarationList(
       final TokenStream tokenStream) {
     // parameter_declaration_list
     //   : ( parameter_declaration ( COMMA parameter_declaration )* )?
@@ -105,7 +155,7 @@ public final class Parser {
     return parameters;
   }
 
-  private static final VariableDeclaration parseParameterDeclaration(
+  private final VariableDeclaration parseParameterDeclaration(
       final TokenStream tokenStream) {
     // parameter_declaration
     //   : type_name IDENTIFIER
@@ -119,7 +169,7 @@ public final class Parser {
     return new VariableDeclaration(position, typeName, name);
   }
 
-  private static final VariableDeclaration parseVariableDeclaration(final TokenStream tokenStream) {
+  private final VariableDeclaration parseVariableDeclaration(final TokenStream tokenStream) {
     // variable_declaration
     //   : type_name IDENTIFIER SEMICOLON
     //   ;
@@ -134,7 +184,7 @@ public final class Parser {
     return new VariableDeclaration(position, typeName, name);
   }
 
-  private static final TypeName parseTypeName(final TokenStream tokenStream) {
+  private final TypeName parseTypeName(final TokenStream tokenStream) {
     // type_name
     //   : INT
     //   | VOID
@@ -148,7 +198,7 @@ public final class Parser {
     return new TypeName(position, typeName);
   }
 
-  private static final Identifier parseIdentifier(final TokenStream tokenStream) {
+  private final Identifier parseIdentifier(final TokenStream tokenStream) {
     final SourcePosition position = tokenStream.getPosition();
 
     final Token identifier = tokenStream.assertPop(TokenKind.TK_IDENT);
@@ -156,7 +206,7 @@ public final class Parser {
     return new Identifier(position, identifier);
   }
 
-  private static final Block parseBlock(final TokenStream tokenStream) {
+  private final Block parseBlock(final TokenStream tokenStream) {
     // block
     //   : LBRACE ( statement )* RBRACE
     //   ;
@@ -177,7 +227,7 @@ public final class Parser {
     return new Block(position, statements);
   }
 
-  private static final Statement parseStatement(final TokenStream tokenStream) {
+  private final Statement parseStatement(final TokenStream tokenStream) {
     // statement
     //   : IDENTIFIER ASSIGN expression SEMICOLON
     //   | IDENTIFIER function_call_part SEMICOLON
@@ -194,13 +244,7 @@ public final class Parser {
       final Identifier identifier = parseIdentifier(tokenStream);
 
       // check for injected bug
-      final boolean missingAlternativeCallStatement;
-      {
-        missingAlternativeCallStatement =
-            Bugs.getInstance().isEnabled(Bug.MISSING_ALTERNATIVE_CALL_STMT);
-      }
-
-      if (tokenStream.peekIs(TokenKind.TK_ASSIGN) || missingAlternativeCallStatement) {
+      if (tokenStream.peekIs(TokenKind.TK_ASSIGN) || this.missingAlternativeCallStatement) {
         tokenStream.assertPop(TokenKind.TK_ASSIGN);
 
         final Expression rightHandSide = parseExpression(tokenStream);
@@ -232,7 +276,7 @@ public final class Parser {
 
         // check for injected bug
         {
-          if (Bugs.getInstance().isEnabled(Bug.MISSING_TREE_ELSE)) {
+          if (this.missingTreeElse) {
             return new IfStatement(position, condition, thenBlock);
           }
         }
@@ -266,7 +310,7 @@ public final class Parser {
 
         // check for injected bug
         {
-          if (Bugs.getInstance().isEnabled(Bug.ADDITIONAL_SEMICOLON_RETURN)) {
+          if (this.additionalSemicolonReturn) {
             tokenStream.assertPop(TokenKind.TK_SEMICOLON);
           }
         }
@@ -282,180 +326,190 @@ public final class Parser {
     }
   }
 
-  private static final Expression parseExpression(final TokenStream tokenStream) {
+  private final Expression parseExpression(final TokenStream tokenStream) {
     // expression
     //   : or_expression
     //   ;
+    // or_expression
+    //   : and_expression ( OR_OP and_expression )*
+    //   ;
+    // and_expression
+    //   : compare_expression ( AND_OP compare_expression )*
+    //   ;
+    // compare_expression
+    //   : add_expression ( compare_operator add_expression )*
+    //   ;
+    // add_expression
+    //   : mul_expression ( add_operator mul_expression )*
+    //   ;
+    // mul_expression
+    //   : factor ( mul_operator factor )*
+    //   ;
+    // factor
+    //   : IDENTIFIER function_call_part
+    //   | IDENTIFIER
+    //   | NUM
+    //   | LPAREN expression RPAREN
+    //   ;
+    //
+    // NOTE: instead of one (recursive) method per precedence level, the expression is parsed by
+    // precedence climbing on explicit stacks of operands and operators (which are driven by the
+    // precedences of the operators), i.e., the nesting depth of an expression does not affect the
+    // depth of the call stack
 
-    return parseOrExpression(tokenStream);
-  }
+    final int operandsBase = this.numberOfOperands;
+    final int operatorsBase = this.numberOfOperators;
 
-  private static final Expression parseBinaryExpression(final TokenStream tokenStream,
-      final Function<TokenStream, Expression> operandParser, final TokenKind... operators) {
-    // <binary_expr>
-    //   : <operand> ( <OPERATOR> <operand> )*
-    //   ;
+    int openParentheses = 0;
 
-    final SourcePosition position = tokenStream.getPosition();
+    while (true) {
+      // factor
+      final SourcePosition position = tokenStream.getPosition();
 
-    Expression expression = operandParser.apply(tokenStream);
+      tokenStream.assertPeek(TokenKind.TK_IDENT, TokenKind.TK_NUM, TokenKind.TK_LPAREN);
 
-    while (tokenStream.peekIs(operators)) {
-      final BinaryExpression.Operator operator = tokenStream.pop().kind.operator;
-      assert (operator != null);
+      if (tokenStream.peekIs(TokenKind.TK_LPAREN)) {
+        tokenStream.assertPop(TokenKind.TK_LPAREN);
 
-      final Expression otherExpression = operandParser.apply(tokenStream);
+        pushOperator(null, position);
+        ++openParentheses;
 
-      // check for injected bug
-      if (Bugs.getInstance().isEnabled(Bug.SWAPPED_OPERANDS_PLUS)
-          && operator == BinaryExpression.Operator.ADD) {
-        expression = new BinaryExpression(position, operator, otherExpression, expression);
-      } else {
-        expression = new BinaryExpression(position, operator, expression, otherExpression);
+        continue;
       }
-    }
 
-    return expression;
-  }
+      pushOperand(parseOperand(tokenStream, position), position);
 
-  private static final Expression parseBinaryExpressionRightAssociative(
-      final TokenStream tokenStream, final Function<TokenStream, Expression> operandParser,
-      final TokenKind... operators) {
-    // <binary_expr>
-    //   : <operand> ( <OPERATOR> <operand> )*
-    //   ;
+      // binary operators and closing parentheses
+      while (true) {
+        final BinaryExpression.Operator operator = getBinaryOperator(tokenStream.peekKind());
 
-    final SourcePosition position = tokenStream.getPosition();
+        if (operator != null) {
+          reduce(operatorsBase, operator);
 
-    Expression expression = operandParser.apply(tokenStream);
+          tokenStream.pop();
+          pushOperator(operator, null);
 
-    if (tokenStream.peekIs(operators)) {
-      final BinaryExpression.Operator operator = tokenStream.pop().kind.operator;
-      assert (operator != null);
+          break;
+        }
 
-      final Expression otherExpression =
-          parseBinaryExpressionRightAssociative(tokenStream, operandParser, operators);
+        if (openParentheses == 0) {
+          reduce(operatorsBase, null);
 
-      // check for injected bug
-      if (Bugs.getInstance().isEnabled(Bug.SWAPPED_OPERANDS_PLUS)
-          && operator == BinaryExpression.Operator.ADD) {
-        expression = new BinaryExpression(position, operator, otherExpression, expression);
-      } else {
-        expression = new BinaryExpression(position, operator, expression, otherExpression);
-      }
-    }
+          assert (this.numberOfOperators == operatorsBase);
+          assert (this.numberOfOperands == operandsBase + 1);
 
-    return expression;
-  }
+          return this.operands[--this.numberOfOperands];
+        }
 
-  private static final Expression parseOrExpression(final TokenStream tokenStream) {
-    // or_expression
-    //   : and_expression ( OR_OP and_expression )*
-    //   ;
+        tokenStream.assertPop(TokenKind.TK_RPAREN);
 
-    return parseBinaryExpression(
-        tokenStream,
-        (_tokenStream) -> parseAndExpression(_tokenStream),
-        TokenKind.TK_OR_OP);
-  }
+        reduce(operatorsBase, null);
 
-  private static final Expression parseAndExpression(final TokenStream tokenStream) {
-    // and_expression
-    //   : compare_expression ( AND_OP compare_expression )*
-    //   ;
+        // the parenthesized expression begins at the opening parenthesis
+        assert (this.operators[this.numberOfOperators - 1] == null);
+        this.operandPositions[this.numberOfOperands - 1] =
+            this.parenthesisPositions[--this.numberOfOperators];
 
-    return parseBinaryExpression(
-        tokenStream,
-        (_tokenStream) -> parseCompareExpression(_tokenStream),
-        TokenKind.TK_AND_OP);
+        --openParentheses;
+      }
+    }
   }
 
-  private static final Expression parseCompareExpression(final TokenStream tokenStream) {
-    // compare_expression
-    //   : add_expression ( compare_operator add_expression )*
-    //   ;
-    // compare_operator
-    //   : EQUALS | LESS_THAN | GREATER_THAN | LESS_EQUALS | GREATER_EQUALS | NOT_EQUALS
-    //   ;
+  // returns 'null' if the token kind is not a binary operator
+  private final BinaryExpression.Operator getBinaryOperator(final TokenKind kind) {
+    final BinaryExpression.Operator operator = kind.operator;
 
     // check for injected bug
     {
-      if (Bugs.getInstance().isEnabled(Bug.MISSING_ALTERNATIVE_NOT_EQUALS)) {
-        return parseBinaryExpression(
-            tokenStream,
-            (_tokenStream) -> parseAddExpression(_tokenStream),
-            TokenKind.TK_EQUALS, TokenKind.TK_LESS_THAN, TokenKind.TK_GREATER_THAN,
-            TokenKind.TK_LESS_EQUALS, TokenKind.TK_GREATER_EQUALS);
+      if (this.missingAlternativeNotEquals && operator == BinaryExpression.Operator.NOT_EQUALS) {
+        return null;
       }
     }
 
-    return parseBinaryExpression(
-        tokenStream,
-        (_tokenStream) -> parseAddExpression(_tokenStream),
-        TokenKind.TK_EQUALS, TokenKind.TK_LESS_THAN, TokenKind.TK_GREATER_THAN,
-        TokenKind.TK_LESS_EQUALS, TokenKind.TK_GREATER_EQUALS, TokenKind.TK_NOT_EQUALS);
+    return operator;
   }
 
-  private static final Expression parseAddExpression(final TokenStream tokenStream) {
-    // add_expression
-    //   : mul_expression ( add_operator mul_expression )*
-    //   ;
-    // add_operator
-    //   : ADD | SUB
-    //   ;
+  // applies the operators on top of the operator stack (up to the topmost opening parenthesis) that
+  // bind at least as strong as the next operator ('null' if there is no next operator)
+  private final void reduce(final int operatorsBase,
+      final BinaryExpression.Operator nextOperator) {
+    while (this.numberOfOperators > operatorsBase) {
+      final BinaryExpression.Operator operator = this.operators[this.numberOfOperators - 1];
 
-    // check for injected bug
-    if (Bugs.getInstance().isEnabled(Bug.RIGHT_ASSOCIATIVE_ADD_EXPR)) {
-      return parseBinaryExpressionRightAssociative(
-          tokenStream,
-          (_tokenStream) -> parseMulExpression(_tokenStream),
-          TokenKind.TK_ADD, TokenKind.TK_SUB);
-    } else {
-      return parseBinaryExpression(
-          tokenStream,
-          (_tokenStream) -> parseMulExpression(_tokenStream),
-          TokenKind.TK_ADD, TokenKind.TK_SUB);
+      if (operator == null) {
+        // opening parenthesis
+        break;
+      }
+
+      if (nextOperator != null) {
+        if (operator.precedence < nextOperator.precedence) {
+          break;
+        }
+
+        // check for injected bug
+        {
+          if (this.rightAssociativeAddExpression
+              && nextOperator.precedence == BinaryExpression.Operator.ADD.precedence
+              && operator.precedence == nextOperator.precedence) {
+            break;
+          }
+        }
+      }
+
+      --this.numberOfOperators;
+
+      final Expression rightHandSide = this.operands[--this.numberOfOperands];
+
+      final int leftIndex = this.numberOfOperands - 1;
+      final Expression leftHandSide = this.operands[leftIndex];
+
+      // a binary expression begins where its left operand begins
+      final SourcePosition position = this.operandPositions[leftIndex];
+
+      // check for injected bug
+      if (this.swappedOperandsPlus && operator == BinaryExpression.Operator.ADD) {
+        this.operands[leftIndex] =
+            new BinaryExpression(position, operator, rightHandSide, leftHandSide);
+      } else {
+        this.operands[leftIndex] =
+            new BinaryExpression(position, operator, leftHandSide, rightHandSide);
+      }
     }
   }
 
-  private static final Expression parseMulExpression(final TokenStream tokenStream) {
-    // mul_expression
-    //   : factor ( mul_operator factor )*
-    //   ;
-    // mul_operator
-    //   : MUL | DIV
-    //   ;
+  private final void pushOperand(final Expression operand, final SourcePosition position) {
+    if (this.numberOfOperands == this.operands.length) {
+      this.operands = Arrays.copyOf(this.operands, 2 * this.numberOfOperands);
+      this.operandPositions = Arrays.copyOf(this.operandPositions, 2 * this.numberOfOperands);
+    }
 
-    return parseBinaryExpression(
-        tokenStream,
-        (_tokenStream) -> parseFactor(_tokenStream),
-        TokenKind.TK_MUL, TokenKind.TK_DIV);
+    this.operands[this.numberOfOperands] = operand;
+    this.operandPositions[this.numberOfOperands] = position;
+    ++this.numberOfOperands;
   }
 
-  private static final Expression parseFactor(final TokenStream tokenStream) {
-    // factor
-    //   : IDENTIFIER function_call_part
-    //   | IDENTIFIER
-    //   | NUM
-    //   | LPAREN expression RPAREN
-    //   ;
+  // an opening parenthesis is pushed as 'null' operator together with its position
+  private final void pushOperator(final BinaryExpression.Operator operator,
+      final SourcePosition parenthesisPosition) {
+    if (this.numberOfOperators == this.operators.length) {
+      this.operators = Arrays.copyOf(this.operators, 2 * this.numberOfOperators);
+      this.parenthesisPositions =
+          Arrays.copyOf(this.parenthesisPositions, 2 * this.numberOfOperators);
+    }
 
-    final SourcePosition position = tokenStream.getPosition();
+    this.operators[this.numberOfOperators] = operator;
+    this.parenthesisPositions[this.numberOfOperators] = parenthesisPosition;
+    ++this.numberOfOperators;
+  }
 
-    tokenStream.assertPeek(TokenKind.TK_IDENT, TokenKind.TK_NUM, TokenKind.TK_LPAREN);
+  private final Expression parseOperand(final TokenStream tokenStream,
+      final SourcePosition position) {
+    // IDENTIFIER function_call_part | IDENTIFIER | NUM (see 'factor')
 
     if (tokenStream.peekIs(TokenKind.TK_NUM)) {
       final Token token = tokenStream.assertPop(TokenKind.TK_NUM);
 
       return new Literal(position, token);
-    } else if (tokenStream.peekIs(TokenKind.TK_LPAREN)) {
-      tokenStream.assertPop(TokenKind.TK_LPAREN);
-
-      final Expression expression = parseExpression(tokenStream);
-
-      tokenStream.assertPop(TokenKind.TK_RPAREN);
-
-      return expression;
     } else {
       final Identifier name = parseIdentifier(tokenStream);
 
@@ -467,7 +521,7 @@ public final class Parser {
     }
   }
 
-  private static final FunctionCall parseFunctionCallPart(final TokenStream tokenStream,
+  private final FunctionCall parseFunctionCallPart(final TokenStream tokenStream,
       final SourcePosition position, final Identifier callee) {
     // function_call_part
     //   : LPAREN argument_list RPAREN
@@ -482,7 +536,7 @@ public final class Parser {
     return new FunctionCall(position, callee, arguments);
   }
 
-  private static final List<Expression> parseArgumentList(final TokenStream tokenStream) {
+  private final List<Expression> parseArgumentList(final TokenStream tokenStream) {
     // argument_list
     //   : ( expression ( COMMA expression )* )?
     //   ;
@@ -498,7 +552,7 @@ public final class Parser {
 
       while (tokenStream.peekIs(TokenKind.TK_COMMA)) {
         // check for injected bug
-        if (!Bugs.getInstance().isEnabled(Bug.MISSING_COMMA_ARGUMENTS)) {
+        if (!this.missingCommaArguments) {
           tokenStream.assertPop(TokenKind.TK_COMMA);
         }
 
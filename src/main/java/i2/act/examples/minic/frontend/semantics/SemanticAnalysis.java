@@ -1,7 +1,7 @@
 package i2.act.examples.minic.frontend.semantics;
 
 import i2.act.examples.minic.bugs.Bug;
-import i2.act.examples.minic.bugs.Bugs;
+import i2.act.examples.minic.bugs.BugConfiguration;
 import i2.act.examples.minic.errors.InvalidProgramException;
 import i2.act.examples.minic.frontend.ast.*;
 import i2.act.examples.minic.frontend.ast.visitors.BaseASTVisitor;
@@ -19,32 +19,55 @@ import java.util.List;
 public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
 
   public static final void analyze(final Program program) {
-    final SymbolTable symbolTable = new SymbolTable();
+    analyze(program, BugConfiguration.NONE);
+  }
+
+  public static final void analyze(final Program program, final BugConfiguration bugs) {
+    final SymbolTable symbolTable = new SymbolTable(program.getNameTable(), bugs);
     symbolTable.enterScope();
     symbolTable.declare(Symbol.PRINT, SourcePosition.UNKNOWN);
 
-    final SemanticAnalysis analysis = new SemanticAnalysis();
+    final SemanticAnalysis analysis = new SemanticAnalysis(bugs);
     analysis.visit(program, symbolTable);
   }
 
   // ===============================================================================================
 
-  private SemanticAnalysis() {
-    // intentionally left blank
+  // injected bugs (resolved once per analysis)
+  private final boolean missingSymbolCallee;
+  private final boolean missingTypeTypeName;
+  private final boolean missingCheckReturnVoid;
+  private final boolean missingCheckReturnNonVoid;
+
+  private SemanticAnalysis(final BugConfiguration bugs) {
+    this.missingSymbolCallee = bugs.isEnabled(Bug.MISSING_SYMBOL_CALLEE);
+    this.missingTypeTypeName = bugs.isEnabled(Bug.MISSING_TYPE_TYPE_NAME);
+    this.missingCheckReturnVoid = bugs.isEnabled(Bug.MISSING_CHECK_RETURN_VOID);
+    this.missingCheckReturnNonVoid = bugs.isEnabled(Bug.MISSING_CHECK_RETURN_NON_VOID);
   }
 
   private Type expectedReturnType;
 
+  // the function whose body is currently analyzed
+  private FunctionDeclaration currentFunction;
+
+  // number of frame slots that have been assigned in the global frame and the current function
+  private int numberOfGlobals;
+  private int frameSize;
+
   @Override
   public final Type visit(final Program program, final SymbolTable symbolTable) {
-    return super.visit(program, symbolTable);
+    final Type type = super.visit(program, symbolTable);
+    program.setNumberOfGlobals(this.numberOfGlobals);
+
+    return type;
   }
 
   @Override
   public final Type visit(final VariableDeclaration variableDeclaration,
       final SymbolTable symbolTable) {
     final Identifier identifier = variableDeclaration.getName();
-    final String variableName = identifier.getToken().string;
+    final String variableName = identifier.getToken().getString();
 
     final TypeName typeName = variableDeclaration.getTypeName();
     final Type type = typeName.accept(this, symbolTable);
@@ -55,12 +78,19 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
     }
 
     final boolean inGlobalScope = symbolTable.numberOfScopes() == 1;
-    final Symbol symbol =
-        new Symbol(variableName, type, inGlobalScope, variableDeclaration);
+    final Symbol symbol = new Symbol(
+        variableName, identifier.getNameId(), type, inGlobalScope, variableDeclaration);
 
     symbolTable.declare(symbol, variableDeclaration.getPosition());
     identifier.setSymbol(symbol);
 
+    // every variable gets its own slot in the global frame or in the function's frame
+    if (inGlobalScope) {
+      symbol.setFrameIndex(this.numberOfGlobals++);
+    } else {
+      symbol.setFrameIndex(this.frameSize++);
+    }
+
     return type;
   }
 
@@ -71,20 +101,24 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
     final Type returnType = returnTypeName.accept(this, symbolTable);
 
     final Identifier identifier = functionDeclaration.getName();
-    final String functionName = identifier.getToken().string;
+    final String functionName = identifier.getToken().getString();
 
     final List<Type> parameterTypes = new ArrayList<>();
     final FunctionType functionType = new FunctionType(returnType, parameterTypes);
 
     final boolean inGlobalScope = symbolTable.numberOfScopes() == 1;
     final Symbol symbol =
-        new Symbol(functionName, functionType, inGlobalScope, functionDeclaration);
+        new Symbol(functionName, identifier.getNameId(), functionType, inGlobalScope,
+            functionDeclaration);
 
     symbolTable.declare(symbol, functionDeclaration.getPosition());
     identifier.setSymbol(symbol);
 
     symbolTable.enterScope();
 
+    final int oldFrameSize = this.frameSize;
+    this.frameSize = 0;
+
     final List<VariableDeclaration> paramters = functionDeclaration.getParameters();
 
     for (final VariableDeclaration parameter : paramters) {
@@ -95,10 +129,17 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
     final Type oldExpectedReturnType = this.expectedReturnType;
     this.expectedReturnType = returnType;
 
+    final FunctionDeclaration oldCurrentFunction = this.currentFunction;
+    this.currentFunction = functionDeclaration;
+
     final Block body = functionDeclaration.getBody();
     body.accept(this, symbolTable);
 
     this.expectedReturnType = oldExpectedReturnType;
+    this.currentFunction = oldCurrentFunction;
+
+    functionDeclaration.setFrameSize(this.frameSize);
+    this.frameSize = oldFrameSize;
 
     symbolTable.leaveScope();
 
@@ -140,7 +181,7 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
     }
 
     // check for injected bug
-    if (!Bugs.getInstance().isEnabled(Bug.MISSING_TYPE_TYPE_NAME)) {
+    if (!this.missingTypeTypeName) {
       typeName.setType(returnType);
     }
 
@@ -213,7 +254,7 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
 
     if (returnStatement.hasReturnValue()) {
       // check for injected bug
-      if (Bugs.getInstance().isEnabled(Bug.MISSING_CHECK_RETURN_VOID)
+      if (this.missingCheckReturnVoid
           && this.expectedReturnType == AtomicType.VOID) {
         final Expression returnValue = returnStatement.getReturnValue();
         return returnValue.accept(this, symbolTable);
@@ -231,12 +272,21 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
               String.format("%s cannot be assigned to %s", returnType, this.expectedReturnType));
         }
 
+        // a self-recursive tail call may reuse the frame of the caller (see 'Interpreter')
+        if (returnValue instanceof FunctionCall) {
+          final Symbol calleeSymbol = ((FunctionCall) returnValue).getCallee().getSymbol();
+
+          if (calleeSymbol != null && calleeSymbol == this.currentFunction.getSymbol()) {
+            returnStatement.setSelfTailCall(true);
+          }
+        }
+
         return returnType;
       }
     } else {
       if (this.expectedReturnType != AtomicType.VOID) {
         // check for injected bug
-        if (!Bugs.getInstance().isEnabled(Bug.MISSING_CHECK_RETURN_NON_VOID)) {
+        if (!this.missingCheckReturnNonVoid) {
           throw InvalidProgramException.semanticallyInvalid(returnStatement.getPosition(),
               String.format("has to return a value of type %s", this.expectedReturnType));
         }
@@ -255,8 +305,7 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
 
   @Override
   public final Type visit(final Identifier identifier, final SymbolTable symbolTable) {
-    final String name = identifier.getToken().string;
-    final Symbol symbol = symbolTable.get(name, identifier.getPosition());
+    final Symbol symbol = symbolTable.get(identifier.getNameId(), identifier.getPosition());
 
     identifier.setSymbol(symbol);
 
@@ -265,14 +314,13 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
 
   @Override
   public final Type visit(final Literal literal, final SymbolTable symbolTable) {
-    final String value = literal.getToken().string;
-
-    try {
-      final int intValue = Integer.parseInt(value);
-      return AtomicType.INT;
-    } catch (final Exception exception) {
-      throw new RuntimeException(String.format("unknown literal type: '%s'", value));
+    // NOTE: literals are never negative
+    if (!literal.hasValue() || literal.getValue() > Integer.MAX_VALUE) {
+      throw InvalidProgramException.semanticallyInvalid(literal.getPosition(),
+          String.format("integer literal '%s' out of range", literal.getToken().getString()));
     }
+
+    return AtomicType.INT;
   }
 
   @Override
@@ -305,7 +353,7 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
 
     // check for injected bug
     {
-      if (Bugs.getInstance().isEnabled(Bug.MISSING_SYMBOL_CALLEE)) {
+      if (this.missingSymbolCallee) {
         callee.setSymbol(null);
       }
     }
@@ -313,7 +361,7 @@ public final class SemanticAnalysis extends BaseASTVisitor<SymbolTable, Type> {
     if (!(calleeType instanceof FunctionType)) {
       throw InvalidProgramException.semanticallyInvalid(functionCall.getPosition(),
           String.format("%s of type %s is not a function",
-              callee.getToken().string, calleeType));
+              callee.getToken().getString(), calleeType));
     }
 
     final FunctionType functionType = (FunctionType) calleeType;
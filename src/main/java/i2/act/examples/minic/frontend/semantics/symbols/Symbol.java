@@ -1,6 +1,7 @@
 package i2.act.examples.minic.frontend.semantics.symbols;
 
 import i2.act.examples.minic.frontend.ast.Declaration;
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.semantics.types.AtomicType;
 import i2.act.examples.minic.frontend.semantics.types.FunctionType;
 import i2.act.examples.minic.frontend.semantics.types.Type;
@@ -18,28 +19,40 @@ public final class Symbol {
 
     final FunctionType printType = new FunctionType(AtomicType.VOID, printParameterTypes);
 
-    PRINT = new Symbol("print", printType, true, null);
+    PRINT = new Symbol(NameTable.PRINT_NAME, NameTable.PRINT, printType, true, null);
   }
 
+  public static final int NO_FRAME_INDEX = -1;
+
   // ===============================================================================================
 
   private final String name;
+  private final int nameId;
   private final Type type;
   private final boolean global;
   private final Declaration declaration;
 
-  public Symbol(final String name, final Type type, final boolean global,
+  // index of the variable in the frame of its function (or in the global frame for globals)
+  private int frameIndex;
+
+  public Symbol(final String name, final int nameId, final Type type, final boolean global,
       final Declaration declaration) {
     this.name = name;
+    this.nameId = nameId;
     this.type = type;
     this.global = global;
     this.declaration = declaration;
+    this.frameIndex = NO_FRAME_INDEX;
   }
 
   public final String getName() {
     return this.name;
   }
 
+  public final int getNameId() {
+    return this.nameId;
+  }
+
   public final Type getType() {
     return this.type;
   }
@@ -52,6 +65,14 @@ public final class Symbol {
     return this.declaration;
   }
 
+  public final void setFrameIndex(final int frameIndex) {
+    this.frameIndex = frameIndex;
+  }
+
+  public final int getFrameIndex() {
+    return this.frameIndex;
+  }
+
   @Override
   public final String toString() {
     return String.format("<%s:%s>", this.name, this.type);
@@ -1,109 +1,171 @@
 package i2.act.examples.minic.frontend.semantics.symbols;
 
 import i2.act.examples.minic.bugs.Bug;
-import i2.act.examples.minic.bugs.Bugs;
+import i2.act.examples.minic.bugs.BugConfiguration;
 import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.NameTable;
 import i2.act.examples.minic.frontend.info.SourcePosition;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.Arrays;
 
+// Maps the name ids of the name table to the visible declarations ("shallow binding"), i.e., a
+// look-up is an array access instead of a hash table look-up per scope. Each name refers to the
+// chain of its declarations in the current scopes (innermost first); when a scope is left, the
+// declarations of this scope are removed from their chains again.
 public final class SymbolTable {
 
   private static final boolean DEFAULT_CASE_SENSITIVE = true;
 
-  private final class Scope {
+  private static final class Binding {
 
-    public final Map<String, Symbol> symbols;
+    public final Symbol symbol;
 
-    public Scope() {
-      this.symbols = new HashMap<String, Symbol>();
-    }
+    // the number of the scope that contains the declaration
+    public final int scope;
 
-    private final String getMappedName(final String name) {
-      return (SymbolTable.this.caseSensitive) ? (name) : (name.toUpperCase());
-    }
+    // the declaration of the same name in an outer scope (or 'null' if there is none)
+    public final Binding outer;
 
-    public final boolean has(final String name) {
-      final String mappedName = getMappedName(name);
-      return this.symbols.containsKey(mappedName);
+    public Binding(final Symbol symbol, final int scope, final Binding outer) {
+      this.symbol = symbol;
+      this.scope = scope;
+      this.outer = outer;
     }
 
-    public final Symbol get(final String name) {
-      final String mappedName = getMappedName(name);
-      return this.symbols.get(mappedName);
-    }
+  }
 
-    public final void declare(final Symbol symbol) {
-      final String mappedName = getMappedName(symbol.getName());
-      this.symbols.put(mappedName, symbol);
-    }
+  private final NameTable nameTable;
+  private final boolean caseSensitive;
+
+  // innermost declaration of each (mapped) name id
+  private Binding[] bindings;
+
+  // the (mapped) name ids that have been declared in the current scopes (in declaration order) and
+  // the index into 'declaredNames' at which each scope begins
+  private int[] declaredNames;
+  private int numberOfDeclaredNames;
+  private int[] scopeBeginnings;
+  private int numberOfScopes;
 
+  // injected bug (resolved once per symbol table)
+  private final boolean wrongOrderSymbolTable;
+
+  public SymbolTable(final NameTable nameTable) {
+    this(nameTable, DEFAULT_CASE_SENSITIVE);
   }
 
-  private final boolean caseSensitive;
-  private final LinkedList<Scope> scopes;
+  public SymbolTable(final NameTable nameTable, final boolean caseSensitive) {
+    this(nameTable, caseSensitive, BugConfiguration.NONE);
+  }
 
-  public SymbolTable() {
-    this(DEFAULT_CASE_SENSITIVE);
+  public SymbolTable(final NameTable nameTable, final BugConfiguration bugs) {
+    this(nameTable, DEFAULT_CASE_SENSITIVE, bugs);
   }
 
-  public SymbolTable(final boolean caseSensitive) {
+  public SymbolTable(final NameTable nameTable, final boolean caseSensitive,
+      final BugConfiguration bugs) {
+    this.nameTable = nameTable;
     this.caseSensitive = caseSensitive;
-    this.scopes = new LinkedList<Scope>();
+
+    this.bindings = new Binding[Math.max(nameTable.numberOfNames(), 1)];
+
+    this.declaredNames = new int[16];
+    this.numberOfDeclaredNames = 0;
+    this.scopeBeginnings = new int[16];
+    this.numberOfScopes = 0;
+
+    this.wrongOrderSymbolTable = bugs.isEnabled(Bug.WRONG_ORDER_SYMBOL_TABLE);
   }
 
   public final void enterScope() {
-    this.scopes.add(new Scope());
+    if (this.numberOfScopes == this.scopeBeginnings.length) {
+      this.scopeBeginnings = Arrays.copyOf(this.scopeBeginnings, 2 * this.numberOfScopes);
+    }
+
+    this.scopeBeginnings[this.numberOfScopes++] = this.numberOfDeclaredNames;
   }
 
   public final void leaveScope() {
-    assert (!this.scopes.isEmpty());
-    this.scopes.removeLast();
+    assert (this.numberOfScopes > 0);
+
+    final int scopeBeginning = this.scopeBeginnings[--this.numberOfScopes];
+
+    while (this.numberOfDeclaredNames > scopeBeginning) {
+      final int nameId = this.declaredNames[--this.numberOfDeclaredNames];
+      this.bindings[nameId] = this.bindings[nameId].outer;
+    }
   }
 
   public final int numberOfScopes() {
-    return this.scopes.size();
+    return this.numberOfScopes;
   }
 
-  public final Symbol get(final String name, final SourcePosition position) {
-    final Iterator<Scope> iterator;
+  public final Symbol get(final int nameId, final SourcePosition position) {
+    assert (nameId != NameTable.NO_NAME);
+
+    final int mappedNameId = getMappedNameId(nameId);
+
+    Binding binding = getBinding(mappedNameId);
+
+    // check for injected bug
     {
-      // check for injected bug
-      if (Bugs.getInstance().isEnabled(Bug.WRONG_ORDER_SYMBOL_TABLE)) {
-        iterator = this.scopes.iterator();
-      } else {
-        iterator = this.scopes.descendingIterator();
+      if (this.wrongOrderSymbolTable) {
+        // the outermost declaration of the name
+        while (binding != null && binding.outer != null) {
+          binding = binding.outer;
+        }
       }
     }
 
-    while (iterator.hasNext()) {
-      final Scope scope = iterator.next();
-      final Symbol symbol = scope.get(name);
-
-      if (symbol != null) {
-        return symbol;
-      }
+    if (binding == null) {
+      throw InvalidProgramException.semanticallyInvalid(position,
+          String.format("name '%s' not declared", this.nameTable.getName(nameId)));
     }
 
-    throw InvalidProgramException.semanticallyInvalid(position,
-        String.format("name '%s' not declared", name));
+    return binding.symbol;
+  }
+
+  public final Symbol get(final String name, final SourcePosition position) {
+    return get(this.nameTable.intern(name), position);
   }
 
   public final void declare(final Symbol symbol, final SourcePosition position) {
-    assert (!this.scopes.isEmpty());
-    final Scope scope = this.scopes.getLast();
+    assert (this.numberOfScopes > 0);
+    assert (this.nameTable.getName(symbol.getNameId()).equals(symbol.getName()));
 
-    final String name = symbol.getName();
+    final int mappedNameId = getMappedNameId(symbol.getNameId());
+    final Binding binding = getBinding(mappedNameId);
 
-    if (scope.has(name)) {
+    if (binding != null && binding.scope == this.numberOfScopes) {
       throw InvalidProgramException.semanticallyInvalid(position,
-          String.format("name '%s' already declared", name));
+          String.format("name '%s' already declared", symbol.getName()));
+    }
+
+    this.bindings[mappedNameId] = new Binding(symbol, this.numberOfScopes, binding);
+
+    if (this.numberOfDeclaredNames == this.declaredNames.length) {
+      this.declaredNames = Arrays.copyOf(this.declaredNames, 2 * this.numberOfDeclaredNames);
+    }
+
+    this.declaredNames[this.numberOfDeclaredNames++] = mappedNameId;
+  }
+
+  private final int getMappedNameId(final int nameId) {
+    if (this.caseSensitive) {
+      return nameId;
+    } else {
+      return this.nameTable.intern(this.nameTable.getName(nameId).toUpperCase());
+    }
+  }
+
+  // the name table may grow after the symbol table has been created (e.g., due to the mapped names)
+  private final Binding getBinding(final int nameId) {
+    if (nameId >= this.bindings.length) {
+      this.bindings = Arrays.copyOf(this.bindings,
+          Math.max(2 * this.bindings.length, this.nameTable.numberOfNames()));
     }
 
-    scope.declare(symbol);
+    return this.bindings[nameId];
   }
 
 }
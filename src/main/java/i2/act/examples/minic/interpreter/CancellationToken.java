@@ -0,0 +1,18 @@
+package i2.act.examples.minic.interpreter;
+
+// Allows to cancel a running execution from another thread; the execution is aborted as
+// non-terminating the next time that it checks its budget (see 'ExecutionBudget'). A token may be
+// shared by several executions and cannot be reset.
+public final class CancellationToken {
+
+  private volatile boolean cancelled;
+
+  public final void cancel() {
+    this.cancelled = true;
+  }
+
+  public final boolean isCancelled() {
+    return this.cancelled;
+  }
+
+}
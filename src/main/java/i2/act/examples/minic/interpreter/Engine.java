@@ -0,0 +1,36 @@
+package i2.act.examples.minic.interpreter;
+
+public enum Engine {
+
+  // tree-walking interpreter that directly operates on the (analyzed) AST
+  AST("ast"),
+
+  // register-based virtual machine that executes a compiled bytecode representation
+  VM("vm"),
+
+  // converts the (analyzed) AST once into specialized executable nodes that are then executed
+  CLOSURE("closure");
+
+  // ===============================================================================================
+
+  private final String name;
+
+  private Engine(final String name) {
+    this.name = name;
+  }
+
+  public final String getName() {
+    return this.name;
+  }
+
+  public static final Engine fromName(final String name) {
+    for (final Engine engine : Engine.values()) {
+      if (name.equals(engine.name)) {
+        return engine;
+      }
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,122 @@
+package i2.act.examples.minic.interpreter;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Enforces the wall-clock and CPU time limits of an execution (see 'ExecutionLimits') and its
+// cancellation token. The engines call 'step()' once per step of the program; the clocks and the
+// token are only queried every 'CHECK_INTERVAL' steps, i.e., the checks are amortized over many
+// steps (but a program cannot run for long without performing any steps).
+// NOTE: the CPU time is measured for the thread that has created the budget; hence, a budget must
+// only be used by a single thread
+public final class ExecutionBudget {
+
+  public static final String TIME_LIMIT_MESSAGE = "reached time limit";
+  public static final String CPU_TIME_LIMIT_MESSAGE = "reached CPU time limit";
+  public static final String CANCELLED_MESSAGE = "execution cancelled";
+
+  private static final int CHECK_INTERVAL = 1 << 12;
+
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+  // starts the budget of an execution, i.e., the time limits are relative to the time of the call;
+  // the token may be 'null'
+  public static final ExecutionBudget start(final ExecutionLimits limits,
+      final CancellationToken token) {
+    final long wallClockDeadline;
+    {
+      if (limits.getTimeoutMillis() == Interpreter.UNBOUNDED) {
+        wallClockDeadline = NO_DEADLINE;
+      } else {
+        wallClockDeadline = System.nanoTime() + limits.getTimeoutMillis() * 1000000L;
+      }
+    }
+
+    final ThreadMXBean threads;
+    final long cpuTimeDeadline;
+    {
+      final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+      if (limits.getCpuTimeoutMillis() == Interpreter.UNBOUNDED
+          || !threadBean.isCurrentThreadCpuTimeSupported()) {
+        threads = null;
+        cpuTimeDeadline = NO_DEADLINE;
+      } else {
+        threads = threadBean;
+        cpuTimeDeadline =
+            threadBean.getCurrentThreadCpuTime() + limits.getCpuTimeoutMillis() * 1000000L;
+      }
+    }
+
+    return new ExecutionBudget(wallClockDeadline, threads, cpuTimeDeadline, token);
+  }
+
+  // returns 'true' if the given exception has been thrown by a budget, i.e., if the result of the
+  // execution depends on its timing and should not be cached
+  public static final boolean isExhaustedBy(final InvalidProgramException exception) {
+    if (exception.getKind() != InvalidProgramException.Kind.NON_TERMINATING) {
+      return false;
+    }
+
+    final String description = exception.getDescription();
+
+    return TIME_LIMIT_MESSAGE.equals(description)
+        || CPU_TIME_LIMIT_MESSAGE.equals(description)
+        || CANCELLED_MESSAGE.equals(description);
+  }
+
+  // ===============================================================================================
+
+  private final long wallClockDeadline;
+
+  // 'null' if the CPU time is not limited
+  private final ThreadMXBean threads;
+  private final long cpuTimeDeadline;
+
+  // 'null' if the execution cannot be cancelled
+  private final CancellationToken token;
+
+  // number of steps until the next check
+  private int countdown;
+
+  private ExecutionBudget(final long wallClockDeadline, final ThreadMXBean threads,
+      final long cpuTimeDeadline, final CancellationToken token) {
+    this.wallClockDeadline = wallClockDeadline;
+    this.threads = threads;
+    this.cpuTimeDeadline = cpuTimeDeadline;
+    this.token = token;
+
+    if (wallClockDeadline == NO_DEADLINE && threads == null && token == null) {
+      // nothing to check (the countdown is reset if it should ever expire)
+      this.countdown = Integer.MAX_VALUE;
+    } else {
+      this.countdown = CHECK_INTERVAL;
+    }
+  }
+
+  public final void step() {
+    if (--this.countdown == 0) {
+      check();
+    }
+  }
+
+  public final void check() {
+    this.countdown = CHECK_INTERVAL;
+
+    if (this.token != null && this.token.isCancelled()) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, CANCELLED_MESSAGE);
+    }
+
+    if (this.wallClockDeadline != NO_DEADLINE && System.nanoTime() - this.wallClockDeadline > 0) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, TIME_LIMIT_MESSAGE);
+    }
+
+    if (this.threads != null && this.threads.getCurrentThreadCpuTime() > this.cpuTimeDeadline) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, CPU_TIME_LIMIT_MESSAGE);
+    }
+  }
+
+}
@@ -0,0 +1,140 @@
+package i2.act.examples.minic.interpreter;
+
+// The limits of an execution; each limit is 'Interpreter.UNBOUNDED' unless it is set explicitly.
+// The limits also determine how memoized calls count towards them (see 'Memoization').
+// NOTE: execution limits are immutable (like bug configurations), i.e., they can safely be shared
+// between several threads
+public final class ExecutionLimits {
+
+  public static final ExecutionLimits NONE = new ExecutionLimits(Interpreter.UNBOUNDED,
+      Interpreter.UNBOUNDED, Interpreter.UNBOUNDED, Interpreter.UNBOUNDED, Interpreter.UNBOUNDED,
+      Interpreter.UNBOUNDED, Interpreter.UNBOUNDED, Memoization.NONE);
+
+  public static final ExecutionLimits of(final int maxNumberOfSteps,
+      final int maxNumberOfLoopIterations) {
+    return NONE
+        .withMaxNumberOfSteps(maxNumberOfSteps)
+        .withMaxNumberOfLoopIterations(maxNumberOfLoopIterations);
+  }
+
+  // ===============================================================================================
+
+  private final int maxNumberOfSteps;
+  private final int maxNumberOfLoopIterations;
+
+  // the maximum number of active function calls (including the call of 'main')
+  private final int maxCallDepth;
+
+  // the maximum wall-clock and CPU time of an execution in milliseconds (see 'ExecutionBudget')
+  private final long timeoutMillis;
+  private final long cpuTimeoutMillis;
+
+  // the maximum size of the output (in bytes, including line breaks) and number of printed values
+  // (see 'OutputSink')
+  private final long maxOutputBytes;
+  private final int maxOutputValues;
+
+  private final Memoization memoization;
+
+  private ExecutionLimits(final int maxNumberOfSteps, final int maxNumberOfLoopIterations,
+      final int maxCallDepth, final long timeoutMillis, final long cpuTimeoutMillis,
+      final long maxOutputBytes, final int maxOutputValues, final Memoization memoization) {
+    this.maxNumberOfSteps = maxNumberOfSteps;
+    this.maxNumberOfLoopIterations = maxNumberOfLoopIterations;
+    this.maxCallDepth = maxCallDepth;
+    this.timeoutMillis = timeoutMillis;
+    this.cpuTimeoutMillis = cpuTimeoutMillis;
+    this.maxOutputBytes = maxOutputBytes;
+    this.maxOutputValues = maxOutputValues;
+    this.memoization = memoization;
+  }
+
+  public final ExecutionLimits withMaxNumberOfSteps(final int maxNumberOfSteps) {
+    return new ExecutionLimits(maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        this.maxCallDepth, this.timeoutMillis, this.cpuTimeoutMillis, this.maxOutputBytes,
+        this.maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withMaxNumberOfLoopIterations(final int maxNumberOfLoopIterations) {
+    return new ExecutionLimits(this.maxNumberOfSteps, maxNumberOfLoopIterations,
+        this.maxCallDepth, this.timeoutMillis, this.cpuTimeoutMillis, this.maxOutputBytes,
+        this.maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withMaxCallDepth(final int maxCallDepth) {
+    return new ExecutionLimits(this.maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        maxCallDepth, this.timeoutMillis, this.cpuTimeoutMillis, this.maxOutputBytes,
+        this.maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withTimeoutMillis(final long timeoutMillis) {
+    return new ExecutionLimits(this.maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        this.maxCallDepth, timeoutMillis, this.cpuTimeoutMillis, this.maxOutputBytes,
+        this.maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withCpuTimeoutMillis(final long cpuTimeoutMillis) {
+    return new ExecutionLimits(this.maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        this.maxCallDepth, this.timeoutMillis, cpuTimeoutMillis, this.maxOutputBytes,
+        this.maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withMaxOutputBytes(final long maxOutputBytes) {
+    return new ExecutionLimits(this.maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        this.maxCallDepth, this.timeoutMillis, this.cpuTimeoutMillis, maxOutputBytes,
+        this.maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withMaxOutputValues(final int maxOutputValues) {
+    return new ExecutionLimits(this.maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        this.maxCallDepth, this.timeoutMillis, this.cpuTimeoutMillis, this.maxOutputBytes,
+        maxOutputValues, this.memoization);
+  }
+
+  public final ExecutionLimits withMemoization(final Memoization memoization) {
+    return new ExecutionLimits(this.maxNumberOfSteps, this.maxNumberOfLoopIterations,
+        this.maxCallDepth, this.timeoutMillis, this.cpuTimeoutMillis, this.maxOutputBytes,
+        this.maxOutputValues, memoization);
+  }
+
+  public final int getMaxNumberOfSteps() {
+    return this.maxNumberOfSteps;
+  }
+
+  public final int getMaxNumberOfLoopIterations() {
+    return this.maxNumberOfLoopIterations;
+  }
+
+  public final int getMaxCallDepth() {
+    return this.maxCallDepth;
+  }
+
+  public final long getTimeoutMillis() {
+    return this.timeoutMillis;
+  }
+
+  public final long getCpuTimeoutMillis() {
+    return this.cpuTimeoutMillis;
+  }
+
+  public final long getMaxOutputBytes() {
+    return this.maxOutputBytes;
+  }
+
+  public final int getMaxOutputValues() {
+    return this.maxOutputValues;
+  }
+
+  public final Memoization getMemoization() {
+    return this.memoization;
+  }
+
+  @Override
+  public final String toString() {
+    return String.format("%d;%d;%d;%d;%d;%d;%d;%s", this.maxNumberOfSteps,
+        this.maxNumberOfLoopIterations, this.maxCallDepth, this.timeoutMillis,
+        this.cpuTimeoutMillis, this.maxOutputBytes, this.maxOutputValues,
+        this.memoization.getName());
+  }
+
+}
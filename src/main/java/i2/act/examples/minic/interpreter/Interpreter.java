@@ -1,7 +1,7 @@
 package i2.act.examples.minic.interpreter;
 
 import i2.act.examples.minic.bugs.Bug;
-import i2.act.examples.minic.bugs.Bugs;
+import i2.act.examples.minic.bugs.BugConfiguration;
 import i2.act.examples.minic.errors.InvalidProgramException;
 import i2.act.examples.minic.frontend.ast.*;
 import i2.act.examples.minic.frontend.ast.visitors.ASTVisitor;
@@ -10,11 +10,17 @@ import i2.act.examples.minic.frontend.semantics.symbols.Symbol;
 import i2.act.examples.minic.frontend.semantics.types.AtomicType;
 import i2.act.examples.minic.frontend.semantics.types.FunctionType;
 import i2.act.examples.minic.frontend.semantics.types.Type;
+import i2.act.examples.minic.interpreter.closure.ClosureCompiler;
+import i2.act.examples.minic.interpreter.closure.ClosureInterpreter;
+import i2.act.examples.minic.interpreter.closure.ClosureProgram;
+import i2.act.examples.minic.interpreter.vm.BytecodeCompiler;
+import i2.act.examples.minic.interpreter.vm.CompiledProgram;
+import i2.act.examples.minic.interpreter.vm.VirtualMachine;
 import i2.act.util.Pair;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,19 +28,71 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   public static final int UNBOUNDED = -1;
 
+  // the description of the error if an engine runs out of stack space (i.e., the call depth at
+  // which this happens depends on the thread stack size of the JVM and on the JIT compiler)
+  public static final String STACK_OVERFLOW_MESSAGE =
+      "reached maximum call depth (out of stack space)";
+
   public static final Pair<Value, List<Value>> interpret(final Program program) {
     return interpret(program, UNBOUNDED, UNBOUNDED);
   }
 
   public static final Pair<Value, List<Value>> interpret(final Program program,
       final int maxNumberOfSteps, final int maxNumberOfLoopIterations) {
-    final State state = new State();
-    final Interpreter interpreter =
-        new Interpreter(false, maxNumberOfSteps, maxNumberOfLoopIterations);
+    return interpret(program, Engine.AST, maxNumberOfSteps, maxNumberOfLoopIterations);
+  }
 
-    final Value exitValue = interpreter.visit(program, state);
+  public static final Pair<Value, List<Value>> interpret(final Program program,
+      final Engine engine, final int maxNumberOfSteps, final int maxNumberOfLoopIterations) {
+    return interpret(
+        program, BugConfiguration.NONE, engine, maxNumberOfSteps, maxNumberOfLoopIterations);
+  }
 
-    return new Pair<Value, List<Value>>(exitValue, state.getOutput());
+  public static final Pair<Value, List<Value>> interpret(final Program program,
+      final BugConfiguration bugs, final Engine engine, final int maxNumberOfSteps,
+      final int maxNumberOfLoopIterations) {
+    return interpret(
+        program, bugs, engine, ExecutionLimits.of(maxNumberOfSteps, maxNumberOfLoopIterations));
+  }
+
+  public static final Pair<Value, List<Value>> interpret(final Program program,
+      final BugConfiguration bugs, final Engine engine, final ExecutionLimits limits) {
+    return interpret(program, bugs, engine, limits, null);
+  }
+
+  // the execution is aborted as non-terminating if the given token is cancelled (which may be
+  // 'null' if the execution cannot be cancelled) or if it exceeds its time limits
+  public static final Pair<Value, List<Value>> interpret(final Program program,
+      final BugConfiguration bugs, final Engine engine, final ExecutionLimits limits,
+      final CancellationToken token) {
+    return interpret(program, bugs, engine, limits, token, OutputSink.collecting(limits));
+  }
+
+  // the output of the program is passed to the given sink, i.e., the returned output is only
+  // complete for a collecting sink
+  public static final Pair<Value, List<Value>> interpret(final Program program,
+      final BugConfiguration bugs, final Engine engine, final ExecutionLimits limits,
+      final CancellationToken token, final OutputSink output) {
+    final ExecutionBudget budget = ExecutionBudget.start(limits, token);
+
+    if (engine == Engine.VM) {
+      final CompiledProgram compiledProgram = BytecodeCompiler.compile(program, bugs);
+      return VirtualMachine.execute(compiledProgram, false, limits, budget, output);
+    }
+
+    if (engine == Engine.CLOSURE) {
+      final ClosureProgram closureProgram = ClosureCompiler.compile(program, bugs);
+      return ClosureInterpreter.execute(closureProgram, false, limits, budget, output);
+    }
+
+    assert (engine == Engine.AST);
+
+    final State state = new State(program.getNumberOfGlobals(), output);
+    final Interpreter interpreter = new Interpreter(bugs, false, limits, budget);
+
+    final Value exitValue = interpreter.run(program, state);
+
+    return new Pair<Value, List<Value>>(exitValue, output.getOutput());
   }
 
   public static final void checkDynamicallyValid(final Program program) {
@@ -43,12 +101,54 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   public static final void checkDynamicallyValid(final Program program,
       final int maxNumberOfSteps, final int maxNumberOfLoopIterations) {
-    final State state = new State();
-    final Interpreter interpreter =
-        new Interpreter(true, maxNumberOfSteps, maxNumberOfLoopIterations);
+    checkDynamicallyValid(program, Engine.AST, maxNumberOfSteps, maxNumberOfLoopIterations);
+  }
+
+  public static final void checkDynamicallyValid(final Program program, final Engine engine,
+      final int maxNumberOfSteps, final int maxNumberOfLoopIterations) {
+    checkDynamicallyValid(
+        program, BugConfiguration.NONE, engine, maxNumberOfSteps, maxNumberOfLoopIterations);
+  }
+
+  public static final void checkDynamicallyValid(final Program program,
+      final BugConfiguration bugs, final Engine engine, final int maxNumberOfSteps,
+      final int maxNumberOfLoopIterations) {
+    checkDynamicallyValid(
+        program, bugs, engine, ExecutionLimits.of(maxNumberOfSteps, maxNumberOfLoopIterations));
+  }
 
-    final Value exitValue = interpreter.visit(program, state);
-    final List<Value> output = state.getOutput();
+  public static final void checkDynamicallyValid(final Program program,
+      final BugConfiguration bugs, final Engine engine, final ExecutionLimits limits) {
+    checkDynamicallyValid(program, bugs, engine, limits, null);
+  }
+
+  public static final void checkDynamicallyValid(final Program program,
+      final BugConfiguration bugs, final Engine engine, final ExecutionLimits limits,
+      final CancellationToken token) {
+    final ExecutionBudget budget = ExecutionBudget.start(limits, token);
+
+    // the output is not needed, but its limits still apply
+    final OutputSink output = OutputSink.discarding(limits);
+
+    final Value exitValue;
+    {
+      if (engine == Engine.VM) {
+        final CompiledProgram compiledProgram = BytecodeCompiler.compile(program, bugs);
+        exitValue =
+            VirtualMachine.execute(compiledProgram, true, limits, budget, output).getFirst();
+      } else if (engine == Engine.CLOSURE) {
+        final ClosureProgram closureProgram = ClosureCompiler.compile(program, bugs);
+        exitValue =
+            ClosureInterpreter.execute(closureProgram, true, limits, budget, output).getFirst();
+      } else {
+        assert (engine == Engine.AST);
+
+        final State state = new State(program.getNumberOfGlobals(), output);
+        final Interpreter interpreter = new Interpreter(bugs, true, limits, budget);
+
+        exitValue = interpreter.run(program, state);
+      }
+    }
 
     if (isUndefined(exitValue)) {
       throw InvalidProgramException.dynamicallyInvalid("undefined exit value");
@@ -150,21 +250,44 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   public static final class State {
 
+    private static final int INITIAL_NUMBER_OF_SLOTS = 1024;
+    private static final int INITIAL_CALL_DEPTH = 64;
+
     private final Map<Symbol, FunctionDeclaration> functions;
 
-    private final Map<Symbol, Value> globalVariables;
+    private final long[] globalValues;
+    private final boolean[] undefinedGlobals;
 
-    private final List<Map<Symbol, Value>> stack;
-    private final List<Type> returnTypes;
+    // frames of all active function calls, stored back to back
+    private long[] values;
+    private boolean[] undefined;
+    private int frameBase;
+    private int frameTop;
 
-    private final List<Value> output;
+    private int[] callerFrameBases;
+    private Type[] returnTypes;
+    private int callDepth;
 
-    public State() {
+    private final OutputSink output;
+
+    public State(final int numberOfGlobals) {
+      this(numberOfGlobals, OutputSink.collecting(ExecutionLimits.NONE));
+    }
+
+    public State(final int numberOfGlobals, final OutputSink output) {
       this.functions = new HashMap<Symbol, FunctionDeclaration>();
-      this.globalVariables = new HashMap<Symbol, Value>();
-      this.stack = new ArrayList<Map<Symbol, Value>>();
-      this.returnTypes = new ArrayList<Type>();
-      this.output = new ArrayList<Value>();
+      this.globalValues = new long[numberOfGlobals];
+      this.undefinedGlobals = new boolean[numberOfGlobals];
+      this.values = new long[INITIAL_NUMBER_OF_SLOTS];
+      this.undefined = new boolean[INITIAL_NUMBER_OF_SLOTS];
+      this.frameBase = 0;
+      this.frameTop = 0;
+      this.callerFrameBases = new int[INITIAL_CALL_DEPTH];
+      this.returnTypes = new Type[INITIAL_CALL_DEPTH];
+      this.callDepth = 0;
+      this.output = output;
+
+      Arrays.fill(this.undefinedGlobals, true);
     }
 
     public final void registerFunction(final FunctionDeclaration function) {
@@ -176,175 +299,345 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
       return this.functions.get(symbol);
     }
 
-    public final void defineVariable(final Symbol symbol, final Value value) {
+    public final void defineVariable(final Symbol symbol, final long value,
+        final boolean undefined) {
+      assert (symbol.getFrameIndex() != Symbol.NO_FRAME_INDEX);
+
       if (symbol.isGlobal()) {
-        this.globalVariables.put(symbol, value);
+        this.globalValues[symbol.getFrameIndex()] = value;
+        this.undefinedGlobals[symbol.getFrameIndex()] = undefined;
       } else {
-        assert (!this.stack.isEmpty());
-        this.stack.get(this.stack.size() - 1).put(symbol, value);
+        assert (this.callDepth > 0);
+        this.values[this.frameBase + symbol.getFrameIndex()] = value;
+        this.undefined[this.frameBase + symbol.getFrameIndex()] = undefined;
       }
     }
 
-    public final Value readVariable(final Symbol symbol) {
-      final Map<Symbol, Value> valueMap;
-      {
-        if (symbol.isGlobal()) {
-          valueMap = this.globalVariables;
-        } else {
-          assert (!this.stack.isEmpty());
-          valueMap = this.stack.get(this.stack.size() - 1);
-        }
+    public final long readVariable(final Symbol symbol) {
+      assert (symbol.getFrameIndex() != Symbol.NO_FRAME_INDEX);
+
+      if (symbol.isGlobal()) {
+        return this.globalValues[symbol.getFrameIndex()];
+      } else {
+        assert (this.callDepth > 0);
+        return this.values[this.frameBase + symbol.getFrameIndex()];
       }
+    }
+
+    public final boolean isUndefined(final Symbol symbol) {
+      assert (symbol.getFrameIndex() != Symbol.NO_FRAME_INDEX);
 
-      if (valueMap.containsKey(symbol)) {
-        return valueMap.get(symbol);
+      if (symbol.isGlobal()) {
+        return this.undefinedGlobals[symbol.getFrameIndex()];
       } else {
-        assert (symbol.getType() == AtomicType.INT) : "only INT variables supported";
-        return NumberValue.UNDEFINED;
+        assert (this.callDepth > 0);
+        return this.undefined[this.frameBase + symbol.getFrameIndex()];
+      }
+    }
+
+    public final int allocateFrame(final int frameSize) {
+      // the frame is allocated on top of all active frames but only becomes the current frame when
+      // the function is entered (i.e., after the arguments have been evaluated in the caller)
+      final int frame = this.frameTop;
+      final int newFrameTop = frame + frameSize;
+
+      if (newFrameTop > this.values.length) {
+        final int newLength = Math.max(2 * this.values.length, newFrameTop);
+        this.values = Arrays.copyOf(this.values, newLength);
+        this.undefined = Arrays.copyOf(this.undefined, newLength);
       }
+
+      // all variables of a new frame are undefined until they are assigned
+      Arrays.fill(this.undefined, frame, newFrameTop, true);
+      this.frameTop = newFrameTop;
+
+      return frame;
+    }
+
+    public final void defineArgument(final int frame, final Symbol parameter, final long value,
+        final boolean undefined) {
+      assert (parameter.getFrameIndex() != Symbol.NO_FRAME_INDEX);
+      assert (frame + parameter.getFrameIndex() < this.frameTop);
+
+      this.values[frame + parameter.getFrameIndex()] = value;
+      this.undefined[frame + parameter.getFrameIndex()] = undefined;
     }
 
-    public final void enterFunction(final Map<Symbol, Value> argumentValues,
-        final Type returnType) {
-      this.stack.add(argumentValues);
-      this.returnTypes.add(returnType);
+    public final long readArgument(final int frame, final Symbol parameter) {
+      assert (parameter.getFrameIndex() != Symbol.NO_FRAME_INDEX);
+      assert (frame + parameter.getFrameIndex() < this.frameTop);
+
+      return this.values[frame + parameter.getFrameIndex()];
+    }
+
+    public final boolean isUndefinedArgument(final int frame, final Symbol parameter) {
+      assert (parameter.getFrameIndex() != Symbol.NO_FRAME_INDEX);
+      assert (frame + parameter.getFrameIndex() < this.frameTop);
+
+      return this.undefined[frame + parameter.getFrameIndex()];
+    }
+
+    public final void releaseFrame(final int frame) {
+      // the frame has been allocated but the function has not been entered (i.e., the frame is the
+      // topmost one)
+      assert (frame >= this.frameBase && frame <= this.frameTop);
+      this.frameTop = frame;
+    }
+
+    public final void enterFunction(final int frame, final Type returnType) {
+      if (this.callDepth == this.returnTypes.length) {
+        final int newLength = 2 * this.callDepth;
+        this.callerFrameBases = Arrays.copyOf(this.callerFrameBases, newLength);
+        this.returnTypes = Arrays.copyOf(this.returnTypes, newLength);
+      }
+
+      this.callerFrameBases[this.callDepth] = this.frameBase;
+      this.returnTypes[this.callDepth] = returnType;
+      ++this.callDepth;
+
+      this.frameBase = frame;
+    }
+
+    public final void replaceFrame(final int frame) {
+      // the (fully initialized) frame of a self-recursive tail call replaces the current frame,
+      // i.e., the call depth does not increase
+      assert (this.callDepth > 0);
+      assert (frame >= this.frameBase && frame <= this.frameTop);
+
+      final int frameSize = this.frameTop - frame;
+
+      System.arraycopy(this.values, frame, this.values, this.frameBase, frameSize);
+      System.arraycopy(this.undefined, frame, this.undefined, this.frameBase, frameSize);
+
+      this.frameTop = this.frameBase + frameSize;
     }
 
     public final void leaveFunction() {
-      assert (!this.stack.isEmpty());
-      assert (!this.returnTypes.isEmpty());
+      assert (this.callDepth > 0);
+
+      --this.callDepth;
+
+      this.frameTop = this.frameBase;
+      this.frameBase = this.callerFrameBases[this.callDepth];
+      this.returnTypes[this.callDepth] = null;
+    }
 
-      this.stack.remove(this.stack.size() - 1);
-      this.returnTypes.remove(this.returnTypes.size() - 1);
+    public final int getCallDepth() {
+      return this.callDepth;
     }
 
     public final Type getReturnType() {
-      assert (!this.returnTypes.isEmpty());
-      return this.returnTypes.get(this.returnTypes.size() - 1);
+      assert (this.callDepth > 0);
+      return this.returnTypes[this.callDepth - 1];
     }
 
     public final void print(final Value value) {
-      this.output.add(value);
+      this.output.print(value);
     }
 
     public final List<Value> getOutput() {
-      return Collections.unmodifiableList(this.output);
+      return this.output.getOutput();
     }
 
   }
 
   // ===============================================================================================
 
-  private static final NumberValue toNumber(final Value value) {
-    if (value instanceof NumberValue) {
-      return (NumberValue) value;
-    }
+  // the maximum number of memoized call results per execution (the least recently used result is
+  // evicted first)
+  private static final int MEMOIZATION_CAPACITY = 1 << 16;
 
-    if (value instanceof BooleanValue) {
-      if (value == BooleanValue.UNDEFINED) {
-        return NumberValue.UNDEFINED;
-      }
+  private static final class MemoizedCall {
 
-      final boolean booleanValue = ((BooleanValue) value).value;
+    private final FunctionDeclaration function;
 
-      if (booleanValue) {
-        return new NumberValue(1);
-      } else {
-        return new NumberValue(0);
-      }
-    }
+    // the value of an undefined argument is always 0
+    private final long[] arguments;
+    private final boolean[] undefinedArguments;
 
-    assert (false) : String.format(
-        "cannot convert a '%s' to a 'NumberValue'", value.getClass().getSimpleName());
-    return null;
-  }
+    private final int hashCode;
 
-  private static final BooleanValue toBoolean(final Value value) {
-    if (value instanceof BooleanValue) {
-      return (BooleanValue) value;
+    private MemoizedCall(final FunctionDeclaration function, final long[] arguments,
+        final boolean[] undefinedArguments) {
+      this.function = function;
+      this.arguments = arguments;
+      this.undefinedArguments = undefinedArguments;
+      this.hashCode = 31 * (31 * System.identityHashCode(function) + Arrays.hashCode(arguments))
+          + Arrays.hashCode(undefinedArguments);
     }
 
-    if (value instanceof NumberValue) {
-      if (value == NumberValue.UNDEFINED) {
-        return BooleanValue.UNDEFINED;
+    @Override
+    public final int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      if (!(other instanceof MemoizedCall)) {
+        return false;
       }
 
-      final long numberValue = ((NumberValue) value).value;
+      final MemoizedCall otherCall = (MemoizedCall) other;
 
-      if (numberValue == 0) {
-        return new BooleanValue(false);
-      } else {
-        return new BooleanValue(true);
-      }
+      return this.function == otherCall.function
+          && Arrays.equals(this.arguments, otherCall.arguments)
+          && Arrays.equals(this.undefinedArguments, otherCall.undefinedArguments);
     }
 
-    assert (false) : String.format(
-        "cannot convert a '%s' to a 'BooleanValue'", value.getClass().getSimpleName());
-    return null;
   }
 
-  private static final boolean isTrue(final BooleanValue booleanValue) {
-    if (booleanValue == BooleanValue.UNDEFINED) {
-      return false;
+  private static final class MemoizedResult {
+
+    private final long value;
+    private final boolean undefined;
+    private final boolean hasReturnValue;
+
+    // the number of steps of the call and the number of nested calls that were active at most
+    private final long numberOfSteps;
+    private final int nestedCallDepth;
+
+    private MemoizedResult(final long value, final boolean undefined,
+        final boolean hasReturnValue, final long numberOfSteps, final int nestedCallDepth) {
+      this.value = value;
+      this.undefined = undefined;
+      this.hasReturnValue = hasReturnValue;
+      this.numberOfSteps = numberOfSteps;
+      this.nestedCallDepth = nestedCallDepth;
     }
 
-    return booleanValue.value;
   }
 
-  private static final boolean isFalse(final BooleanValue booleanValue) {
-    if (booleanValue == BooleanValue.UNDEFINED) {
-      return false;
-    }
+  // ===============================================================================================
 
-    return !booleanValue.value;
+  // returns 'true' if the given exception has been thrown because an engine has run out of stack
+  // space, i.e., if the result of the execution depends on the JVM and should not be cached
+  public static final boolean isStackOverflow(final InvalidProgramException exception) {
+    return exception.getKind() == InvalidProgramException.Kind.NON_TERMINATING
+        && STACK_OVERFLOW_MESSAGE.equals(exception.getDescription());
   }
 
-  private static final boolean isUndefined(final Value value) {
+  public static final boolean isUndefined(final Value value) {
     assert ((value instanceof NumberValue) || (value instanceof BooleanValue));
     return (value == NumberValue.UNDEFINED) || (value == BooleanValue.UNDEFINED);
   }
 
-  private static final Value getUndefined(final AtomicType type) {
-    if (type == AtomicType.INT) {
-      return NumberValue.UNDEFINED;
-    } else {
-      assert (type == AtomicType.BOOLEAN);
-      return BooleanValue.UNDEFINED;
-    }
+  private static final long fromBoolean(final boolean value) {
+    return (value) ? (1) : (0);
   }
 
-  private static final class Return extends RuntimeException {
+  // ===============================================================================================
 
-    public final Value returnValue;
+  private final int maxNumberOfSteps;
+  private final int maxNumberOfLoopIterations;
+  private final int maxCallDepth;
+  private final boolean abortOnUndefinedBehavior;
+  private final Memoization memoization;
+  private final ExecutionBudget budget;
+
+  // injected bugs (resolved once per interpreter)
+  private final boolean divByZero;
+  private final boolean noShortcutOr;
+  private final boolean noShortcutAnd;
+  private final boolean missingInitGlobals;
+  private final boolean wrongShiftMul;
+
+  // NOTE: the number of steps may exceed the range of 'int' if memoized calls are charged with the
+  // steps of the execution that computed their result
+  private long numberOfSteps;
+
+  // number of frames that have been replaced by self-recursive tail calls in all active function
+  // calls (they still count towards the maximum call depth)
+  private int numberOfReplacedFrames;
+
+  // NOTE: expressions do not return a 'Value' object but leave their (unboxed) result in the
+  // following fields; booleans are represented as 0 and 1, the value of an undefined result is
+  // meaningless
+  private long value;
+  private boolean undefined;
+
+  // 'false' if the most recent function call did not return a value (i.e., if it is a 'void' call)
+  private boolean hasReturnValue;
+
+  // set when a return statement has been executed; statements are skipped until the enclosing
+  // function call is completed (which is cheaper than unwinding the Java stack via an exception)
+  private boolean returning;
+
+  // set (in addition to 'returning') when a self-recursive tail call has replaced the current
+  // frame; the body of the function is then executed again
+  private boolean tailCalling;
+
+  // the deepest (logical) call depth that has been reached during the innermost active call whose
+  // result is memoized (i.e., the call depth that a memoized call has to charge)
+  private int deepestCallDepth;
+
+  // 'null' if the results of calls of pure functions are not memoized
+  private final Map<MemoizedCall, MemoizedResult> memoizedResults;
+
+  private Interpreter(final BugConfiguration bugs, final boolean abortOnUndefinedBehavior,
+      final ExecutionLimits limits, final ExecutionBudget budget) {
+    this.abortOnUndefinedBehavior = abortOnUndefinedBehavior;
+    this.budget = budget;
+    this.maxNumberOfSteps = limits.getMaxNumberOfSteps();
+    this.maxNumberOfLoopIterations = limits.getMaxNumberOfLoopIterations();
+    this.maxCallDepth = limits.getMaxCallDepth();
+    this.memoization = limits.getMemoization();
+
+    if (this.memoization == Memoization.NONE) {
+      this.memoizedResults = null;
+    } else {
+      this.memoizedResults = new LinkedHashMap<MemoizedCall, MemoizedResult>(16, 0.75f, true) {
 
-    public Return() {
-      this(null);
-    }
+        @Override
+        protected final boolean removeEldestEntry(
+            final Map.Entry<MemoizedCall, MemoizedResult> eldest) {
+          return size() > MEMOIZATION_CAPACITY;
+        }
 
-    public Return(final Value returnValue) {
-      this.returnValue = returnValue;
+      };
     }
 
+    this.divByZero = bugs.isEnabled(Bug.DIV_BY_ZERO);
+    this.noShortcutOr = bugs.isEnabled(Bug.NO_SHORTCUT_OR);
+    this.noShortcutAnd = bugs.isEnabled(Bug.NO_SHORTCUT_AND);
+    this.missingInitGlobals = bugs.isEnabled(Bug.MISSING_INIT_GLOBALS);
+    this.wrongShiftMul = bugs.isEnabled(Bug.WRONG_SHIFT_MUL);
   }
 
-  // ===============================================================================================
+  private final void checkNumberOfSteps(final long numberOfSteps, final int maxNumberOfSteps) {
+    if (maxNumberOfSteps != UNBOUNDED && numberOfSteps > maxNumberOfSteps) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, "reached timeout");
+    }
+  }
 
-  private final int maxNumberOfSteps;
-  private final int maxNumberOfLoopIterations;
-  private final boolean abortOnUndefinedBehavior;
+  private final void step() {
+    checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+    this.budget.step();
+  }
 
-  private int numberOfSteps;
+  private final void checkCallDepth(final int callDepth) {
+    if (this.maxCallDepth != UNBOUNDED && callDepth > this.maxCallDepth) {
+      throw InvalidProgramException.nonTerminating(
+          SourcePosition.UNKNOWN, "reached maximum call depth");
+    }
 
-  private Interpreter(final boolean abortOnUndefinedBehavior, final int maxNumberOfSteps,
-      final int maxNumberOfLoopIterations) {
-    this.abortOnUndefinedBehavior = abortOnUndefinedBehavior;
-    this.maxNumberOfSteps = maxNumberOfSteps;
-    this.maxNumberOfLoopIterations = maxNumberOfLoopIterations;
+    if (callDepth > this.deepestCallDepth) {
+      this.deepestCallDepth = callDepth;
+    }
   }
 
-  private final void checkNumberOfSteps(final int numberOfSteps, final int maxNumberOfSteps) {
-    if (maxNumberOfSteps != UNBOUNDED && numberOfSteps > maxNumberOfSteps) {
-      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, "reached timeout");
+  // NOTE: function calls of the interpreted program are function calls of the interpreter (i.e.,
+  // the call depth is bounded by the size of the Java stack, as for 'Engine.CLOSURE'); the virtual
+  // machine ('Engine.VM') keeps its call stack on the heap instead. Self-recursive tail calls (see
+  // 'ReturnStatement.isSelfTailCall()') reuse the frame of the caller and do not grow the stack.
+  private final Value run(final Program program, final State state) {
+    if (this.memoization != Memoization.NONE) {
+      PurityAnalysis.analyze(program);
+    }
+
+    try {
+      return visit(program, state);
+    } catch (final StackOverflowError error) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, STACK_OVERFLOW_MESSAGE);
     }
   }
 
@@ -352,6 +645,33 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
     return (value > 1) && ((value & (value - 1)) == 0);
   }
 
+  private final void setResult(final long value) {
+    this.value = value;
+    this.undefined = false;
+  }
+
+  private final void setUndefinedResult() {
+    this.value = 0;
+    this.undefined = true;
+  }
+
+  private final boolean isTrueResult() {
+    return !this.undefined && this.value != 0;
+  }
+
+  private final boolean isFalseResult() {
+    return !this.undefined && this.value == 0;
+  }
+
+  private final Value toValue() {
+    // boxes the current result (only used at the output and exit boundary)
+    if (this.undefined) {
+      return NumberValue.UNDEFINED;
+    } else {
+      return new NumberValue(this.value);
+    }
+  }
+
   @Override
   public final Value visit(final Program program, final State state) {
     this.numberOfSteps = 0;
@@ -381,8 +701,14 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
         returnType = ((FunctionType) mainFunction.getSymbol().getType()).getReturnType();
       }
 
-      state.enterFunction(new HashMap<Symbol, Value>(), returnType);
-      return visit(mainFunction, state);
+      state.enterFunction(state.allocateFrame(mainFunction.getFrameSize()), returnType);
+      visit(mainFunction, state);
+
+      if (!this.hasReturnValue) {
+        return null;
+      }
+
+      return toValue();
     }
 
     return new NumberValue(0);
@@ -393,15 +719,11 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
     final Symbol symbol = variableDeclaration.getSymbol();
 
     // check for injected bug
-    if (!Bugs.getInstance().isEnabled(Bug.MISSING_INIT_GLOBALS)) {
+    if (!this.missingInitGlobals) {
       if (symbol.isGlobal()) {
         // only global variables have a predefined value
         assert (variableDeclaration.getType() == AtomicType.INT) : "only INT variables supported";
-
-        final NumberValue initialValue = new NumberValue(0);
-        state.defineVariable(symbol, initialValue);
-
-        return initialValue;
+        state.defineVariable(symbol, 0, false);
       }
     }
 
@@ -410,29 +732,62 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   @Override
   public final Value visit(final FunctionDeclaration functionDeclaration, final State state) {
+    int numberOfTailCalls = 0;
+
     try {
       final Block body = functionDeclaration.getBody();
-      visit(body, state);
-    } catch (final Return reachedReturn) {
-      return reachedReturn.returnValue;
+
+      while (true) {
+        visit(body, state);
+
+        if (!this.tailCalling) {
+          break;
+        }
+
+        this.tailCalling = false;
+        this.returning = false;
+
+        ++numberOfTailCalls;
+        ++this.numberOfReplacedFrames;
+      }
     } finally {
       state.leaveFunction();
+      this.numberOfReplacedFrames -= numberOfTailCalls;
+    }
+
+    if (this.returning) {
+      // return value has already been set by the return statement
+      this.returning = false;
+
+      if (numberOfTailCalls > 0) {
+        // as for the return statement of a regular call, the result of the call is returned
+        this.hasReturnValue = true;
+      }
+
+      return null;
     }
 
     final Type returnType = functionDeclaration.getReturnType().getType();
 
     if (returnType == AtomicType.VOID) {
-      return null;
+      this.hasReturnValue = false;
     } else {
       assert (returnType == AtomicType.INT);
-      return NumberValue.UNDEFINED;
+      this.hasReturnValue = true;
+      setUndefinedResult();
     }
+
+    return null;
   }
 
   @Override
   public final Value visit(final Block block, final State state) {
     for (final Statement statement : block.getStatements()) {
       statement.accept(this, state);
+
+      if (this.returning) {
+        break;
+      }
     }
 
     return null;
@@ -446,20 +801,20 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   @Override
   public final Value visit(final AssignStatement assignStatement, final State state) {
-    checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+    step();
 
     final Expression rightHandSide = assignStatement.getRightHandSide();
-    final Value value = rightHandSide.accept(this, state);
+    rightHandSide.accept(this, state);
 
     final Symbol variable = assignStatement.getLeftHandSide().getSymbol();
-    state.defineVariable(variable, value);
+    state.defineVariable(variable, this.value, this.undefined);
 
-    return value;
+    return null;
   }
 
   @Override
   public final Value visit(final FunctionCallStatement functionCallStatement, final State state) {
-    checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+    step();
 
     final FunctionCall functionCall = functionCallStatement.getFunctionCall();
     return visit(functionCall, state);
@@ -467,17 +822,17 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   @Override
   public final Value visit(final IfStatement ifStatement, final State state) {
-    checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+    step();
 
     final Expression condition = ifStatement.getCondition();
-    final BooleanValue conditionValue = toBoolean(condition.accept(this, state));
+    condition.accept(this, state);
 
-    if (this.abortOnUndefinedBehavior && isUndefined(conditionValue)) {
+    if (this.abortOnUndefinedBehavior && this.undefined) {
       throw InvalidProgramException.dynamicallyInvalid(
           condition.getPosition(), "undefined control flow");
     }
 
-    if (isTrue(conditionValue)) {
+    if (isTrueResult()) {
       final Block thenBlock = ifStatement.getThenBlock();
       visit(thenBlock, state);
     } else {
@@ -495,21 +850,25 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
     int numberOfIterations = 0;
 
     while (true) {
-      checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+      step();
 
       final Expression condition = whileLoop.getCondition();
-      final BooleanValue conditionValue = toBoolean(condition.accept(this, state));
+      condition.accept(this, state);
 
-      if (this.abortOnUndefinedBehavior && isUndefined(conditionValue)) {
+      if (this.abortOnUndefinedBehavior && this.undefined) {
         throw InvalidProgramException.dynamicallyInvalid(
             condition.getPosition(), "undefined control flow");
       }
 
-      if (isTrue(conditionValue)) {
+      if (isTrueResult()) {
         checkNumberOfSteps(++numberOfIterations, this.maxNumberOfLoopIterations);
 
         final Block body = whileLoop.getBody();
         visit(body, state);
+
+        if (this.returning) {
+          break;
+        }
       } else {
         break;
       }
@@ -520,17 +879,41 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   @Override
   public final Value visit(final ReturnStatement returnStatement, final State state) {
-    checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+    step();
+
+    if (returnStatement.isSelfTailCall()) {
+      final FunctionCall functionCall = (FunctionCall) returnStatement.getReturnValue();
+
+      assert (functionCall.getCallee().getSymbol().getDeclaration() instanceof FunctionDeclaration);
+      final FunctionDeclaration callee =
+          (FunctionDeclaration) functionCall.getCallee().getSymbol().getDeclaration();
+
+      final int frame = evaluateArguments(callee, functionCall.getArguments(), state);
+
+      checkCallDepth(state.getCallDepth() + this.numberOfReplacedFrames + 1);
+
+      // the callee is executed by the enclosing function declaration (see above)
+      state.replaceFrame(frame);
+
+      this.tailCalling = true;
+      this.returning = true;
+
+      return null;
+    }
 
     if (returnStatement.hasReturnValue()) {
-      final Value returnValue = returnStatement.getReturnValue().accept(this, state);
+      returnStatement.getReturnValue().accept(this, state);
 
       assert (state.getReturnType() == AtomicType.INT);
-      throw new Return(toNumber(returnValue));
+      this.hasReturnValue = true;
     } else {
       assert (state.getReturnType() == AtomicType.VOID);
-      throw new Return();
+      this.hasReturnValue = false;
     }
+
+    this.returning = true;
+
+    return null;
   }
 
   @Override
@@ -541,129 +924,162 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
 
   @Override
   public final Value visit(final Identifier identifier, final State state) {
-    final Value value = state.readVariable(identifier.getSymbol());
-    return value;
+    final Symbol symbol = identifier.getSymbol();
+
+    this.value = state.readVariable(symbol);
+    this.undefined = state.isUndefined(symbol);
+
+    return null;
   }
 
   @Override
   public final Value visit(final Literal literal, final State state) {
-    final String value = literal.getToken().string;
-    return new NumberValue(Long.parseLong(value));
+    // the value has been parsed when the literal was created
+    setResult(literal.getValue());
+
+    return null;
   }
 
   @Override
   public final Value visit(final BinaryExpression binaryExpression, final State state) {
+    if (binaryExpression.isConstant()) {
+      // the result has been computed by the constant folding (see 'Optimizer')
+      this.value = binaryExpression.getConstantValue();
+      this.undefined = binaryExpression.isUndefinedConstant();
+
+      return null;
+    }
+
     final BinaryExpression.Operator operator = binaryExpression.getOperator();
     final Expression leftHandSide = binaryExpression.getLeftHandSide();
     final Expression rightHandSide = binaryExpression.getRightHandSide();
 
-    // check for injected bug
-    final boolean noShortcutOr = Bugs.getInstance().isEnabled(Bug.NO_SHORTCUT_OR);
-    final boolean noShortcutAnd = Bugs.getInstance().isEnabled(Bug.NO_SHORTCUT_AND);
-
     // OR and AND need special treatment due to shortcut evaluation
-    if (operator == BinaryExpression.Operator.OR && !noShortcutOr) {
-      final BooleanValue leftValue = toBoolean(leftHandSide.accept(this, state));
+    if (operator == BinaryExpression.Operator.OR && !this.noShortcutOr) {
+      leftHandSide.accept(this, state);
 
-      if (isUndefined(leftValue)) {
-        return BooleanValue.UNDEFINED;
+      if (this.undefined) {
+        setUndefinedResult();
+        return null;
       }
 
-      if (isTrue(leftValue)) {
-        return BooleanValue.TRUE;
+      if (isTrueResult()) {
+        setResult(1);
       } else {
-        final BooleanValue rightValue = toBoolean(rightHandSide.accept(this, state));
-        return rightValue;
+        rightHandSide.accept(this, state);
+
+        if (!this.undefined) {
+          setResult(fromBoolean(this.value != 0));
+        }
       }
-    } else if (operator == BinaryExpression.Operator.AND && !noShortcutAnd) {
-      final BooleanValue leftValue = toBoolean(leftHandSide.accept(this, state));
 
-      if (isUndefined(leftValue)) {
-        return BooleanValue.UNDEFINED;
+      return null;
+    } else if (operator == BinaryExpression.Operator.AND && !this.noShortcutAnd) {
+      leftHandSide.accept(this, state);
+
+      if (this.undefined) {
+        setUndefinedResult();
+        return null;
       }
 
-      if (isFalse(leftValue)) {
-        return BooleanValue.FALSE;
+      if (isFalseResult()) {
+        setResult(0);
       } else {
-        final BooleanValue rightValue = toBoolean(rightHandSide.accept(this, state));
-        return rightValue;
+        rightHandSide.accept(this, state);
+
+        if (!this.undefined) {
+          setResult(fromBoolean(this.value != 0));
+        }
       }
+
+      return null;
     } else {
-      final Value leftValue = leftHandSide.accept(this, state);
-      final Value rightValue = rightHandSide.accept(this, state);
+      leftHandSide.accept(this, state);
+      final long leftValue = this.value;
+      final boolean leftUndefined = this.undefined;
+
+      rightHandSide.accept(this, state);
+      final long rightValue = this.value;
+      final boolean rightUndefined = this.undefined;
 
-      if (isUndefined(leftValue) || isUndefined(rightValue)) {
+      if (leftUndefined || rightUndefined) {
         // NOTE: this is only relevant if the 'no_shortcut_or' bug is enabled
         if (operator == BinaryExpression.Operator.OR
-            && (isTrue(toBoolean(leftValue)) || isTrue(toBoolean(rightValue)))) {
-          return BooleanValue.TRUE;
+            && ((!leftUndefined && leftValue != 0) || (!rightUndefined && rightValue != 0))) {
+          setResult(1);
+        } else {
+          setUndefinedResult();
         }
 
-        final Type resultType = binaryExpression.getOperator().resultType;
-
-        assert (resultType instanceof AtomicType);
-        return getUndefined((AtomicType) resultType);
+        return null;
       }
 
       switch (operator) {
         case OR: {
-          return new BooleanValue(toBoolean(leftValue).value || toBoolean(rightValue).value);
+          setResult(fromBoolean(leftValue != 0 || rightValue != 0));
+          break;
         }
         case AND: {
-          return new BooleanValue(toBoolean(leftValue).value && toBoolean(rightValue).value);
+          setResult(fromBoolean(leftValue != 0 && rightValue != 0));
+          break;
         }
         case EQUALS: {
-          return new BooleanValue(toNumber(leftValue).value == toNumber(rightValue).value);
+          setResult(fromBoolean(leftValue == rightValue));
+          break;
         }
         case LESS_THAN: {
-          return new BooleanValue(toNumber(leftValue).value < toNumber(rightValue).value);
+          setResult(fromBoolean(leftValue < rightValue));
+          break;
         }
         case LESS_EQUALS: {
-          return new BooleanValue(toNumber(leftValue).value <= toNumber(rightValue).value);
+          setResult(fromBoolean(leftValue <= rightValue));
+          break;
         }
         case GREATER_THAN: {
-          return new BooleanValue(toNumber(leftValue).value > toNumber(rightValue).value);
+          setResult(fromBoolean(leftValue > rightValue));
+          break;
         }
         case GREATER_EQUALS: {
-          return new BooleanValue(toNumber(leftValue).value >= toNumber(rightValue).value);
+          setResult(fromBoolean(leftValue >= rightValue));
+          break;
         }
         case NOT_EQUALS: {
-          return new BooleanValue(toNumber(leftValue).value != toNumber(rightValue).value);
+          setResult(fromBoolean(leftValue != rightValue));
+          break;
         }
         case ADD: {
-          return new NumberValue(toNumber(leftValue).value + toNumber(rightValue).value);
+          setResult(leftValue + rightValue);
+          break;
         }
         case SUB: {
-          return new NumberValue(toNumber(leftValue).value - toNumber(rightValue).value);
+          setResult(leftValue - rightValue);
+          break;
         }
         case MUL: {
-          final NumberValue rightNumber = toNumber(rightValue);
-
           // check for injected bug
-          if (Bugs.getInstance().isEnabled(Bug.WRONG_SHIFT_MUL)
-              && isPowerOfTwo(rightNumber.value)) {
-            return rightNumber;
+          if (this.wrongShiftMul && isPowerOfTwo(rightValue)) {
+            setResult(rightValue);
+          } else {
+            setResult(leftValue * rightValue);
           }
-
-          return new NumberValue(toNumber(leftValue).value * rightNumber.value);
+          break;
         }
         case DIV: {
-          final NumberValue divisor = toNumber(rightValue);
-
           // check for injected bug
-          if (!Bugs.getInstance().isEnabled(Bug.DIV_BY_ZERO)) {
-            if (divisor.value == 0) {
-              return NumberValue.UNDEFINED;
-            }
+          if (!this.divByZero && rightValue == 0) {
+            setUndefinedResult();
+          } else {
+            setResult(leftValue / rightValue);
           }
-
-          return new NumberValue(toNumber(leftValue).value / divisor.value);
+          break;
         }
         default: {
           assert (false) : "unknown binary operator: " + operator;
-          return null;
+          break;
         }
       }
+
+      return null;
     }
   }
 
@@ -675,14 +1091,14 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
     if (calleeSymbol == Symbol.PRINT) {
       assert (arguments.size() == 1);
       final Expression argument = arguments.get(0);
-      final Value argumentValue = argument.accept(this, state);
+      argument.accept(this, state);
 
-      if (this.abortOnUndefinedBehavior && isUndefined(argumentValue)) {
+      if (this.abortOnUndefinedBehavior && this.undefined) {
         throw InvalidProgramException.dynamicallyInvalid(
             argument.getPosition(), "undefined output");
       }
 
-      state.print(argumentValue);
+      state.print(toValue());
 
       return null;
     } else {
@@ -692,25 +1108,107 @@ public final class Interpreter implements ASTVisitor<Interpreter.State, Interpre
       assert (calleeSymbol.getType() instanceof FunctionType);
       final FunctionType calleeType = (FunctionType) calleeSymbol.getType();
 
-      final Map<Symbol, Value> argumentValues = new HashMap<>();
+      final int frame = evaluateArguments(callee, arguments, state);
+
+      final int callDepth = state.getCallDepth() + this.numberOfReplacedFrames + 1;
+
+      if (this.memoizedResults != null && callee.isPure()) {
+        return visitMemoized(callee, calleeType, frame, callDepth, state);
+      }
+
+      checkCallDepth(callDepth);
+
+      state.enterFunction(frame, calleeType.getReturnType());
+      return visit(callee, state);
+    }
+  }
+
+  private final Value visitMemoized(final FunctionDeclaration callee,
+      final FunctionType calleeType, final int frame, final int callDepth, final State state) {
+    final List<VariableDeclaration> parameters = callee.getParameters();
+
+    final long[] argumentValues = new long[parameters.size()];
+    final boolean[] undefinedArguments = new boolean[parameters.size()];
+
+    for (int index = 0; index < parameters.size(); ++index) {
+      final Symbol parameterSymbol = parameters.get(index).getSymbol();
+
+      if (state.isUndefinedArgument(frame, parameterSymbol)) {
+        undefinedArguments[index] = true;
+      } else {
+        argumentValues[index] = state.readArgument(frame, parameterSymbol);
+      }
+    }
 
-      final List<VariableDeclaration> parameters = callee.getParameters();
+    final MemoizedCall call = new MemoizedCall(callee, argumentValues, undefinedArguments);
+    final MemoizedResult memoizedResult = this.memoizedResults.get(call);
 
-      assert (arguments.size() == parameters.size());
+    if (memoizedResult != null) {
+      state.releaseFrame(frame);
 
-      for (int index = 0; index < arguments.size(); ++index) {
-        final Expression argument = arguments.get(index);
-        final Value argumentValue = argument.accept(this, state);
+      if (this.memoization == Memoization.CHARGE) {
+        checkCallDepth(callDepth + memoizedResult.nestedCallDepth);
 
-        final VariableDeclaration parameter = parameters.get(index);
-        final Symbol parameterSymbol = parameter.getSymbol();
+        // NOTE: the number of steps saturates (the charged steps of nested memoized calls grow
+        // exponentially for recursions like a naive Fibonacci implementation)
+        if (memoizedResult.numberOfSteps > Long.MAX_VALUE - this.numberOfSteps) {
+          this.numberOfSteps = Long.MAX_VALUE;
+        } else {
+          this.numberOfSteps += memoizedResult.numberOfSteps;
+        }
 
-        argumentValues.put(parameterSymbol, argumentValue);
+        checkNumberOfSteps(this.numberOfSteps, this.maxNumberOfSteps);
+      } else {
+        assert (this.memoization == Memoization.FREE);
+        checkCallDepth(callDepth);
       }
 
-      state.enterFunction(argumentValues, calleeType.getReturnType());
-      return visit(callee, state);
+      this.value = memoizedResult.value;
+      this.undefined = memoizedResult.undefined;
+      this.hasReturnValue = memoizedResult.hasReturnValue;
+
+      return null;
+    }
+
+    final long numberOfStepsBefore = this.numberOfSteps;
+
+    final int outerDeepestCallDepth = this.deepestCallDepth;
+    this.deepestCallDepth = callDepth;
+
+    checkCallDepth(callDepth);
+
+    state.enterFunction(frame, calleeType.getReturnType());
+    visit(callee, state);
+
+    final int nestedCallDepth = this.deepestCallDepth - callDepth;
+    this.deepestCallDepth = Math.max(outerDeepestCallDepth, this.deepestCallDepth);
+
+    this.memoizedResults.put(call, new MemoizedResult((this.undefined) ? (0) : (this.value),
+        this.undefined, this.hasReturnValue, this.numberOfSteps - numberOfStepsBefore,
+        nestedCallDepth));
+
+    return null;
+  }
+
+  private final int evaluateArguments(final FunctionDeclaration callee,
+      final List<Expression> arguments, final State state) {
+    final int frame = state.allocateFrame(callee.getFrameSize());
+
+    final List<VariableDeclaration> parameters = callee.getParameters();
+
+    assert (arguments.size() == parameters.size());
+
+    for (int index = 0; index < arguments.size(); ++index) {
+      final Expression argument = arguments.get(index);
+      argument.accept(this, state);
+
+      final VariableDeclaration parameter = parameters.get(index);
+      final Symbol parameterSymbol = parameter.getSymbol();
+
+      state.defineArgument(frame, parameterSymbol, this.value, this.undefined);
     }
+
+    return frame;
   }
 
 }
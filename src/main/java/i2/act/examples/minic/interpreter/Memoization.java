@@ -0,0 +1,41 @@
+package i2.act.examples.minic.interpreter;
+
+// Determines whether the results of calls of pure functions are memoized (see 'PurityAnalysis') and
+// how a call whose result is taken from the memo counts towards the execution limits; only
+// supported by 'Engine.AST'.
+public enum Memoization {
+
+  // every call is executed
+  NONE("none"),
+
+  // a memoized call counts the steps (and reaches the call depth) of the execution that computed
+  // its result, i.e., memoization never changes the result of a program
+  CHARGE("charge"),
+
+  // a memoized call does not count any steps, i.e., a program may terminate within a step limit
+  // that it would exceed without memoization
+  FREE("free");
+
+  // ===============================================================================================
+
+  private final String name;
+
+  private Memoization(final String name) {
+    this.name = name;
+  }
+
+  public final String getName() {
+    return this.name;
+  }
+
+  public static final Memoization fromName(final String name) {
+    for (final Memoization memoization : Memoization.values()) {
+      if (name.equals(memoization.name)) {
+        return memoization;
+      }
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,210 @@
+package i2.act.examples.minic.interpreter;
+
+import i2.act.examples.minic.bugs.Bug;
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.frontend.ast.*;
+import i2.act.examples.minic.frontend.ast.visitors.BaseASTVisitor;
+
+// Folds the constant binary expressions of an analyzed program, i.e., it computes their result
+// (which may be undefined) once with the exact semantics of the interpreter (including the injected
+// interpreter bugs) and stores it in the expression. All engines use the stored result instead of
+// evaluating the expression again; the bytecode compiler additionally omits the branches that are
+// never taken due to a constant condition. Since expressions do not count as steps, the number of
+// steps (and loop iterations) of the program does not change.
+public final class Optimizer extends BaseASTVisitor<Void, Void> {
+
+  public static final void optimize(final Program program) {
+    optimize(program, BugConfiguration.NONE);
+  }
+
+  public static final void optimize(final Program program, final BugConfiguration bugs) {
+    final Optimizer optimizer = new Optimizer(bugs);
+    optimizer.visit(program, null);
+  }
+
+  // ===============================================================================================
+
+  // injected bugs (resolved once per optimizer)
+  private final boolean divByZero;
+  private final boolean noShortcutOr;
+  private final boolean noShortcutAnd;
+  private final boolean wrongShiftMul;
+
+  // the result of the most recently folded constant expression
+  private long value;
+  private boolean undefined;
+
+  private Optimizer(final BugConfiguration bugs) {
+    this.divByZero = bugs.isEnabled(Bug.DIV_BY_ZERO);
+    this.noShortcutOr = bugs.isEnabled(Bug.NO_SHORTCUT_OR);
+    this.noShortcutAnd = bugs.isEnabled(Bug.NO_SHORTCUT_AND);
+    this.wrongShiftMul = bugs.isEnabled(Bug.WRONG_SHIFT_MUL);
+  }
+
+  private static final boolean isPowerOfTwo(final long value) {
+    return (value > 1) && ((value & (value - 1)) == 0);
+  }
+
+  private static final long fromBoolean(final boolean value) {
+    return (value) ? (1) : (0);
+  }
+
+  private final boolean setResult(final long value) {
+    this.value = value;
+    this.undefined = false;
+
+    return true;
+  }
+
+  private final boolean setUndefinedResult() {
+    this.value = 0;
+    this.undefined = true;
+
+    return true;
+  }
+
+  @Override
+  public final Void visit(final BinaryExpression binaryExpression, final Void unused) {
+    fold(binaryExpression);
+    return null;
+  }
+
+  // returns 'true' if the expression is constant (its result is then left in 'value' and
+  // 'undefined'); the constant subexpressions of a non-constant expression are folded as well
+  private final boolean fold(final Expression expression) {
+    if (expression instanceof Literal) {
+      final Literal literal = (Literal) expression;
+      return setResult(literal.getValue());
+    } else if (expression instanceof BinaryExpression) {
+      final BinaryExpression binaryExpression = (BinaryExpression) expression;
+
+      if (!foldBinaryExpression(binaryExpression)) {
+        return false;
+      }
+
+      binaryExpression.setConstantResult(this.value, this.undefined);
+      return true;
+    } else {
+      // identifiers and function calls are never constant
+      expression.accept(this, null);
+      return false;
+    }
+  }
+
+  private final boolean foldBinaryExpression(final BinaryExpression binaryExpression) {
+    final BinaryExpression.Operator operator = binaryExpression.getOperator();
+
+    final boolean leftConstant = fold(binaryExpression.getLeftHandSide());
+    final long leftValue = this.value;
+    final boolean leftUndefined = this.undefined;
+
+    final boolean rightConstant = fold(binaryExpression.getRightHandSide());
+    final long rightValue = this.value;
+    final boolean rightUndefined = this.undefined;
+
+    // OR and AND need special treatment due to shortcut evaluation (i.e., the right-hand side is
+    // not evaluated if the left-hand side is undefined or determines the result)
+    if ((operator == BinaryExpression.Operator.OR && !this.noShortcutOr)
+        || (operator == BinaryExpression.Operator.AND && !this.noShortcutAnd)) {
+      if (!leftConstant) {
+        return false;
+      }
+
+      if (leftUndefined) {
+        return setUndefinedResult();
+      }
+
+      if (operator == BinaryExpression.Operator.OR && leftValue != 0) {
+        return setResult(1);
+      }
+
+      if (operator == BinaryExpression.Operator.AND && leftValue == 0) {
+        return setResult(0);
+      }
+
+      if (!rightConstant) {
+        return false;
+      }
+
+      if (rightUndefined) {
+        return setUndefinedResult();
+      }
+
+      return setResult(fromBoolean(rightValue != 0));
+    }
+
+    // both sides are evaluated
+    if (!leftConstant || !rightConstant) {
+      return false;
+    }
+
+    if (leftUndefined || rightUndefined) {
+      // NOTE: this is only relevant if the 'no_shortcut_or' bug is enabled
+      if (operator == BinaryExpression.Operator.OR
+          && ((!leftUndefined && leftValue != 0) || (!rightUndefined && rightValue != 0))) {
+        return setResult(1);
+      } else {
+        return setUndefinedResult();
+      }
+    }
+
+    switch (operator) {
+      case OR: {
+        return setResult(fromBoolean(leftValue != 0 || rightValue != 0));
+      }
+      case AND: {
+        return setResult(fromBoolean(leftValue != 0 && rightValue != 0));
+      }
+      case EQUALS: {
+        return setResult(fromBoolean(leftValue == rightValue));
+      }
+      case LESS_THAN: {
+        return setResult(fromBoolean(leftValue < rightValue));
+      }
+      case LESS_EQUALS: {
+        return setResult(fromBoolean(leftValue <= rightValue));
+      }
+      case GREATER_THAN: {
+        return setResult(fromBoolean(leftValue > rightValue));
+      }
+      case GREATER_EQUALS: {
+        return setResult(fromBoolean(leftValue >= rightValue));
+      }
+      case NOT_EQUALS: {
+        return setResult(fromBoolean(leftValue != rightValue));
+      }
+      case ADD: {
+        return setResult(leftValue + rightValue);
+      }
+      case SUB: {
+        return setResult(leftValue - rightValue);
+      }
+      case MUL: {
+        // check for injected bug
+        if (this.wrongShiftMul && isPowerOfTwo(rightValue)) {
+          return setResult(rightValue);
+        } else {
+          return setResult(leftValue * rightValue);
+        }
+      }
+      case DIV: {
+        if (rightValue == 0) {
+          // check for injected bug
+          if (this.divByZero) {
+            // the division fails when it is executed (i.e., it is not folded)
+            return false;
+          }
+
+          return setUndefinedResult();
+        }
+
+        return setResult(leftValue / rightValue);
+      }
+      default: {
+        assert (false) : "unknown binary operator: " + operator;
+        return false;
+      }
+    }
+  }
+
+}
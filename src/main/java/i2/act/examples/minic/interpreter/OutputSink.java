@@ -0,0 +1,133 @@
+package i2.act.examples.minic.interpreter;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.interpreter.Interpreter.Value;
+import i2.act.util.SafeWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Receives the values that a program prints (one value per line) and enforces the output limits of
+// the execution (see 'ExecutionLimits'): the execution is aborted as soon as a value would exceed
+// one of the limits, i.e., the value is not printed anymore.
+public abstract class OutputSink {
+
+  // keeps all printed values in memory (see 'getOutput()')
+  public static final OutputSink collecting(final ExecutionLimits limits) {
+    return new CollectingSink(limits);
+  }
+
+  // writes each printed value to the given writer as soon as it is printed; the writer is flushed
+  // by 'flush()'
+  public static final OutputSink streaming(final SafeWriter writer, final ExecutionLimits limits) {
+    return new StreamingSink(writer, limits);
+  }
+
+  // only enforces the limits (e.g., if the program is only checked for undefined behavior)
+  public static final OutputSink discarding(final ExecutionLimits limits) {
+    return new DiscardingSink(limits);
+  }
+
+  // ===============================================================================================
+
+  private static final class CollectingSink extends OutputSink {
+
+    private final List<Value> output;
+
+    private CollectingSink(final ExecutionLimits limits) {
+      super(limits);
+      this.output = new ArrayList<Value>();
+    }
+
+    @Override
+    protected final void write(final Value value, final String string) {
+      this.output.add(value);
+    }
+
+    @Override
+    public final List<Value> getOutput() {
+      return Collections.unmodifiableList(this.output);
+    }
+
+  }
+
+  private static final class StreamingSink extends OutputSink {
+
+    private final SafeWriter writer;
+
+    private StreamingSink(final SafeWriter writer, final ExecutionLimits limits) {
+      super(limits);
+      this.writer = writer;
+    }
+
+    @Override
+    protected final void write(final Value value, final String string) {
+      this.writer.write(string);
+      this.writer.write("\n");
+    }
+
+    @Override
+    public final void flush() {
+      this.writer.flush();
+    }
+
+  }
+
+  private static final class DiscardingSink extends OutputSink {
+
+    private DiscardingSink(final ExecutionLimits limits) {
+      super(limits);
+    }
+
+    @Override
+    protected final void write(final Value value, final String string) {
+      // intentionally left blank
+    }
+
+  }
+
+  // ===============================================================================================
+
+  private final long maxOutputBytes;
+  private final int maxOutputValues;
+
+  private long numberOfBytes;
+  private int numberOfValues;
+
+  private OutputSink(final ExecutionLimits limits) {
+    this.maxOutputBytes = limits.getMaxOutputBytes();
+    this.maxOutputValues = limits.getMaxOutputValues();
+  }
+
+  public final void print(final Value value) {
+    final String string = value.toString();
+
+    // NOTE: the string representations of values only consist of ASCII characters (and each value
+    // is terminated by a line break)
+    this.numberOfBytes += string.length() + 1;
+    ++this.numberOfValues;
+
+    if ((this.maxOutputBytes != Interpreter.UNBOUNDED && this.numberOfBytes > this.maxOutputBytes)
+        || (this.maxOutputValues != Interpreter.UNBOUNDED
+            && this.numberOfValues > this.maxOutputValues)) {
+      throw InvalidProgramException.outputLimitExceeded(
+          SourcePosition.UNKNOWN, "reached output limit");
+    }
+
+    write(value, string);
+  }
+
+  protected abstract void write(final Value value, final String string);
+
+  // returns the printed values if they are kept in memory (and an empty list otherwise)
+  public List<Value> getOutput() {
+    return Collections.emptyList();
+  }
+
+  public void flush() {
+    // intentionally left blank
+  }
+
+}
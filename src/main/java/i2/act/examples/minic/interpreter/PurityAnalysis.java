@@ -0,0 +1,128 @@
+package i2.act.examples.minic.interpreter;
+
+import i2.act.examples.minic.frontend.ast.*;
+import i2.act.examples.minic.frontend.ast.visitors.BaseASTVisitor;
+import i2.act.examples.minic.frontend.semantics.symbols.Symbol;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Marks the pure functions of an analyzed program, i.e., the functions whose result (and number of
+// steps) only depends on their arguments: a pure function neither reads nor writes global
+// variables, does not print, and only calls pure functions. The impurity of a function is
+// propagated to all of its (transitive) callers in the call graph; hence, (mutually) recursive
+// functions are pure unless one of the functions on the cycle is impure.
+public final class PurityAnalysis extends BaseASTVisitor<Void, Void> {
+
+  public static final void analyze(final Program program) {
+    final PurityAnalysis analysis = new PurityAnalysis();
+    analysis.visit(program, null);
+
+    analysis.propagateImpurity();
+
+    for (final FunctionDeclaration function : analysis.functions) {
+      function.setPure(!analysis.impureFunctions.contains(function));
+    }
+  }
+
+  // ===============================================================================================
+
+  private final List<FunctionDeclaration> functions;
+
+  // the callers of each function (i.e., the reversed call graph)
+  private final Map<FunctionDeclaration, List<FunctionDeclaration>> callers;
+
+  private final Set<FunctionDeclaration> impureFunctions;
+
+  // the function whose body is currently visited ('null' for global declarations)
+  private FunctionDeclaration currentFunction;
+
+  private PurityAnalysis() {
+    this.functions = new ArrayList<FunctionDeclaration>();
+    this.callers = new HashMap<FunctionDeclaration, List<FunctionDeclaration>>();
+    this.impureFunctions = new HashSet<FunctionDeclaration>();
+  }
+
+  private final void propagateImpurity() {
+    final Deque<FunctionDeclaration> worklist =
+        new ArrayDeque<FunctionDeclaration>(this.impureFunctions);
+
+    while (!worklist.isEmpty()) {
+      final FunctionDeclaration function = worklist.pop();
+      final List<FunctionDeclaration> functionCallers = this.callers.get(function);
+
+      if (functionCallers == null) {
+        continue;
+      }
+
+      for (final FunctionDeclaration caller : functionCallers) {
+        if (this.impureFunctions.add(caller)) {
+          worklist.push(caller);
+        }
+      }
+    }
+  }
+
+  @Override
+  public final Void visit(final FunctionDeclaration functionDeclaration, final Void unused) {
+    this.functions.add(functionDeclaration);
+
+    final FunctionDeclaration oldCurrentFunction = this.currentFunction;
+    this.currentFunction = functionDeclaration;
+
+    functionDeclaration.getBody().accept(this, null);
+
+    this.currentFunction = oldCurrentFunction;
+
+    return null;
+  }
+
+  @Override
+  public final Void visit(final Identifier identifier, final Void unused) {
+    final Symbol symbol = identifier.getSymbol();
+
+    if (this.currentFunction != null && symbol != null && symbol.isGlobal()
+        && symbol.getDeclaration() instanceof VariableDeclaration) {
+      // the function reads or writes a global variable
+      this.impureFunctions.add(this.currentFunction);
+    }
+
+    return null;
+  }
+
+  @Override
+  public final Void visit(final FunctionCall functionCall, final Void unused) {
+    final Symbol calleeSymbol = functionCall.getCallee().getSymbol();
+
+    if (this.currentFunction != null) {
+      if (calleeSymbol == null || !(calleeSymbol.getDeclaration() instanceof FunctionDeclaration)) {
+        // 'print' (or an unresolved callee)
+        this.impureFunctions.add(this.currentFunction);
+      } else {
+        final FunctionDeclaration callee = (FunctionDeclaration) calleeSymbol.getDeclaration();
+
+        List<FunctionDeclaration> calleeCallers = this.callers.get(callee);
+
+        if (calleeCallers == null) {
+          calleeCallers = new ArrayList<FunctionDeclaration>();
+          this.callers.put(callee, calleeCallers);
+        }
+
+        calleeCallers.add(this.currentFunction);
+      }
+    }
+
+    for (final Expression argument : functionCall.getArguments()) {
+      argument.accept(this, null);
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,333 @@
+package i2.act.examples.minic.interpreter.closure;
+
+import i2.act.examples.minic.bugs.Bug;
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.frontend.ast.*;
+import i2.act.examples.minic.frontend.ast.visitors.ASTVisitor;
+import i2.act.examples.minic.frontend.semantics.symbols.Symbol;
+import i2.act.examples.minic.frontend.semantics.types.FunctionType;
+import i2.act.examples.minic.frontend.semantics.types.Type;
+import i2.act.examples.minic.interpreter.closure.ExpressionNodes.*;
+import i2.act.examples.minic.interpreter.closure.StatementNodes.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Converts an (analyzed) program once into executable nodes (see 'Node'), which are then executed
+// by the 'ClosureInterpreter'.
+public final class ClosureCompiler implements ASTVisitor<Void, Node> {
+
+  public static final ClosureProgram compile(final Program program) {
+    return compile(program, BugConfiguration.NONE);
+  }
+
+  public static final ClosureProgram compile(final Program program, final BugConfiguration bugs) {
+    final ClosureCompiler compiler = new ClosureCompiler(bugs);
+    return compiler.compileProgram(program);
+  }
+
+  // ===============================================================================================
+
+  // injected bugs (resolved into the nodes that are created)
+  private final boolean noShortcutOr;
+  private final boolean noShortcutAnd;
+  private final boolean wrongShiftMul;
+  private final boolean divByZero;
+  private final boolean missingInitGlobals;
+
+  private final Map<Symbol, FunctionNode> functions;
+
+  // return type of the function that is currently compiled
+  private Type returnType;
+
+  private ClosureCompiler(final BugConfiguration bugs) {
+    this.noShortcutOr = bugs.isEnabled(Bug.NO_SHORTCUT_OR);
+    this.noShortcutAnd = bugs.isEnabled(Bug.NO_SHORTCUT_AND);
+    this.wrongShiftMul = bugs.isEnabled(Bug.WRONG_SHIFT_MUL);
+    this.divByZero = bugs.isEnabled(Bug.DIV_BY_ZERO);
+    this.missingInitGlobals = bugs.isEnabled(Bug.MISSING_INIT_GLOBALS);
+
+    this.functions = new HashMap<>();
+  }
+
+  private final ClosureProgram compileProgram(final Program program) {
+    final List<FunctionDeclaration> functionDeclarations = new ArrayList<>();
+    FunctionNode mainFunction = null;
+
+    // the nodes of all functions are created before any body is compiled (such that calls can refer
+    // to functions that are declared later)
+    for (final Declaration declaration : program.getDeclarations()) {
+      if (declaration instanceof FunctionDeclaration) {
+        final FunctionDeclaration functionDeclaration = (FunctionDeclaration) declaration;
+        functionDeclarations.add(functionDeclaration);
+
+        final String name = functionDeclaration.getName().getName();
+        final FunctionNode function = new FunctionNode(name, functionDeclaration.getFrameSize(),
+            functionDeclaration.getReturnType().getType());
+        this.functions.put(functionDeclaration.getSymbol(), function);
+
+        if ("main".equals(name)) {
+          mainFunction = function;
+        }
+      }
+    }
+
+    for (final FunctionDeclaration functionDeclaration : functionDeclarations) {
+      final FunctionNode function = this.functions.get(functionDeclaration.getSymbol());
+
+      assert (functionDeclaration.getSymbol().getType() instanceof FunctionType);
+      this.returnType = ((FunctionType) functionDeclaration.getSymbol().getType()).getReturnType();
+
+      function.body = compileStatement(functionDeclaration.getBody());
+    }
+
+    return new ClosureProgram(mainFunction, program.getNumberOfGlobals(), !this.missingInitGlobals);
+  }
+
+  private final StatementNode compileStatement(final Statement statement) {
+    return (StatementNode) statement.accept(this, null);
+  }
+
+  private final ExpressionNode compileExpression(final Expression expression) {
+    return (ExpressionNode) expression.accept(this, null);
+  }
+
+  @Override
+  public final Node visit(final Program program, final Void unused) {
+    assert (false) : "programs are compiled via 'compileProgram()'";
+    return null;
+  }
+
+  @Override
+  public final Node visit(final VariableDeclaration variableDeclaration, final Void unused) {
+    // local variables are not initialized, global variables are initialized by the interpreter
+    return null;
+  }
+
+  @Override
+  public final Node visit(final FunctionDeclaration functionDeclaration, final Void unused) {
+    assert (false) : "functions are compiled via 'compileProgram()'";
+    return null;
+  }
+
+  @Override
+  public final Node visit(final Block block, final Void unused) {
+    final List<StatementNode> statements = new ArrayList<>();
+
+    for (final Statement statement : block.getStatements()) {
+      final StatementNode statementNode = compileStatement(statement);
+
+      // declarations do not result in a node
+      if (statementNode != null) {
+        statements.add(statementNode);
+      }
+    }
+
+    return new BlockNode(statements.toArray(new StatementNode[statements.size()]));
+  }
+
+  @Override
+  public final Node visit(final TypeName typeName, final Void unused) {
+    // intentionally left blank
+    return null;
+  }
+
+  @Override
+  public final Node visit(final AssignStatement assignStatement, final Void unused) {
+    final ExpressionNode value = compileExpression(assignStatement.getRightHandSide());
+
+    final Symbol variable = assignStatement.getLeftHandSide().getSymbol();
+
+    if (variable.isGlobal()) {
+      return new AssignGlobalNode(variable.getFrameIndex(), value);
+    } else {
+      return new AssignLocalNode(variable.getFrameIndex(), value);
+    }
+  }
+
+  @Override
+  public final Node visit(final FunctionCallStatement functionCallStatement, final Void unused) {
+    return new CallStatementNode(compileExpression(functionCallStatement.getFunctionCall()));
+  }
+
+  @Override
+  public final Node visit(final IfStatement ifStatement, final Void unused) {
+    final Expression condition = ifStatement.getCondition();
+
+    final StatementNode elseBlock;
+    {
+      if (ifStatement.hasElseBlock()) {
+        elseBlock = compileStatement(ifStatement.getElseBlock());
+      } else {
+        elseBlock = null;
+      }
+    }
+
+    return new IfNode(compileExpression(condition), condition.getPosition(),
+        compileStatement(ifStatement.getThenBlock()), elseBlock);
+  }
+
+  @Override
+  public final Node visit(final WhileLoop whileLoop, final Void unused) {
+    final Expression condition = whileLoop.getCondition();
+
+    return new WhileNode(compileExpression(condition), condition.getPosition(),
+        compileStatement(whileLoop.getBody()));
+  }
+
+  @Override
+  public final Node visit(final ReturnStatement returnStatement, final Void unused) {
+    if (returnStatement.isSelfTailCall()) {
+      final ExpressionNode call = compileExpression(returnStatement.getReturnValue());
+
+      assert (call instanceof CallNode);
+      return new TailCallNode((CallNode) call);
+    }
+
+    if (returnStatement.hasReturnValue()) {
+      return new ReturnValueNode(
+          compileExpression(returnStatement.getReturnValue()), this.returnType);
+    } else {
+      return new ReturnVoidNode(this.returnType);
+    }
+  }
+
+  @Override
+  public final Node visit(final DeclarationStatement declarationStatement, final Void unused) {
+    final Declaration declaration = declarationStatement.getDeclaration();
+    return declaration.accept(this, null);
+  }
+
+  @Override
+  public final Node visit(final Identifier identifier, final Void unused) {
+    final Symbol variable = identifier.getSymbol();
+
+    if (variable.isGlobal()) {
+      return new GlobalReadNode(variable.getFrameIndex());
+    } else {
+      return new LocalReadNode(variable.getFrameIndex());
+    }
+  }
+
+  @Override
+  public final Node visit(final Literal literal, final Void unused) {
+    // the value has been parsed when the literal was created
+    return new ConstantNode(literal.getValue());
+  }
+
+  @Override
+  public final Node visit(final BinaryExpression binaryExpression, final Void unused) {
+    if (binaryExpression.isConstant()) {
+      // the result has been computed by the constant folding (see 'Optimizer')
+      if (binaryExpression.isUndefinedConstant()) {
+        return new UndefinedNode();
+      } else {
+        return new ConstantNode(binaryExpression.getConstantValue());
+      }
+    }
+
+    final ExpressionNode left = compileExpression(binaryExpression.getLeftHandSide());
+    final ExpressionNode right = compileExpression(binaryExpression.getRightHandSide());
+
+    switch (binaryExpression.getOperator()) {
+      case OR: {
+        // check for injected bug
+        if (this.noShortcutOr) {
+          return new OrNode(left, right);
+        } else {
+          return new ShortcutOrNode(left, right);
+        }
+      }
+      case AND: {
+        // check for injected bug
+        if (this.noShortcutAnd) {
+          return new AndNode(left, right);
+        } else {
+          return new ShortcutAndNode(left, right);
+        }
+      }
+      case EQUALS: {
+        return new EqualsNode(left, right);
+      }
+      case LESS_THAN: {
+        return new LessThanNode(left, right);
+      }
+      case LESS_EQUALS: {
+        return new LessEqualsNode(left, right);
+      }
+      case GREATER_THAN: {
+        return new GreaterThanNode(left, right);
+      }
+      case GREATER_EQUALS: {
+        return new GreaterEqualsNode(left, right);
+      }
+      case NOT_EQUALS: {
+        return new NotEqualsNode(left, right);
+      }
+      case ADD: {
+        return new AddNode(left, right);
+      }
+      case SUB: {
+        return new SubNode(left, right);
+      }
+      case MUL: {
+        // check for injected bug
+        if (this.wrongShiftMul) {
+          return new MulWrongShiftNode(left, right);
+        } else {
+          return new MulNode(left, right);
+        }
+      }
+      case DIV: {
+        // check for injected bug
+        if (this.divByZero) {
+          return new DivUncheckedNode(left, right);
+        } else {
+          return new DivNode(left, right);
+        }
+      }
+      default: {
+        assert (false) : "unknown binary operator: " + binaryExpression.getOperator();
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public final Node visit(final FunctionCall functionCall, final Void unused) {
+    final Symbol calleeSymbol = functionCall.getCallee().getSymbol();
+    final List<Expression> arguments = functionCall.getArguments();
+
+    if (calleeSymbol == Symbol.PRINT) {
+      assert (arguments.size() == 1);
+      final Expression argument = arguments.get(0);
+
+      return new PrintNode(compileExpression(argument), argument.getPosition());
+    } else if (calleeSymbol == null) {
+      return new UnresolvedCallNode();
+    } else {
+      assert (calleeSymbol.getDeclaration() instanceof FunctionDeclaration);
+      final FunctionDeclaration callee = (FunctionDeclaration) calleeSymbol.getDeclaration();
+
+      assert (this.functions.containsKey(calleeSymbol));
+      final FunctionNode calleeNode = this.functions.get(calleeSymbol);
+
+      final List<VariableDeclaration> parameters = callee.getParameters();
+
+      assert (arguments.size() == parameters.size());
+
+      final ExpressionNode[] argumentNodes = new ExpressionNode[arguments.size()];
+      final int[] parameterSlots = new int[arguments.size()];
+
+      for (int index = 0; index < arguments.size(); ++index) {
+        argumentNodes[index] = compileExpression(arguments.get(index));
+        parameterSlots[index] = parameters.get(index).getSymbol().getFrameIndex();
+      }
+
+      return new CallNode(calleeNode, argumentNodes, parameterSlots);
+    }
+  }
+
+}
@@ -0,0 +1,220 @@
+package i2.act.examples.minic.interpreter.closure;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.frontend.semantics.types.AtomicType;
+import i2.act.examples.minic.interpreter.ExecutionBudget;
+import i2.act.examples.minic.interpreter.ExecutionLimits;
+import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.examples.minic.interpreter.Interpreter.NumberValue;
+import i2.act.examples.minic.interpreter.Interpreter.Value;
+import i2.act.examples.minic.interpreter.OutputSink;
+import i2.act.util.Pair;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Executes a program that has been converted to executable nodes (see 'ClosureCompiler'); the
+// nodes keep the state of the execution in this object, i.e., its fields are accessed by the nodes
+// directly. Like the AST engine, function calls of the program are function calls of the
+// interpreter (except for self-recursive tail calls, which reuse the frame of the caller).
+public final class ClosureInterpreter {
+
+  public static final Pair<Value, List<Value>> execute(final ClosureProgram program,
+      final boolean abortOnUndefinedBehavior, final ExecutionLimits limits,
+      final ExecutionBudget budget, final OutputSink output) {
+    final ClosureInterpreter interpreter =
+        new ClosureInterpreter(program, abortOnUndefinedBehavior, limits, budget, output);
+
+    final Value exitValue;
+    {
+      try {
+        exitValue = interpreter.run();
+      } catch (final StackOverflowError error) {
+        throw InvalidProgramException.nonTerminating(
+            SourcePosition.UNKNOWN, Interpreter.STACK_OVERFLOW_MESSAGE);
+      }
+    }
+
+    return new Pair<Value, List<Value>>(exitValue, output.getOutput());
+  }
+
+  // ===============================================================================================
+
+  private static final int INITIAL_NUMBER_OF_SLOTS = 1024;
+
+  private final ClosureProgram program;
+
+  final boolean abortOnUndefinedBehavior;
+  private final int maxNumberOfSteps;
+  final int maxNumberOfLoopIterations;
+  private final int maxCallDepth;
+  private final ExecutionBudget budget;
+
+  final OutputSink output;
+
+  final long[] globals;
+  final boolean[] undefinedGlobals;
+
+  // frames of all active function calls, stored back to back
+  long[] values;
+  boolean[] undefinedValues;
+  int frameBase;
+  private int frameTop;
+
+  // number of active function calls (including the call of 'main' and the calls whose frames have
+  // been replaced by self-recursive tail calls)
+  private int callDepth;
+
+  private int numberOfSteps;
+
+  // whether the result of the most recently evaluated expression is undefined
+  boolean undefinedResult;
+
+  // set by the return statements
+  long returnValue;
+  boolean undefinedReturnValue;
+  boolean hasReturnValue;
+
+  // set by a self-recursive tail call (instead of a return value)
+  boolean tailCalling;
+
+  private ClosureInterpreter(final ClosureProgram program, final boolean abortOnUndefinedBehavior,
+      final ExecutionLimits limits, final ExecutionBudget budget, final OutputSink output) {
+    this.program = program;
+
+    this.abortOnUndefinedBehavior = abortOnUndefinedBehavior;
+    this.maxNumberOfSteps = limits.getMaxNumberOfSteps();
+    this.maxNumberOfLoopIterations = limits.getMaxNumberOfLoopIterations();
+    this.maxCallDepth = limits.getMaxCallDepth();
+    this.budget = budget;
+
+    this.output = output;
+
+    this.globals = new long[program.numberOfGlobals];
+    this.undefinedGlobals = new boolean[program.numberOfGlobals];
+
+    this.values = new long[INITIAL_NUMBER_OF_SLOTS];
+    this.undefinedValues = new boolean[INITIAL_NUMBER_OF_SLOTS];
+    this.frameBase = 0;
+    this.frameTop = 0;
+    this.callDepth = 0;
+  }
+
+  static final void checkNumberOfSteps(final int numberOfSteps, final int maxNumberOfSteps) {
+    if (maxNumberOfSteps != Interpreter.UNBOUNDED && numberOfSteps > maxNumberOfSteps) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, "reached timeout");
+    }
+  }
+
+  final void step() {
+    checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+    this.budget.step();
+  }
+
+  final int allocateFrame(final int frameSize) {
+    // the frame is allocated on top of all active frames but only becomes the current frame when
+    // the function is entered (i.e., after the arguments have been evaluated in the caller)
+    final int frame = this.frameTop;
+    final int newFrameTop = frame + frameSize;
+
+    if (newFrameTop > this.values.length) {
+      final int newLength = Math.max(2 * this.values.length, newFrameTop);
+      this.values = Arrays.copyOf(this.values, newLength);
+      this.undefinedValues = Arrays.copyOf(this.undefinedValues, newLength);
+    }
+
+    // all variables of a new frame are undefined until they are assigned
+    Arrays.fill(this.undefinedValues, frame, newFrameTop, true);
+    this.frameTop = newFrameTop;
+
+    return frame;
+  }
+
+  // the (fully initialized) frame of a self-recursive tail call replaces the current frame
+  final void replaceFrame(final int frame) {
+    assert (frame >= this.frameBase && frame <= this.frameTop);
+
+    final int frameSize = this.frameTop - frame;
+
+    System.arraycopy(this.values, frame, this.values, this.frameBase, frameSize);
+    System.arraycopy(this.undefinedValues, frame, this.undefinedValues, this.frameBase, frameSize);
+
+    this.frameTop = this.frameBase + frameSize;
+  }
+
+  // checks if another function can be called (the call of 'main' is not checked)
+  final void checkCallDepth() {
+    if (this.maxCallDepth != Interpreter.UNBOUNDED && this.callDepth + 1 > this.maxCallDepth) {
+      throw InvalidProgramException.nonTerminating(
+          SourcePosition.UNKNOWN, "reached maximum call depth");
+    }
+  }
+
+  // calls the given function with the given (allocated) frame and returns the result of the call
+  final long call(final FunctionNode function, final int frame) {
+    final int callerFrameBase = this.frameBase;
+
+    ++this.callDepth;
+    this.frameBase = frame;
+
+    int numberOfTailCalls = 0;
+    boolean returned;
+
+    while (true) {
+      returned = function.body.execute(this);
+
+      if (!this.tailCalling) {
+        break;
+      }
+
+      // the callee of the tail call is executed with the replaced frame; as in the AST engine, the
+      // replaced frame still counts towards the call depth
+      this.tailCalling = false;
+
+      ++numberOfTailCalls;
+      ++this.callDepth;
+    }
+
+    this.callDepth -= numberOfTailCalls + 1;
+    this.frameTop = this.frameBase;
+    this.frameBase = callerFrameBase;
+
+    if (returned) {
+      // return value has already been set by the return statement
+      this.undefinedResult = this.undefinedReturnValue;
+      return this.returnValue;
+    }
+
+    if (function.annotatedReturnType == AtomicType.VOID) {
+      this.hasReturnValue = false;
+    } else {
+      assert (function.annotatedReturnType == AtomicType.INT);
+      this.hasReturnValue = true;
+    }
+
+    this.undefinedResult = true;
+
+    return 0;
+  }
+
+  private final Value run() {
+    // check for injected bug
+    Arrays.fill(this.undefinedGlobals, !this.program.initializeGlobals);
+
+    final FunctionNode mainFunction = this.program.mainFunction;
+
+    if (mainFunction == null) {
+      return new NumberValue(0);
+    }
+
+    final long exitValue = call(mainFunction, allocateFrame(mainFunction.frameSize));
+
+    if (!this.hasReturnValue) {
+      return null;
+    }
+
+    return (this.undefinedResult) ? (NumberValue.UNDEFINED) : (new NumberValue(exitValue));
+  }
+
+}
@@ -0,0 +1,18 @@
+package i2.act.examples.minic.interpreter.closure;
+
+public final class ClosureProgram {
+
+  // 'null' if the program does not contain a 'main' function
+  final FunctionNode mainFunction;
+
+  final int numberOfGlobals;
+  final boolean initializeGlobals;
+
+  ClosureProgram(final FunctionNode mainFunction, final int numberOfGlobals,
+      final boolean initializeGlobals) {
+    this.mainFunction = mainFunction;
+    this.numberOfGlobals = numberOfGlobals;
+    this.initializeGlobals = initializeGlobals;
+  }
+
+}
@@ -0,0 +1,9 @@
+package i2.act.examples.minic.interpreter.closure;
+
+abstract class ExpressionNode extends Node {
+
+  // returns the (unboxed) result of the expression and leaves in 'undefinedResult' of the
+  // interpreter whether it is undefined (the value of an undefined result is meaningless)
+  abstract long evaluate(final ClosureInterpreter interpreter);
+
+}
@@ -0,0 +1,559 @@
+package i2.act.examples.minic.interpreter.closure;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.interpreter.Interpreter.NumberValue;
+
+// NOTE: each node evaluates its operands itself (instead of sharing the evaluation in a common
+// superclass), such that the calls of an operator are not shared with the other operators
+final class ExpressionNodes {
+
+  private ExpressionNodes() {
+    // intentionally left blank
+  }
+
+  private static final long fromBoolean(final boolean value) {
+    return (value) ? (1) : (0);
+  }
+
+  private static final long undefined(final ClosureInterpreter interpreter) {
+    interpreter.undefinedResult = true;
+    return 0;
+  }
+
+  // ===============================================================================================
+
+  static final class ConstantNode extends ExpressionNode {
+
+    private final long value;
+
+    ConstantNode(final long value) {
+      this.value = value;
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      interpreter.undefinedResult = false;
+      return this.value;
+    }
+
+  }
+
+  static final class UndefinedNode extends ExpressionNode {
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      return undefined(interpreter);
+    }
+
+  }
+
+  static final class LocalReadNode extends ExpressionNode {
+
+    private final int slot;
+
+    LocalReadNode(final int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final int index = interpreter.frameBase + this.slot;
+
+      interpreter.undefinedResult = interpreter.undefinedValues[index];
+      return interpreter.values[index];
+    }
+
+  }
+
+  static final class GlobalReadNode extends ExpressionNode {
+
+    private final int index;
+
+    GlobalReadNode(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      interpreter.undefinedResult = interpreter.undefinedGlobals[this.index];
+      return interpreter.globals[this.index];
+    }
+
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  abstract static class BinaryNode extends ExpressionNode {
+
+    protected final ExpressionNode left;
+    protected final ExpressionNode right;
+
+    BinaryNode(final ExpressionNode left, final ExpressionNode right) {
+      this.left = left;
+      this.right = right;
+    }
+
+  }
+
+  static final class ShortcutOrNode extends BinaryNode {
+
+    ShortcutOrNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+
+      if (interpreter.undefinedResult) {
+        return 0;
+      }
+
+      if (leftValue != 0) {
+        return 1;
+      }
+
+      final long rightValue = this.right.evaluate(interpreter);
+      return fromBoolean(rightValue != 0);
+    }
+
+  }
+
+  static final class ShortcutAndNode extends BinaryNode {
+
+    ShortcutAndNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+
+      if (interpreter.undefinedResult) {
+        return 0;
+      }
+
+      if (leftValue == 0) {
+        return 0;
+      }
+
+      final long rightValue = this.right.evaluate(interpreter);
+      return fromBoolean(rightValue != 0);
+    }
+
+  }
+
+  // evaluates both operands (only used if the 'no_shortcut_or' bug is enabled)
+  static final class OrNode extends BinaryNode {
+
+    OrNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+      final boolean rightUndefined = interpreter.undefinedResult;
+
+      if (leftUndefined || rightUndefined) {
+        if ((!leftUndefined && leftValue != 0) || (!rightUndefined && rightValue != 0)) {
+          interpreter.undefinedResult = false;
+          return 1;
+        }
+
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue != 0 || rightValue != 0);
+    }
+
+  }
+
+  // evaluates both operands (only used if the 'no_shortcut_and' bug is enabled)
+  static final class AndNode extends BinaryNode {
+
+    AndNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue != 0 && rightValue != 0);
+    }
+
+  }
+
+  static final class EqualsNode extends BinaryNode {
+
+    EqualsNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue == rightValue);
+    }
+
+  }
+
+  static final class NotEqualsNode extends BinaryNode {
+
+    NotEqualsNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue != rightValue);
+    }
+
+  }
+
+  static final class LessThanNode extends BinaryNode {
+
+    LessThanNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue < rightValue);
+    }
+
+  }
+
+  static final class LessEqualsNode extends BinaryNode {
+
+    LessEqualsNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue <= rightValue);
+    }
+
+  }
+
+  static final class GreaterThanNode extends BinaryNode {
+
+    GreaterThanNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue > rightValue);
+    }
+
+  }
+
+  static final class GreaterEqualsNode extends BinaryNode {
+
+    GreaterEqualsNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return fromBoolean(leftValue >= rightValue);
+    }
+
+  }
+
+  static final class AddNode extends BinaryNode {
+
+    AddNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return leftValue + rightValue;
+    }
+
+  }
+
+  static final class SubNode extends BinaryNode {
+
+    SubNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return leftValue - rightValue;
+    }
+
+  }
+
+  static final class MulNode extends BinaryNode {
+
+    MulNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return leftValue * rightValue;
+    }
+
+  }
+
+  // only used if the 'wrong_shift_mul' bug is enabled
+  static final class MulWrongShiftNode extends BinaryNode {
+
+    MulWrongShiftNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      final boolean isPowerOfTwo = (rightValue > 1) && ((rightValue & (rightValue - 1)) == 0);
+
+      if (isPowerOfTwo) {
+        return rightValue;
+      } else {
+        return leftValue * rightValue;
+      }
+    }
+
+  }
+
+  static final class DivNode extends BinaryNode {
+
+    DivNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult || rightValue == 0) {
+        return undefined(interpreter);
+      }
+
+      return leftValue / rightValue;
+    }
+
+  }
+
+  // only used if the 'div_by_zero' bug is enabled
+  static final class DivUncheckedNode extends BinaryNode {
+
+    DivUncheckedNode(final ExpressionNode left, final ExpressionNode right) {
+      super(left, right);
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long leftValue = this.left.evaluate(interpreter);
+      final boolean leftUndefined = interpreter.undefinedResult;
+
+      final long rightValue = this.right.evaluate(interpreter);
+
+      if (leftUndefined || interpreter.undefinedResult) {
+        return undefined(interpreter);
+      }
+
+      return leftValue / rightValue;
+    }
+
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  static final class CallNode extends ExpressionNode {
+
+    private final FunctionNode callee;
+
+    private final ExpressionNode[] arguments;
+
+    // the frame slots of the callee's parameters
+    private final int[] parameterSlots;
+
+    CallNode(final FunctionNode callee, final ExpressionNode[] arguments,
+        final int[] parameterSlots) {
+      assert (arguments.length == parameterSlots.length);
+
+      this.callee = callee;
+      this.arguments = arguments;
+      this.parameterSlots = parameterSlots;
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final int frame = evaluateArguments(interpreter);
+
+      interpreter.checkCallDepth();
+
+      return interpreter.call(this.callee, frame);
+    }
+
+    // allocates the frame of the callee and stores the arguments in it; returns the frame
+    final int evaluateArguments(final ClosureInterpreter interpreter) {
+      final int frame = interpreter.allocateFrame(this.callee.frameSize);
+
+      for (int index = 0; index < this.arguments.length; ++index) {
+        final long value = this.arguments[index].evaluate(interpreter);
+
+        // NOTE: the frames may have been reallocated while the argument has been evaluated
+        final int slot = frame + this.parameterSlots[index];
+        interpreter.values[slot] = value;
+        interpreter.undefinedValues[slot] = interpreter.undefinedResult;
+      }
+
+      return frame;
+    }
+
+  }
+
+  // the callee cannot be determined at run time either
+  static final class UnresolvedCallNode extends ExpressionNode {
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      throw new NullPointerException("callee has not been resolved");
+    }
+
+  }
+
+  static final class PrintNode extends ExpressionNode {
+
+    private final ExpressionNode argument;
+    private final SourcePosition argumentPosition;
+
+    PrintNode(final ExpressionNode argument, final SourcePosition argumentPosition) {
+      this.argument = argument;
+      this.argumentPosition = argumentPosition;
+    }
+
+    @Override
+    final long evaluate(final ClosureInterpreter interpreter) {
+      final long value = this.argument.evaluate(interpreter);
+
+      if (interpreter.undefinedResult) {
+        if (interpreter.abortOnUndefinedBehavior) {
+          throw InvalidProgramException.dynamicallyInvalid(
+              this.argumentPosition, "undefined output");
+        }
+
+        interpreter.output.print(NumberValue.UNDEFINED);
+      } else {
+        interpreter.output.print(new NumberValue(value));
+      }
+
+      // 'print()' does not return a value
+      return undefined(interpreter);
+    }
+
+  }
+
+}
@@ -0,0 +1,29 @@
+package i2.act.examples.minic.interpreter.closure;
+
+import i2.act.examples.minic.frontend.semantics.types.Type;
+
+final class FunctionNode extends Node {
+
+  final String name;
+
+  // number of frame slots (i.e., parameters and local variables)
+  final int frameSize;
+
+  // return type as annotated at the function's type name (used if the end of the body is reached)
+  final Type annotatedReturnType;
+
+  // set once all functions have been created (such that calls can refer to any function)
+  StatementNode body;
+
+  FunctionNode(final String name, final int frameSize, final Type annotatedReturnType) {
+    this.name = name;
+    this.frameSize = frameSize;
+    this.annotatedReturnType = annotatedReturnType;
+  }
+
+  @Override
+  public final String toString() {
+    return this.name;
+  }
+
+}
@@ -0,0 +1,11 @@
+package i2.act.examples.minic.interpreter.closure;
+
+// An executable node of the closure engine, i.e., an AST node that has been converted once into an
+// object that executes exactly this node (see 'ClosureCompiler'). All operands (e.g., frame slots,
+// callees, and the variants of the operators that are selected by the injected bugs) are resolved
+// when the node is created.
+abstract class Node {
+
+  // intentionally left blank
+
+}
@@ -0,0 +1,9 @@
+package i2.act.examples.minic.interpreter.closure;
+
+abstract class StatementNode extends Node {
+
+  // returns 'true' if a return statement has been executed (i.e., the remaining statements of the
+  // enclosing function call are skipped)
+  abstract boolean execute(final ClosureInterpreter interpreter);
+
+}
@@ -0,0 +1,273 @@
+package i2.act.examples.minic.interpreter.closure;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.frontend.semantics.types.AtomicType;
+import i2.act.examples.minic.frontend.semantics.types.Type;
+import i2.act.examples.minic.interpreter.closure.ExpressionNodes.CallNode;
+
+final class StatementNodes {
+
+  private StatementNodes() {
+    // intentionally left blank
+  }
+
+  // ===============================================================================================
+
+  static final class BlockNode extends StatementNode {
+
+    private final StatementNode[] statements;
+
+    BlockNode(final StatementNode[] statements) {
+      this.statements = statements;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      for (final StatementNode statement : this.statements) {
+        if (statement.execute(interpreter)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+  }
+
+  static final class AssignLocalNode extends StatementNode {
+
+    private final int slot;
+    private final ExpressionNode value;
+
+    AssignLocalNode(final int slot, final ExpressionNode value) {
+      this.slot = slot;
+      this.value = value;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      final long value = this.value.evaluate(interpreter);
+
+      final int index = interpreter.frameBase + this.slot;
+      interpreter.values[index] = value;
+      interpreter.undefinedValues[index] = interpreter.undefinedResult;
+
+      return false;
+    }
+
+  }
+
+  static final class AssignGlobalNode extends StatementNode {
+
+    private final int index;
+    private final ExpressionNode value;
+
+    AssignGlobalNode(final int index, final ExpressionNode value) {
+      this.index = index;
+      this.value = value;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      final long value = this.value.evaluate(interpreter);
+
+      interpreter.globals[this.index] = value;
+      interpreter.undefinedGlobals[this.index] = interpreter.undefinedResult;
+
+      return false;
+    }
+
+  }
+
+  static final class CallStatementNode extends StatementNode {
+
+    private final ExpressionNode call;
+
+    CallStatementNode(final ExpressionNode call) {
+      this.call = call;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      this.call.evaluate(interpreter);
+
+      return false;
+    }
+
+  }
+
+  static final class IfNode extends StatementNode {
+
+    private final ExpressionNode condition;
+    private final SourcePosition conditionPosition;
+
+    private final StatementNode thenBlock;
+
+    // 'null' if there is no else block
+    private final StatementNode elseBlock;
+
+    IfNode(final ExpressionNode condition, final SourcePosition conditionPosition,
+        final StatementNode thenBlock, final StatementNode elseBlock) {
+      this.condition = condition;
+      this.conditionPosition = conditionPosition;
+      this.thenBlock = thenBlock;
+      this.elseBlock = elseBlock;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      final long conditionValue = this.condition.evaluate(interpreter);
+
+      if (interpreter.undefinedResult) {
+        if (interpreter.abortOnUndefinedBehavior) {
+          throw InvalidProgramException.dynamicallyInvalid(
+              this.conditionPosition, "undefined control flow");
+        }
+      } else if (conditionValue != 0) {
+        return this.thenBlock.execute(interpreter);
+      }
+
+      if (this.elseBlock != null) {
+        return this.elseBlock.execute(interpreter);
+      }
+
+      return false;
+    }
+
+  }
+
+  static final class WhileNode extends StatementNode {
+
+    private final ExpressionNode condition;
+    private final SourcePosition conditionPosition;
+
+    private final StatementNode body;
+
+    WhileNode(final ExpressionNode condition, final SourcePosition conditionPosition,
+        final StatementNode body) {
+      this.condition = condition;
+      this.conditionPosition = conditionPosition;
+      this.body = body;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      int numberOfIterations = 0;
+
+      while (true) {
+        interpreter.step();
+
+        final long conditionValue = this.condition.evaluate(interpreter);
+
+        if (interpreter.undefinedResult) {
+          if (interpreter.abortOnUndefinedBehavior) {
+            throw InvalidProgramException.dynamicallyInvalid(
+                this.conditionPosition, "undefined control flow");
+          }
+
+          return false;
+        }
+
+        if (conditionValue == 0) {
+          return false;
+        }
+
+        ClosureInterpreter.checkNumberOfSteps(
+            ++numberOfIterations, interpreter.maxNumberOfLoopIterations);
+
+        if (this.body.execute(interpreter)) {
+          return true;
+        }
+      }
+    }
+
+  }
+
+  static final class ReturnValueNode extends StatementNode {
+
+    private final ExpressionNode value;
+
+    // return type of the enclosing function (as determined by the semantic analysis)
+    private final Type returnType;
+
+    ReturnValueNode(final ExpressionNode value, final Type returnType) {
+      this.value = value;
+      this.returnType = returnType;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      assert (this.returnType == AtomicType.INT);
+
+      interpreter.returnValue = this.value.evaluate(interpreter);
+      interpreter.undefinedReturnValue = interpreter.undefinedResult;
+      interpreter.hasReturnValue = true;
+
+      return true;
+    }
+
+  }
+
+  // a self-recursive tail call (see 'ReturnStatement.isSelfTailCall()'): the frame of the callee
+  // replaces the current frame and the callee is executed by the enclosing call (see
+  // 'ClosureInterpreter.call()'), i.e., the Java stack does not grow
+  static final class TailCallNode extends StatementNode {
+
+    private final CallNode call;
+
+    TailCallNode(final CallNode call) {
+      this.call = call;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      final int frame = this.call.evaluateArguments(interpreter);
+
+      interpreter.checkCallDepth();
+      interpreter.replaceFrame(frame);
+
+      interpreter.tailCalling = true;
+
+      return true;
+    }
+
+  }
+
+  static final class ReturnVoidNode extends StatementNode {
+
+    // return type of the enclosing function (as determined by the semantic analysis)
+    private final Type returnType;
+
+    ReturnVoidNode(final Type returnType) {
+      this.returnType = returnType;
+    }
+
+    @Override
+    final boolean execute(final ClosureInterpreter interpreter) {
+      interpreter.step();
+
+      assert (this.returnType == AtomicType.VOID);
+
+      interpreter.returnValue = 0;
+      interpreter.undefinedReturnValue = true;
+      interpreter.hasReturnValue = false;
+
+      return true;
+    }
+
+  }
+
+}
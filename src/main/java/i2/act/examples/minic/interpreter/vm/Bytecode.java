@@ -0,0 +1,81 @@
+package i2.act.examples.minic.interpreter.vm;
+
+public final class Bytecode {
+
+  // NOTE: all operands are stored inline in the code array (directly after the opcode); 'dst',
+  // 'src', 'lhs', 'rhs' and 'cond' denote registers (i.e., offsets relative to the frame base),
+  // 'target' denotes an absolute code position
+
+  // CONST dst constant_index
+  public static final int CONST = 0;
+
+  // MOVE dst src
+  public static final int MOVE = 1;
+
+  // LOAD_GLOBAL dst global_index
+  public static final int LOAD_GLOBAL = 2;
+
+  // STORE_GLOBAL global_index src
+  public static final int STORE_GLOBAL = 3;
+
+  // <BINARY_OPERATION> dst lhs rhs
+  public static final int ADD = 4;
+  public static final int SUB = 5;
+  public static final int MUL = 6;
+  public static final int MUL_WRONG_SHIFT = 7;
+  public static final int DIV = 8;
+  public static final int DIV_UNCHECKED = 9;
+  public static final int EQUALS = 10;
+  public static final int NOT_EQUALS = 11;
+  public static final int LESS_THAN = 12;
+  public static final int LESS_EQUALS = 13;
+  public static final int GREATER_THAN = 14;
+  public static final int GREATER_EQUALS = 15;
+  public static final int OR = 16;
+  public static final int AND = 17;
+
+  // SHORTCUT_OR dst lhs target
+  public static final int SHORTCUT_OR = 18;
+
+  // SHORTCUT_AND dst lhs target
+  public static final int SHORTCUT_AND = 19;
+
+  // JUMP target
+  public static final int JUMP = 20;
+
+  // BRANCH_FALSE cond target position_index
+  public static final int BRANCH_FALSE = 21;
+
+  // STEP
+  public static final int STEP = 22;
+
+  // LOOP_ENTER counter
+  public static final int LOOP_ENTER = 23;
+
+  // LOOP_ITERATION counter
+  public static final int LOOP_ITERATION = 24;
+
+  // PRINT src position_index
+  public static final int PRINT = 25;
+
+  // CALL function_index first_argument number_of_arguments
+  // (the callee's frame starts at 'first_argument', its return value is stored there as well)
+  public static final int CALL = 26;
+
+  // CALL_UNRESOLVED
+  public static final int CALL_UNRESOLVED = 27;
+
+  // RETURN src
+  public static final int RETURN = 28;
+
+  // RETURN_VOID
+  public static final int RETURN_VOID = 29;
+
+  // RETURN_END
+  public static final int RETURN_END = 30;
+
+  private Bytecode() {
+    // intentionally left blank
+  }
+
+}
@@ -0,0 +1,601 @@
+package i2.act.examples.minic.interpreter.vm;
+
+import i2.act.examples.minic.bugs.Bug;
+import i2.act.examples.minic.bugs.BugConfiguration;
+import i2.act.examples.minic.frontend.ast.*;
+import i2.act.examples.minic.frontend.ast.visitors.ASTVisitor;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.frontend.semantics.symbols.Symbol;
+import i2.act.examples.minic.frontend.semantics.types.FunctionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class BytecodeCompiler implements ASTVisitor<Void, Integer> {
+
+  public static final CompiledProgram compile(final Program program) {
+    return compile(program, BugConfiguration.NONE);
+  }
+
+  public static final CompiledProgram compile(final Program program, final BugConfiguration bugs) {
+    final BytecodeCompiler compiler = new BytecodeCompiler(bugs);
+    return compiler.compileProgram(program);
+  }
+
+  // ===============================================================================================
+
+  private static final int NO_REGISTER = -1;
+
+  private static final class CodeBuffer {
+
+    private int[] code;
+    private int size;
+
+    // position of the destination operand of the last emitted instruction (if it may be changed)
+    private int lastDestination;
+
+    public CodeBuffer() {
+      this.code = new int[64];
+      this.size = 0;
+      this.lastDestination = -1;
+    }
+
+    public final int position() {
+      return this.size;
+    }
+
+    public final void emit(final int... values) {
+      if (this.size + values.length > this.code.length) {
+        final int newLength = Math.max(2 * this.code.length, this.size + values.length);
+        this.code = Arrays.copyOf(this.code, newLength);
+      }
+
+      System.arraycopy(values, 0, this.code, this.size, values.length);
+      this.size += values.length;
+
+      this.lastDestination = -1;
+    }
+
+    public final void emitWithDestination(final int... values) {
+      final int instructionStart = this.size;
+      emit(values);
+
+      this.lastDestination = instructionStart + 1;
+    }
+
+    public final void patch(final int position, final int value) {
+      this.code[position] = value;
+    }
+
+    public final void bindLabel(final int position) {
+      patch(position, this.size);
+
+      // the last instruction is now a jump target -> its destination must not be changed
+      this.lastDestination = -1;
+    }
+
+    public final boolean retarget(final int register, final int newRegister) {
+      if (this.lastDestination == -1 || this.code[this.lastDestination] != register) {
+        return false;
+      }
+
+      this.code[this.lastDestination] = newRegister;
+      this.lastDestination = -1;
+
+      return true;
+    }
+
+    public final int[] toArray() {
+      return Arrays.copyOf(this.code, this.size);
+    }
+
+  }
+
+  // ===============================================================================================
+
+  private final boolean noShortcutOr;
+  private final boolean noShortcutAnd;
+  private final boolean wrongShiftMul;
+  private final boolean divByZero;
+  private final boolean missingInitGlobals;
+
+  private final Map<Symbol, Integer> functionIndices;
+
+  private final List<Long> constants;
+  private final Map<Long, Integer> constantIndices;
+
+  private final List<SourcePosition> positions;
+
+  // state of the function that is currently compiled
+  private CodeBuffer code;
+  private int numberOfLocals;
+  private int nextRegister;
+  private int maxRegister;
+
+  private BytecodeCompiler(final BugConfiguration bugs) {
+    this.noShortcutOr = bugs.isEnabled(Bug.NO_SHORTCUT_OR);
+    this.noShortcutAnd = bugs.isEnabled(Bug.NO_SHORTCUT_AND);
+    this.wrongShiftMul = bugs.isEnabled(Bug.WRONG_SHIFT_MUL);
+    this.divByZero = bugs.isEnabled(Bug.DIV_BY_ZERO);
+    this.missingInitGlobals = bugs.isEnabled(Bug.MISSING_INIT_GLOBALS);
+
+    this.functionIndices = new HashMap<>();
+
+    this.constants = new ArrayList<>();
+    this.constantIndices = new HashMap<>();
+
+    this.positions = new ArrayList<>();
+  }
+
+  private final CompiledProgram compileProgram(final Program program) {
+    final List<FunctionDeclaration> functionDeclarations = new ArrayList<>();
+
+    for (final Declaration declaration : program.getDeclarations()) {
+      // global variables use the indices that have been assigned by the semantic analysis
+      if (declaration instanceof FunctionDeclaration) {
+        this.functionIndices.put(declaration.getSymbol(), functionDeclarations.size());
+        functionDeclarations.add((FunctionDeclaration) declaration);
+      }
+    }
+
+    final CompiledFunction[] functions = new CompiledFunction[functionDeclarations.size()];
+    CompiledFunction mainFunction = null;
+
+    for (int index = 0; index < functions.length; ++index) {
+      final FunctionDeclaration functionDeclaration = functionDeclarations.get(index);
+      functions[index] = compileFunction(functionDeclaration);
+
+      if ("main".equals(functionDeclaration.getName().getName())) {
+        mainFunction = functions[index];
+      }
+    }
+
+    final long[] constants = new long[this.constants.size()];
+    for (int index = 0; index < constants.length; ++index) {
+      constants[index] = this.constants.get(index);
+    }
+
+    final SourcePosition[] positions =
+        this.positions.toArray(new SourcePosition[this.positions.size()]);
+
+    return new CompiledProgram(functions, mainFunction, constants, positions,
+        program.getNumberOfGlobals(), !this.missingInitGlobals);
+  }
+
+  private final CompiledFunction compileFunction(final FunctionDeclaration functionDeclaration) {
+    this.code = new CodeBuffer();
+
+    // parameters and local variables occupy the frame slots assigned by the semantic analysis
+    // (parameters come first), all temporaries are allocated above them
+    final List<VariableDeclaration> parameters = functionDeclaration.getParameters();
+    this.numberOfLocals = functionDeclaration.getFrameSize();
+    this.nextRegister = this.numberOfLocals;
+    this.maxRegister = this.numberOfLocals;
+
+    functionDeclaration.accept(this, null);
+
+    assert (functionDeclaration.getSymbol().getType() instanceof FunctionType);
+    final FunctionType functionType = (FunctionType) functionDeclaration.getSymbol().getType();
+
+    return new CompiledFunction(functionDeclaration.getName().getName(), this.code.toArray(),
+        parameters.size(), this.numberOfLocals, this.maxRegister, functionType.getReturnType(),
+        functionDeclaration.getReturnType().getType());
+  }
+
+  private final int allocateRegister() {
+    final int register = this.nextRegister++;
+    this.maxRegister = Math.max(this.maxRegister, this.nextRegister);
+
+    return register;
+  }
+
+  private final int constantIndex(final long value) {
+    final Integer index = this.constantIndices.get(value);
+
+    if (index != null) {
+      return index;
+    }
+
+    final int newIndex = this.constants.size();
+    this.constants.add(value);
+    this.constantIndices.put(value, newIndex);
+
+    return newIndex;
+  }
+
+  private final int positionIndex(final SourcePosition position) {
+    this.positions.add(position);
+    return this.positions.size() - 1;
+  }
+
+  // undefined constants are compiled as usual (i.e., the VM computes the undefined result again)
+  private static final boolean isDefinedConstant(final Expression expression) {
+    if (!(expression instanceof BinaryExpression)) {
+      return false;
+    }
+
+    final BinaryExpression binaryExpression = (BinaryExpression) expression;
+    return binaryExpression.isConstant() && !binaryExpression.isUndefinedConstant();
+  }
+
+  private final int compileExpression(final Expression expression, final int register) {
+    // compiles the expression such that its value ends up in the given register
+    this.nextRegister = register;
+
+    final int resultRegister = expression.accept(this, null);
+
+    if (resultRegister != register && !this.code.retarget(resultRegister, register)) {
+      this.code.emitWithDestination(Bytecode.MOVE, register, resultRegister);
+    }
+
+    this.nextRegister = register + 1;
+    this.maxRegister = Math.max(this.maxRegister, this.nextRegister);
+
+    return register;
+  }
+
+  @Override
+  public final Integer visit(final Program program, final Void unused) {
+    assert (false) : "programs are compiled via 'compileProgram()'";
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final VariableDeclaration variableDeclaration, final Void unused) {
+    // local variables are not initialized, global variables are initialized by the VM
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final FunctionDeclaration functionDeclaration, final Void unused) {
+    final Block body = functionDeclaration.getBody();
+    body.accept(this, null);
+
+    this.code.emit(Bytecode.RETURN_END);
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final Block block, final Void unused) {
+    for (final Statement statement : block.getStatements()) {
+      final int firstFreeRegister = this.nextRegister;
+      statement.accept(this, null);
+      this.nextRegister = firstFreeRegister;
+    }
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final TypeName typeName, final Void unused) {
+    // intentionally left blank
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final AssignStatement assignStatement, final Void unused) {
+    this.code.emit(Bytecode.STEP);
+
+    final Expression rightHandSide = assignStatement.getRightHandSide();
+    final int valueRegister = rightHandSide.accept(this, null);
+
+    final Symbol variable = assignStatement.getLeftHandSide().getSymbol();
+
+    if (variable.isGlobal()) {
+      this.code.emit(Bytecode.STORE_GLOBAL, variable.getFrameIndex(), valueRegister);
+    } else {
+      final int slot = variable.getFrameIndex();
+
+      if (valueRegister != slot && !this.code.retarget(valueRegister, slot)) {
+        this.code.emit(Bytecode.MOVE, slot, valueRegister);
+      }
+    }
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final FunctionCallStatement functionCallStatement,
+      final Void unused) {
+    this.code.emit(Bytecode.STEP);
+
+    final FunctionCall functionCall = functionCallStatement.getFunctionCall();
+    functionCall.accept(this, null);
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final IfStatement ifStatement, final Void unused) {
+    final int firstFreeRegister = this.nextRegister;
+
+    this.code.emit(Bytecode.STEP);
+
+    final Expression condition = ifStatement.getCondition();
+
+    if (isDefinedConstant(condition)) {
+      // only the branch that is taken is compiled
+      if (((BinaryExpression) condition).getConstantValue() != 0) {
+        ifStatement.getThenBlock().accept(this, null);
+      } else if (ifStatement.hasElseBlock()) {
+        ifStatement.getElseBlock().accept(this, null);
+      }
+
+      return NO_REGISTER;
+    }
+
+    final int conditionRegister = condition.accept(this, null);
+
+    this.code.emit(Bytecode.BRANCH_FALSE, conditionRegister, -1,
+        positionIndex(condition.getPosition()));
+    final int elseLabel = this.code.position() - 2;
+
+    this.nextRegister = firstFreeRegister;
+
+    final Block thenBlock = ifStatement.getThenBlock();
+    thenBlock.accept(this, null);
+
+    if (ifStatement.hasElseBlock()) {
+      this.code.emit(Bytecode.JUMP, -1);
+      final int endLabel = this.code.position() - 1;
+
+      this.code.bindLabel(elseLabel);
+
+      final Block elseBlock = ifStatement.getElseBlock();
+      elseBlock.accept(this, null);
+
+      this.code.bindLabel(endLabel);
+    } else {
+      this.code.bindLabel(elseLabel);
+    }
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final WhileLoop whileLoop, final Void unused) {
+    final Expression condition = whileLoop.getCondition();
+
+    if (isDefinedConstant(condition)) {
+      // the loop is either never entered or only left by a return statement
+      if (((BinaryExpression) condition).getConstantValue() == 0) {
+        this.code.emit(Bytecode.STEP);
+      } else {
+        final int counterRegister = allocateRegister();
+        this.code.emit(Bytecode.LOOP_ENTER, counterRegister);
+
+        final int conditionPosition = this.code.position();
+        this.code.emit(Bytecode.STEP);
+        this.code.emit(Bytecode.LOOP_ITERATION, counterRegister);
+
+        whileLoop.getBody().accept(this, null);
+
+        this.code.emit(Bytecode.JUMP, conditionPosition);
+      }
+
+      return NO_REGISTER;
+    }
+
+    final int counterRegister = allocateRegister();
+    this.code.emit(Bytecode.LOOP_ENTER, counterRegister);
+
+    final int conditionPosition = this.code.position();
+    this.code.emit(Bytecode.STEP);
+
+    final int conditionRegister = condition.accept(this, null);
+
+    this.code.emit(Bytecode.BRANCH_FALSE, conditionRegister, -1,
+        positionIndex(condition.getPosition()));
+    final int endLabel = this.code.position() - 2;
+
+    this.code.emit(Bytecode.LOOP_ITERATION, counterRegister);
+
+    this.nextRegister = counterRegister + 1;
+
+    final Block body = whileLoop.getBody();
+    body.accept(this, null);
+
+    this.code.emit(Bytecode.JUMP, conditionPosition);
+    this.code.bindLabel(endLabel);
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final ReturnStatement returnStatement, final Void unused) {
+    this.code.emit(Bytecode.STEP);
+
+    if (returnStatement.hasReturnValue()) {
+      final int valueRegister = returnStatement.getReturnValue().accept(this, null);
+      this.code.emit(Bytecode.RETURN, valueRegister);
+    } else {
+      this.code.emit(Bytecode.RETURN_VOID);
+    }
+
+    return NO_REGISTER;
+  }
+
+  @Override
+  public final Integer visit(final DeclarationStatement declarationStatement,
+      final Void unused) {
+    final Declaration declaration = declarationStatement.getDeclaration();
+    return declaration.accept(this, null);
+  }
+
+  @Override
+  public final Integer visit(final Identifier identifier, final Void unused) {
+    final Symbol variable = identifier.getSymbol();
+
+    if (variable.isGlobal()) {
+      final int register = allocateRegister();
+      this.code.emitWithDestination(Bytecode.LOAD_GLOBAL, register, variable.getFrameIndex());
+
+      return register;
+    } else {
+      // local variables can be used directly
+      return variable.getFrameIndex();
+    }
+  }
+
+  @Override
+  public final Integer visit(final Literal literal, final Void unused) {
+    final long value = literal.getValue();
+
+    final int register = allocateRegister();
+    this.code.emitWithDestination(Bytecode.CONST, register, constantIndex(value));
+
+    return register;
+  }
+
+  @Override
+  public final Integer visit(final BinaryExpression binaryExpression, final Void unused) {
+    if (isDefinedConstant(binaryExpression)) {
+      // the result has been computed by the constant folding (see 'Optimizer')
+      final int register = allocateRegister();
+      this.code.emitWithDestination(
+          Bytecode.CONST, register, constantIndex(binaryExpression.getConstantValue()));
+
+      return register;
+    }
+
+    final BinaryExpression.Operator operator = binaryExpression.getOperator();
+    final Expression leftHandSide = binaryExpression.getLeftHandSide();
+    final Expression rightHandSide = binaryExpression.getRightHandSide();
+
+    final int firstFreeRegister = this.nextRegister;
+
+    // OR and AND need special treatment due to shortcut evaluation
+    if ((operator == BinaryExpression.Operator.OR && !this.noShortcutOr)
+        || (operator == BinaryExpression.Operator.AND && !this.noShortcutAnd)) {
+      final int leftRegister = leftHandSide.accept(this, null);
+
+      this.nextRegister = firstFreeRegister;
+      final int resultRegister = allocateRegister();
+
+      final int opcode = (operator == BinaryExpression.Operator.OR)
+          ? (Bytecode.SHORTCUT_OR)
+          : (Bytecode.SHORTCUT_AND);
+
+      this.code.emit(opcode, resultRegister, leftRegister, -1);
+      final int endLabel = this.code.position() - 1;
+
+      compileExpression(rightHandSide, resultRegister);
+
+      this.code.bindLabel(endLabel);
+
+      return resultRegister;
+    }
+
+    final int leftRegister = leftHandSide.accept(this, null);
+    final int rightRegister = rightHandSide.accept(this, null);
+
+    this.nextRegister = firstFreeRegister;
+    final int resultRegister = allocateRegister();
+
+    final int opcode;
+    {
+      switch (operator) {
+        case OR: {
+          opcode = Bytecode.OR;
+          break;
+        }
+        case AND: {
+          opcode = Bytecode.AND;
+          break;
+        }
+        case EQUALS: {
+          opcode = Bytecode.EQUALS;
+          break;
+        }
+        case LESS_THAN: {
+          opcode = Bytecode.LESS_THAN;
+          break;
+        }
+        case LESS_EQUALS: {
+          opcode = Bytecode.LESS_EQUALS;
+          break;
+        }
+        case GREATER_THAN: {
+          opcode = Bytecode.GREATER_THAN;
+          break;
+        }
+        case GREATER_EQUALS: {
+          opcode = Bytecode.GREATER_EQUALS;
+          break;
+        }
+        case NOT_EQUALS: {
+          opcode = Bytecode.NOT_EQUALS;
+          break;
+        }
+        case ADD: {
+          opcode = Bytecode.ADD;
+          break;
+        }
+        case SUB: {
+          opcode = Bytecode.SUB;
+          break;
+        }
+        case MUL: {
+          // check for injected bug
+          opcode = (this.wrongShiftMul) ? (Bytecode.MUL_WRONG_SHIFT) : (Bytecode.MUL);
+          break;
+        }
+        case DIV: {
+          // check for injected bug
+          opcode = (this.divByZero) ? (Bytecode.DIV_UNCHECKED) : (Bytecode.DIV);
+          break;
+        }
+        default: {
+          assert (false) : "unknown binary operator: " + operator;
+          opcode = -1;
+          break;
+        }
+      }
+    }
+
+    this.code.emitWithDestination(opcode, resultRegister, leftRegister, rightRegister);
+
+    return resultRegister;
+  }
+
+  @Override
+  public final Integer visit(final FunctionCall functionCall, final Void unused) {
+    final Symbol calleeSymbol = functionCall.getCallee().getSymbol();
+    final List<Expression> arguments = functionCall.getArguments();
+
+    final int firstFreeRegister = this.nextRegister;
+
+    if (calleeSymbol == Symbol.PRINT) {
+      assert (arguments.size() == 1);
+      final Expression argument = arguments.get(0);
+      final int argumentRegister = argument.accept(this, null);
+
+      this.code.emit(Bytecode.PRINT, argumentRegister, positionIndex(argument.getPosition()));
+
+      this.nextRegister = firstFreeRegister;
+      return NO_REGISTER;
+    } else if (calleeSymbol == null) {
+      // the callee cannot be determined at run time either
+      this.code.emit(Bytecode.CALL_UNRESOLVED);
+      return NO_REGISTER;
+    } else {
+      assert (this.functionIndices.containsKey(calleeSymbol));
+      final int functionIndex = this.functionIndices.get(calleeSymbol);
+
+      // arguments are placed in consecutive registers which form the start of the callee's frame
+      for (int index = 0; index < arguments.size(); ++index) {
+        compileExpression(arguments.get(index), firstFreeRegister + index);
+      }
+
+      this.code.emit(Bytecode.CALL, functionIndex, firstFreeRegister, arguments.size());
+
+      this.nextRegister = firstFreeRegister;
+      return allocateRegister();
+    }
+  }
+
+}
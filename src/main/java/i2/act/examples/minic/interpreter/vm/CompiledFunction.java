@@ -0,0 +1,39 @@
+package i2.act.examples.minic.interpreter.vm;
+
+import i2.act.examples.minic.frontend.semantics.types.Type;
+
+public final class CompiledFunction {
+
+  public final String name;
+
+  public final int[] code;
+
+  public final int numberOfParameters;
+  public final int numberOfLocals;
+  public final int frameSize;
+
+  // return type as determined by the semantic analysis
+  public final Type returnType;
+
+  // return type as annotated at the function's type name (used if the end of the body is reached)
+  public final Type annotatedReturnType;
+
+  public CompiledFunction(final String name, final int[] code, final int numberOfParameters,
+      final int numberOfLocals, final int frameSize, final Type returnType,
+      final Type annotatedReturnType) {
+    this.name = name;
+    this.code = code;
+    this.numberOfParameters = numberOfParameters;
+    this.numberOfLocals = numberOfLocals;
+    this.frameSize = frameSize;
+    this.returnType = returnType;
+    this.annotatedReturnType = annotatedReturnType;
+  }
+
+  @Override
+  public final String toString() {
+    return String.format("%s[%d instructions, %d registers]",
+        this.name, this.code.length, this.frameSize);
+  }
+
+}
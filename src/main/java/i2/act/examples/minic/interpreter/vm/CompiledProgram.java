@@ -0,0 +1,29 @@
+package i2.act.examples.minic.interpreter.vm;
+
+import i2.act.examples.minic.frontend.info.SourcePosition;
+
+public final class CompiledProgram {
+
+  public final CompiledFunction[] functions;
+
+  // 'null' if the program does not contain a 'main' function
+  public final CompiledFunction mainFunction;
+
+  public final long[] constants;
+  public final SourcePosition[] positions;
+
+  public final int numberOfGlobals;
+  public final boolean initializeGlobals;
+
+  public CompiledProgram(final CompiledFunction[] functions, final CompiledFunction mainFunction,
+      final long[] constants, final SourcePosition[] positions, final int numberOfGlobals,
+      final boolean initializeGlobals) {
+    this.functions = functions;
+    this.mainFunction = mainFunction;
+    this.constants = constants;
+    this.positions = positions;
+    this.numberOfGlobals = numberOfGlobals;
+    this.initializeGlobals = initializeGlobals;
+  }
+
+}
@@ -0,0 +1,502 @@
+package i2.act.examples.minic.interpreter.vm;
+
+import i2.act.examples.minic.errors.InvalidProgramException;
+import i2.act.examples.minic.frontend.info.SourcePosition;
+import i2.act.examples.minic.frontend.semantics.types.AtomicType;
+import i2.act.examples.minic.frontend.semantics.types.Type;
+import i2.act.examples.minic.interpreter.ExecutionBudget;
+import i2.act.examples.minic.interpreter.ExecutionLimits;
+import i2.act.examples.minic.interpreter.Interpreter;
+import i2.act.examples.minic.interpreter.Interpreter.NumberValue;
+import i2.act.examples.minic.interpreter.Interpreter.Value;
+import i2.act.examples.minic.interpreter.OutputSink;
+import i2.act.util.Pair;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class VirtualMachine {
+
+  public static final Pair<Value, List<Value>> execute(final CompiledProgram program,
+      final boolean abortOnUndefinedBehavior, final ExecutionLimits limits,
+      final ExecutionBudget budget, final OutputSink output) {
+    final VirtualMachine virtualMachine =
+        new VirtualMachine(program, abortOnUndefinedBehavior, limits, budget, output);
+
+    final Value exitValue = virtualMachine.run();
+
+    return new Pair<Value, List<Value>>(exitValue, output.getOutput());
+  }
+
+  // ===============================================================================================
+
+  private static final int INITIAL_NUMBER_OF_REGISTERS = 1024;
+  private static final int INITIAL_CALL_DEPTH = 64;
+
+  // the maximum call depth if no limit is given (i.e., a program that recurses infinitely is
+  // aborted in the same way as by the other engines when they run out of stack space, instead of
+  // growing the call stack and the registers until the JVM runs out of memory)
+  public static final int DEFAULT_MAX_CALL_DEPTH = 1 << 20;
+
+  // the maximum number of registers of all active frames (i.e., 72 MiB for the registers and their
+  // 'undefined' flags), which bounds the memory of deep (but bounded) recursions with large frames
+  public static final int MAX_NUMBER_OF_REGISTERS = 1 << 23;
+
+  private final CompiledProgram program;
+
+  private final boolean abortOnUndefinedBehavior;
+  private final int maxNumberOfSteps;
+  private final int maxNumberOfLoopIterations;
+  private final int maxCallDepth;
+  private final ExecutionBudget budget;
+
+  private final OutputSink output;
+
+  private final long[] globals;
+  private final boolean[] undefinedGlobals;
+
+  // registers of all active frames (the 'undefined' flags are kept in a separate array)
+  private long[] registers;
+  private boolean[] undefined;
+
+  // call stack (caller function, return address and frame base of each active call except for the
+  // call of 'main'), i.e., the call depth of the program does not depend on the Java stack
+  private CompiledFunction[] callerFunctions;
+  private int[] returnAddresses;
+  private int[] callerBases;
+  private int callDepth;
+
+  private int numberOfSteps;
+
+  private VirtualMachine(final CompiledProgram program, final boolean abortOnUndefinedBehavior,
+      final ExecutionLimits limits, final ExecutionBudget budget, final OutputSink output) {
+    this.program = program;
+
+    this.abortOnUndefinedBehavior = abortOnUndefinedBehavior;
+    this.maxNumberOfSteps = limits.getMaxNumberOfSteps();
+    this.maxNumberOfLoopIterations = limits.getMaxNumberOfLoopIterations();
+    this.maxCallDepth = (limits.getMaxCallDepth() == Interpreter.UNBOUNDED)
+        ? (DEFAULT_MAX_CALL_DEPTH)
+        : (limits.getMaxCallDepth());
+    this.budget = budget;
+
+    this.output = output;
+
+    this.globals = new long[program.numberOfGlobals];
+    this.undefinedGlobals = new boolean[program.numberOfGlobals];
+
+    this.registers = new long[INITIAL_NUMBER_OF_REGISTERS];
+    this.undefined = new boolean[INITIAL_NUMBER_OF_REGISTERS];
+
+    this.callerFunctions = new CompiledFunction[INITIAL_CALL_DEPTH];
+    this.returnAddresses = new int[INITIAL_CALL_DEPTH];
+    this.callerBases = new int[INITIAL_CALL_DEPTH];
+    this.callDepth = 0;
+  }
+
+  private final void checkNumberOfSteps(final long numberOfSteps, final int maxNumberOfSteps) {
+    if (maxNumberOfSteps != Interpreter.UNBOUNDED && numberOfSteps > maxNumberOfSteps) {
+      throw InvalidProgramException.nonTerminating(SourcePosition.UNKNOWN, "reached timeout");
+    }
+  }
+
+  private static final boolean isPowerOfTwo(final long value) {
+    return (value > 1) && ((value & (value - 1)) == 0);
+  }
+
+  private static final InvalidProgramException reachedMaximumCallDepth() {
+    return InvalidProgramException.nonTerminating(
+        SourcePosition.UNKNOWN, "reached maximum call depth");
+  }
+
+  private final void ensureNumberOfRegisters(final int numberOfRegisters) {
+    if (numberOfRegisters > this.registers.length) {
+      // running out of registers is reported like running out of stack space in the other engines
+      if (numberOfRegisters > MAX_NUMBER_OF_REGISTERS) {
+        throw reachedMaximumCallDepth();
+      }
+
+      final int newLength = Math.min(
+          Math.max(2 * this.registers.length, numberOfRegisters), MAX_NUMBER_OF_REGISTERS);
+
+      this.registers = Arrays.copyOf(this.registers, newLength);
+      this.undefined = Arrays.copyOf(this.undefined, newLength);
+    }
+  }
+
+  private final void pushCall(final CompiledFunction callerFunction, final int returnAddress,
+      final int callerBase) {
+    // the call of 'main' is not on the call stack
+    if (this.callDepth + 1 >= this.maxCallDepth) {
+      throw reachedMaximumCallDepth();
+    }
+
+    if (this.callDepth == this.callerFunctions.length) {
+      final int newLength = 2 * this.callDepth;
+
+      this.callerFunctions = Arrays.copyOf(this.callerFunctions, newLength);
+      this.returnAddresses = Arrays.copyOf(this.returnAddresses, newLength);
+      this.callerBases = Arrays.copyOf(this.callerBases, newLength);
+    }
+
+    this.callerFunctions[this.callDepth] = callerFunction;
+    this.returnAddresses[this.callDepth] = returnAddress;
+    this.callerBases[this.callDepth] = callerBase;
+    ++this.callDepth;
+  }
+
+  private final Value run() {
+    this.numberOfSteps = 0;
+
+    for (int index = 0; index < this.globals.length; ++index) {
+      // check for injected bug
+      this.undefinedGlobals[index] = !this.program.initializeGlobals;
+    }
+
+    final CompiledFunction mainFunction = this.program.mainFunction;
+
+    if (mainFunction == null) {
+      return new NumberValue(0);
+    }
+
+    ensureNumberOfRegisters(mainFunction.frameSize);
+    Arrays.fill(this.undefined, 0, mainFunction.numberOfLocals, true);
+
+    final long[] constants = this.program.constants;
+    final long[] globals = this.globals;
+    final boolean[] undefinedGlobals = this.undefinedGlobals;
+
+    long[] registers = this.registers;
+    boolean[] undefined = this.undefined;
+
+    CompiledFunction function = mainFunction;
+    int[] code = function.code;
+    int base = 0;
+    int pc = 0;
+
+    while (true) {
+      switch (code[pc]) {
+        case Bytecode.CONST: {
+          final int destination = base + code[pc + 1];
+
+          registers[destination] = constants[code[pc + 2]];
+          undefined[destination] = false;
+
+          pc += 3;
+          break;
+        }
+        case Bytecode.MOVE: {
+          final int destination = base + code[pc + 1];
+          final int source = base + code[pc + 2];
+
+          registers[destination] = registers[source];
+          undefined[destination] = undefined[source];
+
+          pc += 3;
+          break;
+        }
+        case Bytecode.LOAD_GLOBAL: {
+          final int destination = base + code[pc + 1];
+          final int global = code[pc + 2];
+
+          registers[destination] = globals[global];
+          undefined[destination] = undefinedGlobals[global];
+
+          pc += 3;
+          break;
+        }
+        case Bytecode.STORE_GLOBAL: {
+          final int global = code[pc + 1];
+          final int source = base + code[pc + 2];
+
+          globals[global] = registers[source];
+          undefinedGlobals[global] = undefined[source];
+
+          pc += 3;
+          break;
+        }
+        case Bytecode.ADD:
+        case Bytecode.SUB:
+        case Bytecode.MUL:
+        case Bytecode.MUL_WRONG_SHIFT:
+        case Bytecode.DIV:
+        case Bytecode.DIV_UNCHECKED:
+        case Bytecode.EQUALS:
+        case Bytecode.NOT_EQUALS:
+        case Bytecode.LESS_THAN:
+        case Bytecode.LESS_EQUALS:
+        case Bytecode.GREATER_THAN:
+        case Bytecode.GREATER_EQUALS:
+        case Bytecode.OR:
+        case Bytecode.AND: {
+          final int destination = base + code[pc + 1];
+          final int leftRegister = base + code[pc + 2];
+          final int rightRegister = base + code[pc + 3];
+
+          final long left = registers[leftRegister];
+          final long right = registers[rightRegister];
+
+          pc += 4;
+
+          if (undefined[leftRegister] || undefined[rightRegister]) {
+            // NOTE: this is only relevant if the 'no_shortcut_or' bug is enabled
+            if (code[pc - 4] == Bytecode.OR
+                && ((!undefined[leftRegister] && left != 0)
+                    || (!undefined[rightRegister] && right != 0))) {
+              registers[destination] = 1;
+              undefined[destination] = false;
+            } else {
+              undefined[destination] = true;
+            }
+
+            break;
+          }
+
+          final long result;
+          {
+            switch (code[pc - 4]) {
+              case Bytecode.ADD: {
+                result = left + right;
+                break;
+              }
+              case Bytecode.SUB: {
+                result = left - right;
+                break;
+              }
+              case Bytecode.MUL: {
+                result = left * right;
+                break;
+              }
+              case Bytecode.MUL_WRONG_SHIFT: {
+                result = (isPowerOfTwo(right)) ? (right) : (left * right);
+                break;
+              }
+              case Bytecode.DIV: {
+                if (right == 0) {
+                  undefined[destination] = true;
+                  continue;
+                }
+
+                result = left / right;
+                break;
+              }
+              case Bytecode.DIV_UNCHECKED: {
+                result = left / right;
+                break;
+              }
+              case Bytecode.EQUALS: {
+                result = (left == right) ? (1) : (0);
+                break;
+              }
+              case Bytecode.NOT_EQUALS: {
+                result = (left != right) ? (1) : (0);
+                break;
+              }
+              case Bytecode.LESS_THAN: {
+                result = (left < right) ? (1) : (0);
+                break;
+              }
+              case Bytecode.LESS_EQUALS: {
+                result = (left <= right) ? (1) : (0);
+                break;
+              }
+              case Bytecode.GREATER_THAN: {
+                result = (left > right) ? (1) : (0);
+                break;
+              }
+              case Bytecode.GREATER_EQUALS: {
+                result = (left >= right) ? (1) : (0);
+                break;
+              }
+              case Bytecode.OR: {
+                result = (left != 0 || right != 0) ? (1) : (0);
+                break;
+              }
+              case Bytecode.AND: {
+                result = (left != 0 && right != 0) ? (1) : (0);
+                break;
+              }
+              default: {
+                throw new RuntimeException("unknown binary operation: " + code[pc - 4]);
+              }
+            }
+          }
+
+          registers[destination] = result;
+          undefined[destination] = false;
+
+          break;
+        }
+        case Bytecode.SHORTCUT_OR:
+        case Bytecode.SHORTCUT_AND: {
+          final int destination = base + code[pc + 1];
+          final int leftRegister = base + code[pc + 2];
+
+          if (undefined[leftRegister]) {
+            undefined[destination] = true;
+            pc = code[pc + 3];
+          } else if ((registers[leftRegister] != 0) == (code[pc] == Bytecode.SHORTCUT_OR)) {
+            // result is already determined by the left operand
+            registers[destination] = registers[leftRegister];
+            undefined[destination] = false;
+            pc = code[pc + 3];
+          } else {
+            pc += 4;
+          }
+
+          break;
+        }
+        case Bytecode.JUMP: {
+          pc = code[pc + 1];
+          break;
+        }
+        case Bytecode.BRANCH_FALSE: {
+          final int condition = base + code[pc + 1];
+
+          if (undefined[condition]) {
+            if (this.abortOnUndefinedBehavior) {
+              throw InvalidProgramException.dynamicallyInvalid(
+                  this.program.positions[code[pc + 3]], "undefined control flow");
+            }
+
+            pc = code[pc + 2];
+          } else if (registers[condition] == 0) {
+            pc = code[pc + 2];
+          } else {
+            pc += 4;
+          }
+
+          break;
+        }
+        case Bytecode.STEP: {
+          checkNumberOfSteps(++this.numberOfSteps, this.maxNumberOfSteps);
+          this.budget.step();
+
+          pc += 1;
+          break;
+        }
+        case Bytecode.LOOP_ENTER: {
+          final int counter = base + code[pc + 1];
+
+          registers[counter] = 0;
+          undefined[counter] = false;
+
+          pc += 2;
+          break;
+        }
+        case Bytecode.LOOP_ITERATION: {
+          final int counter = base + code[pc + 1];
+          checkNumberOfSteps(++registers[counter], this.maxNumberOfLoopIterations);
+
+          pc += 2;
+          break;
+        }
+        case Bytecode.PRINT: {
+          final int source = base + code[pc + 1];
+
+          if (undefined[source]) {
+            if (this.abortOnUndefinedBehavior) {
+              throw InvalidProgramException.dynamicallyInvalid(
+                  this.program.positions[code[pc + 2]], "undefined output");
+            }
+
+            this.output.print(NumberValue.UNDEFINED);
+          } else {
+            this.output.print(new NumberValue(registers[source]));
+          }
+
+          pc += 3;
+          break;
+        }
+        case Bytecode.CALL: {
+          final CompiledFunction callee = this.program.functions[code[pc + 1]];
+          final int calleeBase = base + code[pc + 2];
+          final int numberOfArguments = code[pc + 3];
+
+          pushCall(function, pc + 4, base);
+
+          ensureNumberOfRegisters(calleeBase + callee.frameSize);
+          registers = this.registers;
+          undefined = this.undefined;
+
+          // the arguments are already in place, all other local variables are undefined
+          Arrays.fill(undefined,
+              calleeBase + numberOfArguments, calleeBase + callee.numberOfLocals, true);
+
+          function = callee;
+          code = callee.code;
+          base = calleeBase;
+          pc = 0;
+
+          break;
+        }
+        case Bytecode.CALL_UNRESOLVED: {
+          throw new NullPointerException("callee has not been resolved");
+        }
+        case Bytecode.RETURN:
+        case Bytecode.RETURN_VOID:
+        case Bytecode.RETURN_END: {
+          final boolean hasReturnValue;
+          {
+            if (code[pc] == Bytecode.RETURN) {
+              assert (function.returnType == AtomicType.INT);
+              hasReturnValue = true;
+            } else if (code[pc] == Bytecode.RETURN_VOID) {
+              assert (function.returnType == AtomicType.VOID);
+              hasReturnValue = false;
+            } else {
+              final Type returnType = function.annotatedReturnType;
+
+              if (returnType == AtomicType.VOID) {
+                hasReturnValue = false;
+              } else {
+                assert (returnType == AtomicType.INT);
+                hasReturnValue = true;
+              }
+            }
+          }
+
+          final long returnValue;
+          final boolean undefinedReturnValue;
+          {
+            if (code[pc] == Bytecode.RETURN) {
+              returnValue = registers[base + code[pc + 1]];
+              undefinedReturnValue = undefined[base + code[pc + 1]];
+            } else {
+              returnValue = 0;
+              undefinedReturnValue = true;
+            }
+          }
+
+          if (this.callDepth == 0) {
+            if (!hasReturnValue) {
+              return null;
+            }
+
+            return (undefinedReturnValue)
+                ? (NumberValue.UNDEFINED)
+                : (new NumberValue(returnValue));
+          }
+
+          // the return value is stored at the start of the callee's frame
+          registers[base] = returnValue;
+          undefined[base] = undefinedReturnValue;
+
+          --this.callDepth;
+          function = this.callerFunctions[this.callDepth];
+          code = function.code;
+          pc = this.returnAddresses[this.callDepth];
+          base = this.callerBases[this.callDepth];
+
+          this.callerFunctions[this.callDepth] = null;
+
+          break;
+        }
+        default: {
+          throw new RuntimeException("unknown opcode: " + code[pc]);
+        }
+      }
+    }
+  }
+
+}
@@ -2,11 +2,15 @@ package i2.act.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
@@ -105,6 +109,16 @@ public final class FileUtil {
     return readFile(file);
   }
 
+  // opens the file for reading its characters in chunks (which are decoded just as by 'readFile()')
+  public static final Reader openReader(final String fileName) {
+    try {
+      return new InputStreamReader(
+          Files.newInputStream(Paths.get(fileName)), Charset.defaultCharset());
+    } catch (final IOException exception) {
+      throw new RuntimeException("unable to open file", exception);
+    }
+  }
+
   public static final void writeToFile(final String content, final String fileName) {
     final SafeWriter writer = SafeWriter.openFile(fileName);
     writer.write(content);
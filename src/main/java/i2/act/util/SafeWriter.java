@@ -14,15 +14,19 @@ public final class SafeWriter {
     return new SafeWriter(writer);
   }
 
-  public static final SafeWriter openStdOut() {
+  public static final SafeWriter fromOutputStream(final OutputStream outputStream) {
     try {
-      final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(System.out));
+      final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream));
       return new SafeWriter(writer);
     } catch (final Exception exception) {
       throw new RuntimeException(exception);
     }
   }
 
+  public static final SafeWriter openStdOut() {
+    return fromOutputStream(System.out);
+  }
+
   public static final SafeWriter openFile(final String fileName) {
     if ("-".equals(fileName)) {
       return openStdOut();
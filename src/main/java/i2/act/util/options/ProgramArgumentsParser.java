@@ -94,6 +94,17 @@ public final class ProgramArgumentsParser {
     }
   }
 
+  private final boolean isInlineValueOption(final String argument) {
+    final int separatorPosition = argument.indexOf('=');
+
+    if (!argument.startsWith("-") || separatorPosition == -1) {
+      return false;
+    }
+
+    final ProgramOption option = this.allowedOptions.get(argument.substring(0, separatorPosition));
+    return option != null && option.takesArgument;
+  }
+
   public final ProgramArguments parseArgs(final String[] args) {
     final ProgramArguments programArguments = new ProgramArguments();
 
@@ -112,7 +123,14 @@ public final class ProgramArgumentsParser {
         continue;
       }
 
-      if (this.allowedOptions.containsKey(optionKey)) {
+      if (!reachedPositionalArgumentSeparator && isInlineValueOption(optionKey)) {
+        // option given as '<option>=<value>'
+        final int separatorPosition = optionKey.indexOf('=');
+        programArguments.addOption(
+            optionKey.substring(0, separatorPosition), optionKey.substring(separatorPosition + 1));
+
+        idx += 1;
+      } else if (this.allowedOptions.containsKey(optionKey)) {
         final ProgramOption option = this.allowedOptions.get(optionKey);
 
         if (option.takesArgument) {